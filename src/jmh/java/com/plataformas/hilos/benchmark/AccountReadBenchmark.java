@@ -0,0 +1,76 @@
+package com.plataformas.hilos.benchmark;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.plataformas.hilos.dto.AccountResponse;
+import com.plataformas.hilos.entity.Money;
+import com.plataformas.hilos.service.AccountCache;
+import com.plataformas.hilos.service.AccountService;
+
+/**
+ * AccountService.getAccount con acierto de caché y forzando la lectura de base de datos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class AccountReadBenchmark {
+
+    private static final int ACCOUNTS = 1000;
+
+    @Param({BenchmarkContext.H2})
+    public String database;
+
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+    private AccountCache accountCache;
+    private long[] accountIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(database);
+        accountService = context.getBean(AccountService.class);
+        accountCache = context.getBean(AccountCache.class);
+        accountIds = BenchmarkContext.seedAccounts(context, ACCOUNTS, Money.valueOf("1000.00"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public AccountResponse getAccountCached() {
+        return accountService.getAccount(randomAccountId());
+    }
+
+    @Benchmark
+    public AccountResponse getAccountFromDatabase() {
+        Long id = randomAccountId();
+        accountCache.evict(List.of(id));
+        return accountService.getAccount(id);
+    }
+
+    private Long randomAccountId() {
+        return accountIds[ThreadLocalRandom.current().nextInt(ACCOUNTS)];
+    }
+}
@@ -0,0 +1,54 @@
+package com.plataformas.hilos.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.plataformas.hilos.HilosApplication;
+import com.plataformas.hilos.entity.Account;
+import com.plataformas.hilos.entity.Money;
+import com.plataformas.hilos.repository.AccountRepository;
+
+/**
+ * Arranque del contexto de Spring para los benchmarks: sin servidor web y con el perfil
+ * de la base de datos elegida por el parámetro "database" (h2 | postgres).
+ */
+final class BenchmarkContext {
+
+    static final String H2 = "h2";
+    static final String POSTGRES = "postgres";
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String database) {
+        String profile = switch (database) {
+            case H2 -> "jmh";
+            case POSTGRES -> "jmh-postgres";
+            default -> throw new IllegalArgumentException("Base de datos no soportada: " + database);
+        };
+        return new SpringApplicationBuilder(HilosApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles(profile)
+                .run();
+    }
+
+    /**
+     * Crea las cuentas del benchmark y devuelve sus IDs
+     */
+    static long[] seedAccounts(ConfigurableApplicationContext context, int count, Money balance) {
+        List<Account> accounts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Account account = new Account();
+            account.setOwner("JMH " + i);
+            account.setBalance(balance);
+            accounts.add(account);
+        }
+        return context.getBean(AccountRepository.class).saveAll(accounts).stream()
+                .mapToLong(Account::getId)
+                .toArray();
+    }
+}
@@ -0,0 +1,96 @@
+package com.plataformas.hilos.benchmark;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.ConcurrencyFailureException;
+
+import com.plataformas.hilos.dto.TransferRequest;
+import com.plataformas.hilos.entity.Money;
+import com.plataformas.hilos.service.TransferEngine;
+import com.plataformas.hilos.service.TransferEngineRegistry;
+import com.plataformas.hilos.service.TransferRetryTemplate;
+
+/**
+ * Bloqueo pesimista frente a optimista (@Version + reintentos) y el motor adaptive a distintos
+ * niveles de contención. "accounts" es el número de cuentas entre las que se reparten las
+ * transferencias: con 2 todas chocan, con 1000 casi ninguna. El punto de cruce es el número de
+ * cuentas a partir del cual optimistic supera a pessimistic; se necesitan varios hilos
+ * (-Pjmh.threads=8) para que haya contención. Los contadores completed/exhausted muestran
+ * cuántas transferencias agotaron los reintentos (hilos.transfer.retry.max-attempts).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ConcurrencyModeBenchmark {
+
+    private static final Money AMOUNT = Money.valueOf("1.00");
+
+    @Param({BenchmarkContext.H2})
+    public String database;
+
+    @Param({"pessimistic", "optimistic", "adaptive"})
+    public String engine;
+
+    @Param({"2", "8", "64", "1000"})
+    public int accounts;
+
+    private ConfigurableApplicationContext context;
+    private TransferEngine transferEngine;
+    private TransferRetryTemplate transferRetryTemplate;
+    private long[] accountIds;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+        public long completed;
+        public long exhausted;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(database);
+        transferEngine = context.getBean(TransferEngineRegistry.class).getEngine(engine);
+        transferRetryTemplate = context.getBean(TransferRetryTemplate.class);
+        // Saldo suficiente para que ninguna transferencia falle durante la medición
+        accountIds = BenchmarkContext.seedAccounts(context, accounts, Money.valueOf("1000000000.00"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void executeTransfer(Outcomes outcomes) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(accounts);
+        int to = (from + 1 + random.nextInt(accounts - 1)) % accounts;
+        TransferRequest request = new TransferRequest(accountIds[from], accountIds[to], AMOUNT);
+        try {
+            transferRetryTemplate.execute(() -> transferEngine.executeTransfer(request, UUID.randomUUID()));
+            outcomes.completed++;
+        } catch (ConcurrencyFailureException e) {
+            outcomes.exhausted++;
+        }
+    }
+}
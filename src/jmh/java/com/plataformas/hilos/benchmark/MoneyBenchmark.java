@@ -0,0 +1,92 @@
+package com.plataformas.hilos.benchmark;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.plataformas.hilos.entity.Money;
+
+/**
+ * BigDecimal frente a Money (long en centavos) en las operaciones del camino caliente:
+ * comprobar saldo, debitar y abonar sobre saldos guardados (como en las entidades Account)
+ * y serializar el importe a JSON. La memoria reservada por operación se ve con el profiler gc:
+ * ./gradlew jmh -Pjmh.include=MoneyBenchmark -Pjmh.prof=gc  (columna gc.alloc.rate.norm)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoneyBenchmark {
+
+    private static final int ACCOUNTS = 1024;
+
+    private final BigDecimal[] decimalBalances = new BigDecimal[ACCOUNTS];
+    private final Money[] moneyBalances = new Money[ACCOUNTS];
+    private final BigDecimal decimalAmount = new BigDecimal("1.25");
+    private final Money moneyAmount = Money.valueOf("1.25");
+    private ObjectMapper objectMapper;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < ACCOUNTS; i++) {
+            decimalBalances[i] = new BigDecimal("1000000.00");
+            moneyBalances[i] = Money.valueOf("1000000.00");
+        }
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public boolean bigDecimalTransfer() {
+        int from = nextAccount();
+        int to = (from + 1) & (ACCOUNTS - 1);
+        if (decimalBalances[from].compareTo(decimalAmount) < 0) {
+            return false;
+        }
+        decimalBalances[from] = decimalBalances[from].subtract(decimalAmount);
+        decimalBalances[to] = decimalBalances[to].add(decimalAmount);
+        return true;
+    }
+
+    @Benchmark
+    public boolean moneyTransfer() {
+        int from = nextAccount();
+        int to = (from + 1) & (ACCOUNTS - 1);
+        if (moneyBalances[from].isLessThan(moneyAmount)) {
+            return false;
+        }
+        moneyBalances[from] = moneyBalances[from].minus(moneyAmount);
+        moneyBalances[to] = moneyBalances[to].plus(moneyAmount);
+        return true;
+    }
+
+    @Benchmark
+    public String bigDecimalJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(decimalBalances[nextAccount()]);
+    }
+
+    @Benchmark
+    public String moneyJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(moneyBalances[nextAccount()]);
+    }
+
+    private int nextAccount() {
+        next = (next + 1) & (ACCOUNTS - 1);
+        return next;
+    }
+}
@@ -0,0 +1,94 @@
+package com.plataformas.hilos.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.plataformas.hilos.dto.ApiResponse;
+import com.plataformas.hilos.dto.TransactionResponse;
+import com.plataformas.hilos.entity.Account;
+import com.plataformas.hilos.entity.Money;
+import com.plataformas.hilos.entity.Transaction;
+import com.plataformas.hilos.entity.TransactionStatus;
+import com.plataformas.hilos.service.TransferExecutorService;
+
+/**
+ * Coste por página de mapToResponse y de serializar ApiResponse<List<TransactionResponse>>
+ * con un ObjectMapper configurado como el de Spring MVC. No necesita base de datos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseMappingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int pageSize;
+
+    private List<Transaction> transactions;
+    private ApiResponse<List<TransactionResponse>> response;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        Account from = account(1L, "Origen");
+        Account to = account(2L, "Destino");
+        transactions = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setId((long) i);
+            transaction.setReference(UUID.randomUUID());
+            transaction.setFromAccount(from);
+            transaction.setToAccount(to);
+            transaction.setAmount(Money.valueOf("12.34"));
+            transaction.setStatus(TransactionStatus.COMPLETED);
+            transaction.setCreatedAt(LocalDateTime.now());
+            transaction.setUpdatedAt(LocalDateTime.now());
+            transactions.add(transaction);
+        }
+        response = ApiResponse.success(mapToResponse());
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public List<TransactionResponse> mapToResponse() {
+        List<TransactionResponse> responses = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            responses.add(TransferExecutorService.mapToResponse(transaction));
+        }
+        return responses;
+    }
+
+    @Benchmark
+    public byte[] serializeApiResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    private static Account account(Long id, String owner) {
+        Account account = new Account();
+        account.setId(id);
+        account.setOwner(owner);
+        account.setBalance(Money.valueOf("1000.00"));
+        account.setCreatedAt(LocalDateTime.now());
+        return account;
+    }
+}
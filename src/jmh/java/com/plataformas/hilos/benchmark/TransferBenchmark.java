@@ -0,0 +1,82 @@
+package com.plataformas.hilos.benchmark;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.plataformas.hilos.dto.TransactionResponse;
+import com.plataformas.hilos.dto.TransferRequest;
+import com.plataformas.hilos.entity.Money;
+import com.plataformas.hilos.service.TransferExecutorService;
+
+/**
+ * Throughput de TransferExecutorService.executeTransfer. "contention" es la fracción de
+ * transferencias que van al par caliente (las dos primeras cuentas, en ambos sentidos);
+ * el resto elige origen y destino al azar entre ACCOUNTS cuentas.
+ * El número de hilos se fija con -Pjmh.threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TransferBenchmark {
+
+    private static final int ACCOUNTS = 1000;
+    private static final Money AMOUNT = Money.valueOf("1.00");
+
+    @Param({BenchmarkContext.H2})
+    public String database;
+
+    @Param({"0.0", "0.5", "0.9"})
+    public double contention;
+
+    private ConfigurableApplicationContext context;
+    private TransferExecutorService transferExecutorService;
+    private long[] accountIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(database);
+        transferExecutorService = context.getBean(TransferExecutorService.class);
+        // Saldo suficiente para que ninguna transferencia falle durante la medición
+        accountIds = BenchmarkContext.seedAccounts(context, ACCOUNTS, Money.valueOf("1000000000.00"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TransactionResponse executeTransfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from;
+        int to;
+        if (random.nextDouble() < contention) {
+            from = random.nextInt(2);
+            to = 1 - from;
+        } else {
+            from = random.nextInt(ACCOUNTS);
+            to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+        }
+        return transferExecutorService.executeTransfer(
+                new TransferRequest(accountIds[from], accountIds[to], AMOUNT), UUID.randomUUID());
+    }
+}
@@ -1,29 +1,121 @@
 package com.plataformas.hilos.config;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import com.plataformas.hilos.service.TransferMetrics;
+
 @Configuration
 @EnableAsync
 public class AsyncConfig {
     
+    public static final String MODE_PLATFORM = "platform";
+    public static final String MODE_VIRTUAL = "virtual";
+    
+    /**
+     * Executor de @Async("transferExecutor"). Modo configurable con hilos.executor.mode:
+     * - platform: pool fijo de hilos nativos con cola acotada
+     * - virtual: un hilo virtual por tarea, con la concurrencia limitada por un semáforo
+     *   del tamaño del pool de conexiones (el recurso que realmente escasea)
+     * En ambos modos publica cola, hilos activos y rechazos (hilos.executor.*).
+     */
     @Bean(name = "transferExecutor")
-    public ThreadPoolTaskExecutor transferExecutor() {
+    public AsyncTaskExecutor transferExecutor(
+            TransferMetrics transferMetrics,
+            @Value("${hilos.executor.mode:platform}") String mode,
+            @Value("${hilos.executor.pool-size:10}") int poolSize,
+            @Value("${hilos.executor.queue-capacity:20000}") int queueCapacity,
+            @Value("${hilos.executor.max-concurrency:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrency) {
+        if (MODE_VIRTUAL.equals(mode)) {
+            Semaphore permits = new Semaphore(Math.max(1, maxConcurrency));
+            transferMetrics.bindExecutor(permits, Math.max(1, maxConcurrency));
+            return virtualThreadExecutor(permits);
+        }
+        if (!MODE_PLATFORM.equals(mode)) {
+            throw new IllegalStateException("Modo de executor desconocido: " + mode);
+        }
+        ThreadPoolTaskExecutor executor = platformThreadExecutor(poolSize, queueCapacity);
+        executor.setRejectedExecutionHandler(
+                transferMetrics.countingRejections(new ThreadPoolExecutor.CallerRunsPolicy()));
+        transferMetrics.bindExecutor(executor);
+        return executor;
+    }
+    
+    /**
+     * Hilos del generador de carga (POST /demo/load-test). Pool propio y gestionado por Spring:
+     * la carga generada no compite con las transferencias asíncronas por transferExecutor.
+     */
+    @Bean(name = "loadGeneratorExecutor")
+    public ThreadPoolTaskExecutor loadGeneratorExecutor(@Value("${hilos.loadgen.threads:32}") int threads) {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        // Pool realista para alta concurrencia con backpressure
-        // Evita crear 10k hilos nativos; se encolan tareas excedentes
-        executor.setCorePoolSize(1);       // ajusta según # de CPUs
-        executor.setMaxPoolSize(10);       // permite bursts controlados
-        executor.setQueueCapacity(20000);   // capacidad para oleadas grandes
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(threads);
+        executor.setThreadNamePrefix("LoadGen-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+    
+    /**
+     * Pool fork/join de la conciliación: agrega en paralelo los flujos por cuenta mientras
+     * el hilo de la conciliación sigue leyendo particiones. 0 = un hilo por procesador.
+     */
+    @Bean(name = "reconciliationPool", destroyMethod = "shutdownNow")
+    public ForkJoinPool reconciliationPool(@Value("${hilos.reconciliation.parallelism:0}") int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(threads);
+    }
+    
+    /**
+     * Pool de hilos nativos. Spring lo inicializa al registrarlo como bean;
+     * fuera del contenedor hay que llamar a initialize().
+     */
+    public static ThreadPoolTaskExecutor platformThreadExecutor(int poolSize, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        // core = max: con una cola acotada, ThreadPoolExecutor solo crece por encima del core
+        // cuando la cola está llena, así que un core menor dejaría trabajando a un solo hilo
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);   // capacidad para oleadas grandes
         executor.setThreadNamePrefix("Transfer-");
         executor.setKeepAliveSeconds(60);
         executor.setWaitForTasksToCompleteOnShutdown(true);
         executor.setAwaitTerminationSeconds(30);
         // En caso de saturación, ejecutar en el hilo del llamador para evitar rechazos (500)
-        executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy());
-        executor.initialize();
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+    
+    /**
+     * Hilos virtuales sin cola: cada tarea arranca de inmediato y espera su permiso en el
+     * semáforo (bloquear un hilo virtual es barato), así nunca hay más transferencias
+     * pidiendo conexión que conexiones en el pool.
+     */
+    public static SimpleAsyncTaskExecutor virtualThreadExecutor(int maxConcurrency) {
+        return virtualThreadExecutor(new Semaphore(Math.max(1, maxConcurrency)));
+    }
+    
+    public static SimpleAsyncTaskExecutor virtualThreadExecutor(Semaphore permits) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("Transfer-vt-");
+        executor.setVirtualThreads(true);
+        executor.setTaskTerminationTimeout(30_000);
+        executor.setTaskDecorator(task -> () -> {
+            permits.acquireUninterruptibly();
+            try {
+                task.run();
+            } finally {
+                permits.release();
+            }
+        });
         return executor;
     }
 }
@@ -0,0 +1,65 @@
+package com.plataformas.hilos.config;
+
+import java.util.Map;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Alinea las secuencias de IDs con los datos existentes al arrancar. Las tablas accounts y
+ * transactions usaban IDENTITY (BIGSERIAL); con ddl-auto=update Hibernate crea accounts_seq y
+ * transactions_seq empezando en 1 y los INSERT chocarían con las claves ya usadas. Si el
+ * siguiente bloque de la secuencia no queda por encima de MAX(id), se reinicia en
+ * MAX(id) + allocationSize + 1. Se ejecuta antes de que el servidor web y las tareas
+ * programadas empiecen a insertar; con la secuencia ya alineada solo consume un bloque de IDs.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdSequenceAligner implements SmartInitializingSingleton {
+
+    /** allocationSize de los @SequenceGenerator de las entidades */
+    private static final long ALLOCATION_SIZE = 50;
+
+    private static final Map<String, String> SEQUENCES_BY_TABLE = Map.of(
+            "accounts", "accounts_seq",
+            "transactions", "transactions_seq",
+            "transfer_outbox", "transfer_outbox_seq",
+            "account_snapshots", "account_snapshots_seq");
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        transactionTemplate.executeWithoutResult(status ->
+                SEQUENCES_BY_TABLE.forEach((table, sequence) -> align(dialect, table, sequence)));
+    }
+
+    private void align(Dialect dialect, String table, String sequence) {
+        long maxId = ((Number) entityManager.createNativeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)
+                .getSingleResult()).longValue();
+        if (maxId == 0) {
+            return;
+        }
+        long nextValue = ((Number) entityManager.createNativeQuery(
+                dialect.getSequenceSupport().getSequenceNextValString(sequence)).getSingleResult()).longValue();
+        // Con el optimizador pooled el bloque obtenido es (nextValue - allocationSize, nextValue]
+        if (nextValue - ALLOCATION_SIZE >= maxId) {
+            return;
+        }
+        long restartWith = maxId + ALLOCATION_SIZE + 1;
+        entityManager.createNativeQuery("ALTER SEQUENCE " + sequence + " RESTART WITH " + restartWith).executeUpdate();
+        log.warn("Secuencia {} por detrás de {} (MAX(id) = {}): reiniciada en {}", sequence, table, maxId, restartWith);
+    }
+}
@@ -0,0 +1,59 @@
+package com.plataformas.hilos.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Réplica de lectura (solo si se configura hilos.datasource.replica.jdbc-url). Hay dos pools
+ * Hikari: "primary" (spring.datasource.*) para las transferencias y "replica"
+ * (hilos.datasource.replica.*) para las transacciones @Transactional(readOnly = true), de modo
+ * que las lecturas grandes no ocupan conexiones de la primaria.
+ *
+ * El DataSource de JPA es un LazyConnectionDataSourceProxy: la conexión real se pide en la
+ * primera sentencia, cuando ya se sabe si la transacción es de solo lectura, y se toma del pool
+ * que corresponde. Cada pool publica sus métricas por separado (hikaricp.connections.*{pool}).
+ */
+@Configuration
+@ConditionalOnProperty(name = "hilos.datasource.replica.jdbc-url")
+@Slf4j
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("hilos.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") HikariDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource));
+        log.info("Lecturas de solo lectura dirigidas a la réplica {}", replicaDataSource.getJdbcUrl());
+        return dataSource;
+    }
+}
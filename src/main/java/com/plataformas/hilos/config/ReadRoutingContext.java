@@ -0,0 +1,42 @@
+package com.plataformas.hilos.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Decide por hilo a qué pool van las transacciones de solo lectura cuando hay réplica
+ * (ReadReplicaConfig). Por defecto van a la réplica; con primary reads activado van a la
+ * primaria y ven las escrituras recién confirmadas (read-your-writes). La decisión se toma al
+ * obtener la conexión, en el hilo que ejecuta la transacción: no se propaga a tareas asíncronas.
+ */
+public final class ReadRoutingContext {
+
+    private static final ThreadLocal<Boolean> PRIMARY_READS = new ThreadLocal<>();
+
+    private ReadRoutingContext() {
+    }
+
+    public static boolean isPrimaryReads() {
+        return Boolean.TRUE.equals(PRIMARY_READS.get());
+    }
+
+    public static void setPrimaryReads(boolean primaryReads) {
+        if (primaryReads) {
+            PRIMARY_READS.set(Boolean.TRUE);
+        } else {
+            PRIMARY_READS.remove();
+        }
+    }
+
+    /**
+     * Ejecuta action con las lecturas dirigidas a la primaria y restaura el estado anterior
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        boolean previous = isPrimaryReads();
+        setPrimaryReads(true);
+        try {
+            return action.get();
+        } finally {
+            setPrimaryReads(previous);
+        }
+    }
+}
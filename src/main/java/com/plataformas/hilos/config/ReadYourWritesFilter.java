@@ -0,0 +1,35 @@
+package com.plataformas.hilos.config;
+
+import java.io.IOException;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Con la cabecera X-Read-Your-Writes: true las lecturas de la petición van a la primaria, para
+ * un cliente que necesita ver su propia escritura aunque la réplica vaya con retraso
+ */
+@Component
+@ConditionalOnProperty(name = "hilos.datasource.replica.jdbc-url")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Read-Your-Writes";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean primaryReads = Boolean.parseBoolean(request.getHeader(HEADER));
+        ReadRoutingContext.setPrimaryReads(primaryReads);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadRoutingContext.setPrimaryReads(false);
+        }
+    }
+}
@@ -1,16 +1,22 @@
 package com.plataformas.hilos.controller;
 
+import com.plataformas.hilos.dto.AccountBalanceResponse;
 import com.plataformas.hilos.dto.AccountResponse;
 import com.plataformas.hilos.dto.ApiResponse;
 import com.plataformas.hilos.dto.CreateAccountRequest;
+import com.plataformas.hilos.dto.CursorPage;
+import com.plataformas.hilos.dto.TransactionResponse;
 import com.plataformas.hilos.service.AccountService;
+import com.plataformas.hilos.service.AccountSnapshotService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -19,7 +25,10 @@ import java.util.List;
 @Slf4j
 public class AccountController {
     
+    private static final int MAX_PAGE_SIZE = 1000;
+    
     private final AccountService accountService;
+    private final AccountSnapshotService accountSnapshotService;
     
     /**
      * POST /accounts
@@ -46,7 +55,7 @@ public class AccountController {
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<AccountResponse>> getAccount(@PathVariable Long id) {
         try {
-            log.info("Consultando cuenta con ID: {}", id);
+            log.debug("Consultando cuenta con ID: {}", id);
             AccountResponse account = accountService.getAccount(id);
             return ResponseEntity.ok(ApiResponse.success(account));
         } catch (Exception e) {
@@ -56,6 +65,59 @@ public class AccountController {
         }
     }
     
+    /**
+     * GET /accounts/{id}/balance?asOf=2025-01-31T00:00:00
+     * Saldo de la cuenta en una fecha (ISO-8601), calculado desde la foto de saldo más cercana.
+     * Sin asOf devuelve el saldo actual según el mismo cálculo
+     */
+    @GetMapping("/{id}/balance")
+    public ResponseEntity<ApiResponse<AccountBalanceResponse>> getBalanceAsOf(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+        try {
+            log.debug("Consultando saldo de la cuenta {} a {}", id, asOf);
+            AccountBalanceResponse balance = accountSnapshotService.getBalanceAsOf(
+                    id, asOf != null ? asOf : LocalDateTime.now());
+            return ResponseEntity.ok(ApiResponse.success(balance));
+        } catch (Exception e) {
+            log.error("Error consultando saldo histórico: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("Error consultando saldo: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * GET /accounts/{id}/transactions?from=&to=&limit=&cursor=
+     * Historial de transacciones de la cuenta (enviadas y recibidas), más recientes primero.
+     * from/to en ISO-8601 (p.ej. 2025-01-31T00:00:00); from inclusive, to exclusive.
+     * 400 si el cursor o el rango de fechas no son válidos, 404 si la cuenta no existe
+     */
+    @GetMapping("/{id}/transactions")
+    public ResponseEntity<ApiResponse<CursorPage<TransactionResponse>>> getAccountTransactions(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) String cursor) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Rango de fechas vacío: from debe ser anterior a to"));
+        }
+        try {
+            log.info("Consultando historial de la cuenta {}", id);
+            int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+            CursorPage<TransactionResponse> transactions =
+                    accountService.getAccountTransactions(id, from, to, cursor, pageSize);
+            return ResponseEntity.ok(ApiResponse.success(transactions));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error consultando historial de la cuenta: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("Error consultando historial: " + e.getMessage()));
+        }
+    }
+    
     /**
      * GET /accounts
      * Listar todas las cuentas
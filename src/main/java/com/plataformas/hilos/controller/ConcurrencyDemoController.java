@@ -1,26 +1,23 @@
 package com.plataformas.hilos.controller;
 
-import java.math.BigDecimal;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.atomic.AtomicInteger;
 
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.ResponseEntity;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.plataformas.hilos.dto.ApiResponse;
-import com.plataformas.hilos.dto.TransferRequest;
-import com.plataformas.hilos.service.TransactionService;
+import com.plataformas.hilos.dto.LoadScenario;
+import com.plataformas.hilos.dto.LoadTestReport;
+import com.plataformas.hilos.dto.LoadTestRequest;
+import com.plataformas.hilos.entity.Money;
+import com.plataformas.hilos.service.LoadGeneratorService;
 
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -30,68 +27,35 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class ConcurrencyDemoController {
     
-    private final TransactionService transactionService;
-    @Qualifier("transferExecutor")
-    private final ThreadPoolTaskExecutor transferExecutor;
+    // Tope de transferencias simultáneas de la demo, alineado con el tamaño por defecto del pool de conexiones
+    private static final int MAX_DEMO_THREADS = 10;
+    
+    private final LoadGeneratorService loadGeneratorService;
     
     /**
      * POST /demo/concurrent-transfers
      * Demostrar el problema de concurrencia con múltiples transferencias simultáneas
+     * (escenario FIXED_PAIR del generador de carga)
      */
     @PostMapping("/concurrent-transfers")
-    public ResponseEntity<ApiResponse<String>> demonstrateConcurrency(
+    public ResponseEntity<ApiResponse<LoadTestReport>> demonstrateConcurrency(
             @RequestParam Long fromAccountId,
             @RequestParam Long toAccountId,
-            @RequestParam BigDecimal amount,
+            @RequestParam Money amount,
             @RequestParam(defaultValue = "5") int numberOfTransfers) {
         
-        try {
-            log.info("Iniciando demostración de concurrencia con {} transferencias solicitadas", numberOfTransfers);
-            
-            // Usar el límite del AsyncConfig para alinear la demo con la config global
-            int configuredMax = transferExecutor.getMaxPoolSize();
-            int poolSize = Math.min(configuredMax, Math.max(4, numberOfTransfers));
-            ExecutorService executor = Executors.newFixedThreadPool(poolSize);
-            List<CompletableFuture<Void>> futures = new ArrayList<>();
-            AtomicInteger successCount = new AtomicInteger(0);
-            AtomicInteger failureCount = new AtomicInteger(0);
-            
-            // Crear múltiples transferencias simultáneas
-            for (int i = 0; i < numberOfTransfers; i++) {
-                final int transferNumber = i + 1;
-                TransferRequest request = new TransferRequest(fromAccountId, toAccountId, amount);
-                
-                CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
-                    try {
-                        log.info("Ejecutando transferencia {} de {}: {} -> {} (${})", 
-                                transferNumber, numberOfTransfers, fromAccountId, toAccountId, amount);
-                        transactionService.executeTransfer(request);
-                        successCount.incrementAndGet();
-                    } catch (Exception e) {
-                        log.error("Error en transferencia {}: {}", transferNumber, e.getMessage());
-                        failureCount.incrementAndGet();
-                    }
-                }, executor);
-                
-                futures.add(future);
-            }
-            
-            // Esperar a que todas las transferencias terminen
-            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
-            executor.shutdown();
-            
-            log.info("Resumen demo concurrencia -> éxitos: {}, fallos: {} (total: {}) | poolSize: {}",
-                    successCount.get(), failureCount.get(), numberOfTransfers, poolSize);
-
-            return ResponseEntity.ok(ApiResponse.success(
-                    "Demostración de concurrencia completada. Se lanzaron " + numberOfTransfers + 
-                    " transferencias. Revisa los logs para ver el comportamiento."));
-            
-        } catch (Exception e) {
-            log.error("Error en demostración de concurrencia: {}", e.getMessage());
-            return ResponseEntity.badRequest()
-                    .body(ApiResponse.error("Error en demostración: " + e.getMessage()));
-        }
+        LoadTestRequest request = new LoadTestRequest(LoadScenario.FIXED_PAIR, List.of(fromAccountId, toAccountId),
+                amount, numberOfTransfers, Math.min(MAX_DEMO_THREADS, numberOfTransfers));
+        return runLoadTest(request);
+    }
+    
+    /**
+     * POST /demo/load-test
+     * Ejecutar un escenario de carga y devolver el informe (throughput, percentiles, fallos, saldos)
+     */
+    @PostMapping("/load-test")
+    public ResponseEntity<ApiResponse<LoadTestReport>> loadTest(@Valid @RequestBody LoadTestRequest request) {
+        return runLoadTest(request);
     }
     
     /**
@@ -105,4 +69,16 @@ public class ConcurrencyDemoController {
                 "con múltiples transferencias desde la misma cuenta. " +
                 "La sincronización implementada previene saldos negativos."));
     }
+    
+    private ResponseEntity<ApiResponse<LoadTestReport>> runLoadTest(LoadTestRequest request) {
+        try {
+            log.info("Iniciando prueba de carga {} con {} transferencias", request.getScenario(), request.getTotalTransfers());
+            LoadTestReport report = loadGeneratorService.run(request);
+            return ResponseEntity.ok(ApiResponse.success("Prueba de carga completada", report));
+        } catch (Exception e) {
+            log.error("Error en prueba de carga: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Error en prueba de carga: " + e.getMessage()));
+        }
+    }
 }
@@ -0,0 +1,58 @@
+package com.plataformas.hilos.controller;
+
+import com.plataformas.hilos.dto.ApiResponse;
+import com.plataformas.hilos.dto.ReconciliationReport;
+import com.plataformas.hilos.service.ReconciliationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Conciliación de saldos contra las transferencias completadas
+ */
+@RestController
+@RequestMapping("/reconciliation")
+@RequiredArgsConstructor
+@Slf4j
+public class ReconciliationController {
+    
+    private final ReconciliationService reconciliationService;
+    
+    /**
+     * POST /reconciliation
+     * Ejecuta una conciliación completa sobre una foto consistente y devuelve el informe
+     */
+    @PostMapping
+    public ResponseEntity<ApiResponse<ReconciliationReport>> reconcile() {
+        try {
+            ReconciliationReport report = reconciliationService.reconcile();
+            String message = report.isConsistent()
+                    ? "Conciliación correcta"
+                    : "Conciliación con " + report.getMismatchCount() + " cuentas descuadradas";
+            return ResponseEntity.ok(ApiResponse.success(message, report));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error en la conciliación: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error en la conciliación: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * GET /reconciliation/last
+     * Informe de la última conciliación (manual o programada)
+     */
+    @GetMapping("/last")
+    public ResponseEntity<ApiResponse<ReconciliationReport>> getLastReport() {
+        ReconciliationReport report = reconciliationService.getLastReport();
+        if (report == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("Todavía no se ha ejecutado ninguna conciliación"));
+        }
+        return ResponseEntity.ok(ApiResponse.success(report));
+    }
+}
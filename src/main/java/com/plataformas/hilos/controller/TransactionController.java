@@ -1,18 +1,36 @@
 package com.plataformas.hilos.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.plataformas.hilos.dto.ApiResponse;
+import com.plataformas.hilos.dto.BatchTransferResult;
+import com.plataformas.hilos.dto.CursorPage;
+import com.plataformas.hilos.dto.MultiLegTransferRequest;
 import com.plataformas.hilos.dto.TransactionResponse;
 import com.plataformas.hilos.dto.TransferRequest;
 import com.plataformas.hilos.entity.TransactionStatus;
+import com.plataformas.hilos.exception.TransferRejectedException;
+import com.plataformas.hilos.service.BatchTransferService;
+import com.plataformas.hilos.service.MultiLegTransferService;
 import com.plataformas.hilos.service.TransactionService;
+import com.plataformas.hilos.service.TransferSubmissionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
 @RestController
@@ -21,26 +39,44 @@ import java.util.concurrent.CompletableFuture;
 @Slf4j
 public class TransactionController {
     
+    // Límite del long-poll, por debajo del timeout de peticiones asíncronas de Spring MVC (30 s)
+    private static final long MAX_AWAIT_MS = 25_000;
+    private static final int MAX_PAGE_SIZE = 1000;
+    
     private final TransactionService transactionService;
+    private final BatchTransferService batchTransferService;
+    private final MultiLegTransferService multiLegTransferService;
+    private final TransferSubmissionService transferSubmissionService;
+    private final ObjectMapper objectMapper;
     
     /**
      * POST /accounts/transfer
-     * Realizar transferencia entre dos cuentas (procesamiento asíncrono)
+     * Realizar transferencia entre dos cuentas (procesamiento asíncrono).
+     * Responde 202 con la referencia de la transacción y su URL de consulta en Location.
+     * Con la cabecera Idempotency-Key, un reintento devuelve la transferencia original
      */
     @PostMapping("/transfer")
-    public ResponseEntity<ApiResponse<String>> transfer(@Valid @RequestBody TransferRequest request) {
+    public ResponseEntity<ApiResponse<TransactionResponse>> transfer(
+            @Valid @RequestBody TransferRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         try {
-            log.info("Iniciando transferencia: {} -> {} (${})", 
-                    request.getFromAccountId(), request.getToAccountId(), request.getAmount());
+            if (log.isDebugEnabled()) {
+                log.debug("Iniciando transferencia: {} -> {} (${})",
+                        request.getFromAccountId(), request.getToAccountId(), request.getAmount());
+            }
             
-            // Procesar transferencia de forma asíncrona
-            CompletableFuture<TransactionResponse> future = transactionService.processTransfer(request);
+            // Procesar transferencia de forma asíncrona; la referencia se asigna ya
+            TransactionResponse pending = transferSubmissionService.submit(request, idempotencyKey);
             
             // Retornar inmediatamente con un mensaje de que la transferencia está en proceso
             return ResponseEntity.accepted()
+                    .location(URI.create("/transactions/" + pending.getReference()))
                     .body(ApiResponse.success("Transferencia iniciada y está siendo procesada de forma asíncrona", 
-                            "Transacción ID será asignado cuando se complete"));
+                            pending));
             
+        } catch (TransferRejectedException e) {
+            // 503 + Retry-After desde GlobalExceptionHandler
+            throw e;
         } catch (Exception e) {
             log.error("Error iniciando transferencia: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -55,8 +91,10 @@ public class TransactionController {
     @PostMapping("/transfer-sync")
     public ResponseEntity<ApiResponse<TransactionResponse>> transferSync(@Valid @RequestBody TransferRequest request) {
         try {
-            log.info("Iniciando transferencia síncrona: {} -> {} (${})", 
-                    request.getFromAccountId(), request.getToAccountId(), request.getAmount());
+            if (log.isDebugEnabled()) {
+                log.debug("Iniciando transferencia síncrona: {} -> {} (${})",
+                        request.getFromAccountId(), request.getToAccountId(), request.getAmount());
+            }
             
             TransactionResponse transaction = transactionService.executeTransfer(request);
             
@@ -70,15 +108,66 @@ public class TransactionController {
     }
     
     /**
-     * GET /transactions
-     * Listar todas las transacciones realizadas
+     * POST /transactions/transfers/batch
+     * Procesar un lote de transferencias (array JSON). Devuelve un resultado por transferencia
+     */
+    @PostMapping(value = "/transfers/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<List<BatchTransferResult>>> transferBatch(@RequestBody List<TransferRequest> requests) {
+        log.info("Procesando lote de {} transferencias", requests.size());
+        List<BatchTransferResult> results = batchTransferService.processBatch(requests.iterator());
+        return ResponseEntity.ok(ApiResponse.success("Lote procesado", results));
+    }
+    
+    /**
+     * POST /transactions/transfers/batch
+     * Procesar un lote de transferencias enviado como NDJSON (una transferencia por línea).
+     * El cuerpo se lee de forma incremental, sin cargar el lote completo en memoria
+     */
+    @PostMapping(value = "/transfers/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ApiResponse<List<BatchTransferResult>>> transferBatchNdjson(InputStream body) throws IOException {
+        log.info("Procesando lote NDJSON de transferencias");
+        try (MappingIterator<TransferRequest> requests = objectMapper.readerFor(TransferRequest.class).readValues(body)) {
+            List<BatchTransferResult> results = batchTransferService.processBatch(requests);
+            return ResponseEntity.ok(ApiResponse.success("Lote procesado", results));
+        }
+    }
+    
+    /**
+     * POST /transactions/transfers/multi-leg
+     * Transferencia de varios tramos (p.ej. una nómina): se aplican todos o ninguno.
+     * Devuelve una transacción por tramo, en el mismo orden
+     */
+    @PostMapping("/transfers/multi-leg")
+    public ResponseEntity<ApiResponse<List<TransactionResponse>>> transferMultiLeg(
+            @Valid @RequestBody MultiLegTransferRequest request) {
+        try {
+            log.info("Procesando transferencia de {} tramos", request.getLegs().size());
+            List<TransactionResponse> transactions = multiLegTransferService.executeTransfer(request);
+            return ResponseEntity.ok(ApiResponse.success("Transferencia de varios tramos completada", transactions));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error en transferencia de varios tramos: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Error en transferencia: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * GET /transactions?limit=&cursor=
+     * Listar las transacciones realizadas, paginadas por cursor (más recientes primero)
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<TransactionResponse>>> getAllTransactions() {
+    public ResponseEntity<ApiResponse<CursorPage<TransactionResponse>>> getAllTransactions(
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) String cursor) {
         try {
-            log.info("Consultando todas las transacciones");
-            List<TransactionResponse> transactions = transactionService.getAllTransactions();
+            log.info("Consultando transacciones");
+            CursorPage<TransactionResponse> transactions = transactionService.getTransactions(cursor, clampLimit(limit));
             return ResponseEntity.ok(ApiResponse.success(transactions));
+        } catch (IllegalArgumentException e) {
+            // Cursor manipulado o de otro listado
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             log.error("Error consultando transacciones: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -87,19 +176,95 @@ public class TransactionController {
     }
     
     /**
-     * GET /transactions/status/{status}
-     * Listar transacciones por estado (PENDING, COMPLETED, FAILED)
+     * GET /transactions/{id}
+     * Consultar una transacción por su referencia (UUID) o por su ID numérico
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<TransactionResponse>> getTransaction(@PathVariable String id) {
+        try {
+            return toResponse(id, findTransaction(id));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Identificador de transacción no válido: " + id));
+        }
+    }
+    
+    /**
+     * GET /transactions/{reference}/await?timeoutMs=
+     * Long-poll: responde cuando la transferencia llega a COMPLETED o FAILED,
+     * o al agotarse el tiempo de espera con su estado actual
+     */
+    @GetMapping("/{reference}/await")
+    public CompletableFuture<ResponseEntity<ApiResponse<TransactionResponse>>> awaitTransaction(
+            @PathVariable UUID reference,
+            @RequestParam(defaultValue = "25000") long timeoutMs) {
+        Duration timeout = Duration.ofMillis(Math.max(0, Math.min(timeoutMs, MAX_AWAIT_MS)));
+        return transactionService.awaitTransaction(reference, timeout)
+                .thenApply(transaction -> toResponse(reference.toString(), transaction));
+    }
+    
+    /**
+     * GET /transactions/export?status=
+     * Exportar todas las transacciones como NDJSON (una por línea), con memoria constante
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam(required = false) TransactionStatus status) {
+        log.info("Exportando transacciones (estado: {})", status);
+        StreamingResponseBody body = outputStream -> transactionService.exportTransactions(status, transaction -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(transaction));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+    
+    /**
+     * GET /transactions/status/{status}?limit=&cursor=
+     * Listar transacciones por estado (PENDING, COMPLETED, FAILED), paginadas por cursor
      */
     @GetMapping("/status/{status}")
-    public ResponseEntity<ApiResponse<List<TransactionResponse>>> getTransactionsByStatus(@PathVariable TransactionStatus status) {
+    public ResponseEntity<ApiResponse<CursorPage<TransactionResponse>>> getTransactionsByStatus(
+            @PathVariable TransactionStatus status,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) String cursor) {
         try {
             log.info("Consultando transacciones con estado: {}", status);
-            List<TransactionResponse> transactions = transactionService.getTransactionsByStatus(status);
+            CursorPage<TransactionResponse> transactions =
+                    transactionService.getTransactionsByStatus(status, cursor, clampLimit(limit));
             return ResponseEntity.ok(ApiResponse.success(transactions));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             log.error("Error consultando transacciones por estado: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.error("Error consultando transacciones: " + e.getMessage()));
         }
     }
+    
+    private static int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+    
+    private Optional<TransactionResponse> findTransaction(String id) {
+        if (id.chars().allMatch(Character::isDigit)) {
+            try {
+                return transactionService.getTransaction(Long.valueOf(id));
+            } catch (NumberFormatException e) {
+                // Fuera del rango de long: no puede ser el ID de ninguna transacción
+                return Optional.empty();
+            }
+        }
+        return transactionService.getTransaction(UUID.fromString(id));
+    }
+    
+    private ResponseEntity<ApiResponse<TransactionResponse>> toResponse(String id, Optional<TransactionResponse> transaction) {
+        return transaction
+                .map(found -> ResponseEntity.ok(ApiResponse.success(found)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.error("Transacción no encontrada: " + id)));
+    }
 }
@@ -0,0 +1,61 @@
+package com.plataformas.hilos.controller;
+
+import com.plataformas.hilos.dto.ApiResponse;
+import com.plataformas.hilos.dto.TransferEvent;
+import com.plataformas.hilos.service.SseTransferEventSink;
+import com.plataformas.hilos.service.TransferOutbox;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+/**
+ * Eventos de transferencias completadas (outbox), leídos de forma incremental por offset
+ */
+@RestController
+@RequestMapping("/transactions/events")
+@RequiredArgsConstructor
+@Slf4j
+public class TransferEventController {
+    
+    private static final int MAX_PAGE_SIZE = 1000;
+    
+    private final TransferOutbox transferOutbox;
+    private final SseTransferEventSink sseTransferEventSink;
+    
+    /**
+     * GET /transactions/events?since=0&limit=100
+     * Eventos con offset mayor que since, en orden. Para continuar: since = último offset recibido
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<TransferEvent>>> getEvents(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "100") int limit) {
+        try {
+            List<TransferEvent> events = transferOutbox.findPublishedAfter(since, Math.min(Math.max(limit, 1), MAX_PAGE_SIZE));
+            return ResponseEntity.ok(ApiResponse.success(events));
+        } catch (Exception e) {
+            log.error("Error consultando eventos: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Error consultando eventos: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * GET /transactions/events/stream?since=0
+     * Stream SSE (evento "transfer", id = offset). Al reconectar, el navegador envía
+     * Last-Event-ID y el stream continúa desde ahí
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(
+            @RequestParam(required = false) Long since,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        long position = lastEventId != null ? lastEventId : since != null ? since : 0L;
+        return sseTransferEventSink.subscribe(position);
+    }
+}
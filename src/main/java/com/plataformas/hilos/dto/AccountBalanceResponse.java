@@ -0,0 +1,20 @@
+package com.plataformas.hilos.dto;
+
+import com.plataformas.hilos.entity.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountBalanceResponse {
+    
+    private Long accountId;
+    private LocalDateTime asOf;
+    private Money balance;
+    /** Foto desde la que se calculó el saldo (null si no había ninguna) */
+    private LocalDateTime snapshotAsOf;
+}
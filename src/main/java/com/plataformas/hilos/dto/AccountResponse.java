@@ -1,10 +1,10 @@
 package com.plataformas.hilos.dto;
 
+import com.plataformas.hilos.entity.Money;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
@@ -14,6 +14,6 @@ public class AccountResponse {
     
     private Long id;
     private String owner;
-    private BigDecimal balance;
+    private Money balance;
     private LocalDateTime createdAt;
 }
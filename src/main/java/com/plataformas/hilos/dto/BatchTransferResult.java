@@ -0,0 +1,18 @@
+package com.plataformas.hilos.dto;
+
+import com.plataformas.hilos.entity.TransactionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTransferResult {
+    
+    /** Posición de la transferencia dentro del lote enviado (desde 0) */
+    private int index;
+    private Long transactionId;
+    private TransactionStatus status;
+    private String message;
+}
@@ -1,14 +1,12 @@
 package com.plataformas.hilos.dto;
 
+import com.plataformas.hilos.entity.Money;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.PositiveOrZero;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
-
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -18,6 +16,6 @@ public class CreateAccountRequest {
     private String owner;
     
     @NotNull(message = "El saldo inicial es obligatorio")
-    @PositiveOrZero(message = "El saldo inicial debe ser mayor o igual a 0")
-    private BigDecimal initialBalance;
+    @MoneyMin(value = 0, message = "El saldo inicial debe ser mayor o igual a 0")
+    private Money initialBalance;
 }
@@ -0,0 +1,18 @@
+package com.plataformas.hilos.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    
+    private List<T> items;
+    
+    /** Cursor opaco para pedir la página siguiente; null si no hay más resultados */
+    private String nextCursor;
+}
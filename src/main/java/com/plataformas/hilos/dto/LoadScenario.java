@@ -0,0 +1,17 @@
+package com.plataformas.hilos.dto;
+
+/**
+ * Escenarios del generador de carga (POST /demo/load-test)
+ */
+public enum LoadScenario {
+    /** Todas las transferencias de la primera cuenta a la segunda (demo original) */
+    FIXED_PAIR,
+    /** Origen y destino al azar, uniformes entre las cuentas indicadas */
+    UNIFORM,
+    /** Origen y destino con distribución Zipf: pocas cuentas concentran casi todo el tráfico */
+    ZIPFIAN,
+    /** Pares fijos (1-2, 3-4, ...) con transferencias en ambos sentidos a la vez */
+    OPPOSING_PAIRS,
+    /** Pares uniformes con tasa de llegada creciente de startRatePerSecond a endRatePerSecond */
+    RAMP
+}
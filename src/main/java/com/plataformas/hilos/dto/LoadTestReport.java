@@ -0,0 +1,30 @@
+package com.plataformas.hilos.dto;
+
+import com.plataformas.hilos.entity.Money;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+public class LoadTestReport {
+    
+    private LoadScenario scenario;
+    private int requested;
+    private long completed;
+    private long failed;
+    /** Fallos agrupados por causa: INSUFFICIENT_FUNDS, DEADLOCK, SERIALIZATION, LOCK, OTHER */
+    private Map<String, Long> failuresByCause;
+    private long durationMs;
+    private double throughputPerSecond;
+    /** Latencias en milisegundos (histograma HDR con 3 dígitos significativos) */
+    private double latencyP50Ms;
+    private double latencyP99Ms;
+    private double latencyP999Ms;
+    private double latencyMaxMs;
+    /** Suma de saldos de las cuentas de la prueba antes y después: debe coincidir */
+    private Money totalBalanceBefore;
+    private Money totalBalanceAfter;
+    private boolean balanceConserved;
+}
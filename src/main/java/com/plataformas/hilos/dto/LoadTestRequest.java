@@ -0,0 +1,56 @@
+package com.plataformas.hilos.dto;
+
+import com.plataformas.hilos.entity.Money;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class LoadTestRequest {
+    
+    @NotNull(message = "El escenario es obligatorio")
+    private LoadScenario scenario = LoadScenario.UNIFORM;
+    
+    @NotNull(message = "Las cuentas son obligatorias")
+    @Size(min = 2, message = "Se necesitan al menos 2 cuentas")
+    private List<Long> accountIds;
+    
+    @NotNull(message = "El monto es obligatorio")
+    @MoneyMin(value = 1, message = "El monto debe ser mayor a 0")
+    private Money amount = Money.ofCents(100);
+    
+    @Min(value = 1, message = "Debe haber al menos 1 transferencia")
+    @Max(value = 1_000_000, message = "Máximo 1.000.000 transferencias por prueba")
+    private int totalTransfers = 1000;
+    
+    /** Transferencias en vuelo a la vez (acotado por hilos.loadgen.threads) */
+    @Min(value = 1, message = "La concurrencia debe ser al menos 1")
+    private int concurrency = 10;
+    
+    /** Exponente de la distribución Zipf (solo ZIPFIAN) */
+    @DecimalMin(value = "0.0", message = "El exponente Zipf no puede ser negativo")
+    private double zipfExponent = 1.0;
+    
+    /** Tasa de llegada inicial y final en transferencias por segundo (solo RAMP) */
+    @Min(value = 1, message = "La tasa inicial debe ser al menos 1/s")
+    private int startRatePerSecond = 50;
+    
+    @Min(value = 1, message = "La tasa final debe ser al menos 1/s")
+    private int endRatePerSecond = 500;
+    
+    public LoadTestRequest(LoadScenario scenario, List<Long> accountIds, Money amount,
+                           int totalTransfers, int concurrency) {
+        this.scenario = scenario;
+        this.accountIds = accountIds;
+        this.amount = amount;
+        this.totalTransfers = totalTransfers;
+        this.concurrency = concurrency;
+    }
+}
@@ -0,0 +1,28 @@
+package com.plataformas.hilos.dto;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Importe Money mayor o igual que value (en centavos). null se considera válido: combinar con @NotNull
+ */
+@Documented
+@Constraint(validatedBy = MoneyMinValidator.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface MoneyMin {
+    
+    long value();
+    
+    String message() default "El monto debe ser mayor o igual a {value} centavos";
+    
+    Class<?>[] groups() default {};
+    
+    Class<? extends Payload>[] payload() default {};
+}
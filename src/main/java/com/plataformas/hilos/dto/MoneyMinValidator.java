@@ -0,0 +1,20 @@
+package com.plataformas.hilos.dto;
+
+import com.plataformas.hilos.entity.Money;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class MoneyMinValidator implements ConstraintValidator<MoneyMin, Money> {
+    
+    private long minCents;
+    
+    @Override
+    public void initialize(MoneyMin constraint) {
+        this.minCents = constraint.value();
+    }
+    
+    @Override
+    public boolean isValid(Money value, ConstraintValidatorContext context) {
+        return value == null || value.cents() >= minCents;
+    }
+}
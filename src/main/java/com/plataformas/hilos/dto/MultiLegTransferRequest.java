@@ -0,0 +1,29 @@
+package com.plataformas.hilos.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Transferencia de varios tramos que se aplica entera o no se aplica. Para una nómina o un
+ * pago repartido basta con fromAccountId y tramos con solo destino e importe; cada tramo
+ * puede indicar su propio origen para conjuntos de movimientos más generales
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MultiLegTransferRequest {
+    
+    /** Cuenta origen por defecto de los tramos que no indican la suya */
+    private Long fromAccountId;
+    
+    @NotEmpty(message = "La transferencia necesita al menos un tramo")
+    @Size(max = 1000, message = "Máximo 1000 tramos por transferencia")
+    @Valid
+    private List<TransferLeg> legs;
+}
@@ -0,0 +1,19 @@
+package com.plataformas.hilos.dto;
+
+import com.plataformas.hilos.entity.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationMismatch {
+    
+    private Long accountId;
+    /** Saldo inicial + entradas - salidas COMPLETED */
+    private Money expectedBalance;
+    private Money actualBalance;
+    /** actualBalance - expectedBalance */
+    private Money difference;
+}
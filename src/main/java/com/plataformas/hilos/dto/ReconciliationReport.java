@@ -0,0 +1,29 @@
+package com.plataformas.hilos.dto;
+
+import com.plataformas.hilos.entity.Money;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class ReconciliationReport {
+    
+    private LocalDateTime startedAt;
+    private long durationMs;
+    /** Particiones de IDs de transactions leídas y transferencias COMPLETED agregadas */
+    private int partitions;
+    private long transactionsScanned;
+    private long accountsChecked;
+    /** Cuentas sin initial_balance (anteriores a la columna): no se pueden comprobar */
+    private long accountsWithoutInitialBalance;
+    /** Suma de saldos actuales y de saldos esperados de las cuentas comprobadas: deben coincidir */
+    private Money totalBalance;
+    private Money totalExpectedBalance;
+    private long mismatchCount;
+    /** Primeras diferencias encontradas (como mucho hilos.reconciliation.max-reported-mismatches) */
+    private List<ReconciliationMismatch> mismatches;
+    private boolean consistent;
+}
@@ -1,12 +1,13 @@
 package com.plataformas.hilos.dto;
 
+import com.plataformas.hilos.entity.Money;
 import com.plataformas.hilos.entity.TransactionStatus;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Data
 @NoArgsConstructor
@@ -14,9 +15,10 @@ import java.time.LocalDateTime;
 public class TransactionResponse {
     
     private Long id;
+    private UUID reference;
     private Long fromAccountId;
     private Long toAccountId;
-    private BigDecimal amount;
+    private Money amount;
     private TransactionStatus status;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
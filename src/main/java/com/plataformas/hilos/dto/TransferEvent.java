@@ -0,0 +1,25 @@
+package com.plataformas.hilos.dto;
+
+import com.plataformas.hilos.entity.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferEvent {
+    
+    /** Posición en el stream de eventos: para continuar, pedir since = último offset recibido */
+    private Long offset;
+    private UUID reference;
+    private Long transactionId;
+    private Long fromAccountId;
+    private Long toAccountId;
+    private Money amount;
+    private LocalDateTime createdAt;
+    private LocalDateTime publishedAt;
+}
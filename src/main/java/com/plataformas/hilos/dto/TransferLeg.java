@@ -0,0 +1,23 @@
+package com.plataformas.hilos.dto;
+
+import com.plataformas.hilos.entity.Money;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferLeg {
+    
+    /** Opcional: si falta se usa el fromAccountId de la transferencia */
+    private Long fromAccountId;
+    
+    @NotNull(message = "El ID de la cuenta destino es obligatorio")
+    private Long toAccountId;
+    
+    @NotNull(message = "El monto es obligatorio")
+    @MoneyMin(value = 1, message = "El monto debe ser mayor a 0")
+    private Money amount;
+}
@@ -1,13 +1,11 @@
 package com.plataformas.hilos.dto;
 
+import com.plataformas.hilos.entity.Money;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
-
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -20,6 +18,6 @@ public class TransferRequest {
     private Long toAccountId;
     
     @NotNull(message = "El monto es obligatorio")
-    @Positive(message = "El monto debe ser mayor a 0")
-    private BigDecimal amount;
+    @MoneyMin(value = 1, message = "El monto debe ser mayor a 0")
+    private Money amount;
 }
@@ -5,7 +5,6 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
@@ -15,15 +14,28 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Account {
     
+    // Secuencia con asignación en bloques (pooled) para que Hibernate pueda agrupar INSERTs en lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "accounts_seq")
+    @SequenceGenerator(name = "accounts_seq", sequenceName = "accounts_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "owner", nullable = false, length = 100)
     private String owner;
     
     @Column(name = "balance", nullable = false, precision = 15, scale = 2)
-    private BigDecimal balance;
+    private Money balance;
+    
+    // Saldo con el que se abrió la cuenta; base de la conciliación (saldo = inicial + entradas - salidas).
+    // Nulo en cuentas anteriores a esta columna
+    @Column(name = "initial_balance", precision = 15, scale = 2, updatable = false)
+    private Money initialBalance;
+    
+    // Control de concurrencia optimista (motores optimistic y adaptive): cada UPDATE de la cuenta lo
+    // incrementa, también los UPDATE nativos de AccountRepository. El DEFAULT rellena las filas existentes
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0 not null")
+    private long version;
     
     @Column(name = "created_at")
     private LocalDateTime createdAt;
@@ -31,5 +43,8 @@ public class Account {
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        if (initialBalance == null) {
+            initialBalance = balance;
+        }
     }
 }
@@ -0,0 +1,42 @@
+package com.plataformas.hilos.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Saldo confirmado de una cuenta en un instante (as_of). El saldo en cualquier otra fecha
+ * se obtiene desde la foto más cercana sumando solo las transacciones intermedias.
+ */
+@Entity
+@Table(name = "account_snapshots", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_account_snapshots_account_as_of", columnNames = {"account_id", "as_of"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountSnapshot {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_snapshots_seq")
+    @SequenceGenerator(name = "account_snapshots_seq", sequenceName = "account_snapshots_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "account_id", nullable = false, updatable = false)
+    private Long accountId;
+    
+    @Column(name = "as_of", nullable = false, updatable = false)
+    private LocalDateTime asOf;
+    
+    @Column(name = "balance", nullable = false, precision = 15, scale = 2, updatable = false)
+    private Money balance;
+    
+    public AccountSnapshot(Long accountId, LocalDateTime asOf, Money balance) {
+        this.accountId = accountId;
+        this.asOf = asOf;
+        this.balance = balance;
+    }
+}
@@ -0,0 +1,71 @@
+package com.plataformas.hilos.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        // La limpieza borra por rangos de expires_at sin recorrer la tabla completa
+        @Index(name = "idx_idempotency_keys_expires", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+public class IdempotencyKey implements Persistable<String> {
+    
+    // La clave la envía el cliente: es la PK, así que un duplicado lo rechaza el índice único
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String idempotencyKey;
+    
+    @Column(name = "reference", nullable = false, updatable = false)
+    private UUID reference;
+    
+    // Origen, destino y monto de la transferencia original, para detectar claves reutilizadas
+    @Column(name = "fingerprint", nullable = false, updatable = false)
+    private String fingerprint;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    // Se marca justo antes de encolar: solo una reserva sin encolar puede reasignarse a un reintento.
+    // Las filas anteriores a la columna toman true, porque no se sabe si llegaron a encolarse
+    @Column(name = "dispatched", nullable = false, columnDefinition = "boolean default true not null")
+    private boolean dispatched;
+    
+    // Con ID asignado, save() haría un merge (SELECT + UPDATE); así se fuerza siempre el INSERT
+    @Transient
+    private boolean newKey = true;
+    
+    public IdempotencyKey(String idempotencyKey, UUID reference, String fingerprint,
+                          LocalDateTime createdAt, LocalDateTime expiresAt) {
+        this.idempotencyKey = idempotencyKey;
+        this.reference = reference;
+        this.fingerprint = fingerprint;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+    
+    @Override
+    public String getId() {
+        return idempotencyKey;
+    }
+    
+    @Override
+    public boolean isNew() {
+        return newKey;
+    }
+    
+    @PostLoad
+    @PostPersist
+    protected void markStored() {
+        newKey = false;
+    }
+}
@@ -5,20 +5,33 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        // Historial por cuenta: cada rama del UNION ALL usa su índice (cuenta, fecha, id)
+        @Index(name = "idx_transactions_from_created", columnList = "from_account_id, created_at, id"),
+        @Index(name = "idx_transactions_to_created", columnList = "to_account_id, created_at, id"),
+        // Listados paginados por keyset, global y por estado
+        @Index(name = "idx_transactions_status_created", columnList = "status, created_at, id"),
+        @Index(name = "idx_transactions_created", columnList = "created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Transaction {
     
+    // Secuencia con asignación en bloques (pooled) para que Hibernate pueda agrupar INSERTs en lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
     
+    // Referencia pública asignada al aceptar la transferencia, antes de tener ID de base de datos
+    @Column(name = "reference", unique = true, updatable = false)
+    private UUID reference;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "from_account_id", nullable = false)
     private Account fromAccount;
@@ -28,7 +41,7 @@ public class Transaction {
     private Account toAccount;
     
     @Column(name = "amount", nullable = false, precision = 15, scale = 2)
-    private BigDecimal amount;
+    private Money amount;
     
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false, length = 20)
@@ -42,8 +55,14 @@ public class Transaction {
     
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
+        // El ledger en memoria conserva la hora real de la transferencia al persistir en diferido
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
         updatedAt = LocalDateTime.now();
+        if (reference == null) {
+            reference = UUID.randomUUID();
+        }
         if (status == null) {
             status = TransactionStatus.PENDING;
         }
@@ -0,0 +1,54 @@
+package com.plataformas.hilos.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Evento de transferencia completada, escrito en la misma transacción que la transferencia.
+ * published_offset lo asigna el relay al publicar: es la posición del evento en el stream
+ * (creciente y sin huecos), la que usan los consumidores para seguir leyendo desde donde iban.
+ */
+@Entity
+@Table(name = "transfer_outbox", indexes = {
+        // Pendientes de publicar en orden de inserción (published_offset IS NULL ORDER BY id)
+        @Index(name = "idx_transfer_outbox_pending", columnList = "published_offset, id"),
+        // Lectura incremental de los consumidores y unicidad de la posición
+        @Index(name = "idx_transfer_outbox_offset", columnList = "published_offset", unique = true)
+})
+@Data
+@NoArgsConstructor
+public class TransferOutboxEvent {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transfer_outbox_seq")
+    @SequenceGenerator(name = "transfer_outbox_seq", sequenceName = "transfer_outbox_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "reference", nullable = false, updatable = false)
+    private UUID reference;
+    
+    @Column(name = "transaction_id", nullable = false, updatable = false)
+    private Long transactionId;
+    
+    @Column(name = "from_account_id", nullable = false, updatable = false)
+    private Long fromAccountId;
+    
+    @Column(name = "to_account_id", nullable = false, updatable = false)
+    private Long toAccountId;
+    
+    @Column(name = "amount", nullable = false, precision = 15, scale = 2, updatable = false)
+    private Money amount;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "published_offset")
+    private Long publishedOffset;
+    
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+}
@@ -2,6 +2,7 @@ package com.plataformas.hilos.exception;
 
 import com.plataformas.hilos.dto.ApiResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -32,6 +33,14 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error("Error de validación: " + errors.toString()));
     }
     
+    @ExceptionHandler(TransferRejectedException.class)
+    public ResponseEntity<ApiResponse<String>> handleTransferRejected(TransferRejectedException ex) {
+        log.warn("Transferencia rechazada por saturación: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+    
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ApiResponse<String>> handleRuntimeException(RuntimeException ex) {
         log.error("Error de runtime: {}", ex.getMessage());
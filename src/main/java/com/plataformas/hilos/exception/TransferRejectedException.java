@@ -0,0 +1,19 @@
+package com.plataformas.hilos.exception;
+
+/**
+ * La transferencia no se acepta porque el sistema está saturado; el cliente debe
+ * reintentar pasados retryAfterSeconds.
+ */
+public class TransferRejectedException extends RuntimeException {
+    
+    private final long retryAfterSeconds;
+    
+    public TransferRejectedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -3,12 +3,23 @@ package com.plataformas.hilos.repository;
 import com.plataformas.hilos.entity.Account;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
@@ -19,4 +30,50 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT a FROM Account a WHERE a.id = :id")
     Optional<Account> findByIdWithLock(@Param("id") Long id);
+    
+    /**
+     * Bloquea varias cuentas en una sola consulta (SELECT ... FOR UPDATE).
+     * Las filas se bloquean en orden ascendente de ID, de modo que dos transferencias
+     * en sentidos opuestos (A -> B y B -> A) nunca esperan una por la otra en ciclo.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.id IN :ids ORDER BY a.id")
+    List<Account> findAllByIdsWithLock(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * IDs de cuentas creadas hasta :createdUpTo, en orden y por páginas (keyset sobre la PK)
+     */
+    @Query("SELECT a.id FROM Account a WHERE a.id > :afterId " +
+           "AND (a.createdAt IS NULL OR a.createdAt <= :createdUpTo) ORDER BY a.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId,
+                            @Param("createdUpTo") LocalDateTime createdUpTo,
+                            Pageable pageable);
+    
+    /**
+     * Aplica un delta de saldo directamente en la base de datos (persistencia diferida del ledger).
+     * SQL nativo: balance es Money (MoneyConverter) y la aritmética se hace sobre la columna NUMERIC.
+     * Incrementa version para que una transferencia optimista que leyó la cuenta antes falle al confirmar
+     */
+    @Modifying
+    @Query(value = "UPDATE accounts SET balance = balance + :delta, version = version + 1 WHERE id = :id",
+           nativeQuery = true)
+    int applyBalanceDelta(@Param("id") Long id, @Param("delta") BigDecimal delta);
+    
+    /**
+     * Débito condicional en un único UPDATE: solo descuenta si hay saldo suficiente.
+     * Devuelve 0 si la cuenta no existe o no tiene fondos
+     */
+    @Modifying
+    @Query(value = "UPDATE accounts SET balance = balance - :amount, version = version + 1 " +
+                   "WHERE id = :id AND balance >= :amount",
+           nativeQuery = true)
+    int debitIfSufficient(@Param("id") Long id, @Param("amount") BigDecimal amount);
+    
+    /**
+     * Saldos de todas las cuentas como filas [id, balance, initialBalance], con un cursor JDBC.
+     * Debe consumirse dentro de una transacción y cerrarse al terminar.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT a.id, a.balance, a.initialBalance FROM Account a")
+    Stream<Object[]> streamBalances();
 }
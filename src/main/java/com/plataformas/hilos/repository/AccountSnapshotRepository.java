@@ -0,0 +1,33 @@
+package com.plataformas.hilos.repository;
+
+import com.plataformas.hilos.entity.AccountSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AccountSnapshotRepository extends JpaRepository<AccountSnapshot, Long> {
+    
+    /**
+     * Foto más reciente en o antes de asOf (índice único account_id, as_of)
+     */
+    Optional<AccountSnapshot> findFirstByAccountIdAndAsOfLessThanEqualOrderByAsOfDesc(Long accountId, LocalDateTime asOf);
+    
+    /**
+     * Foto más antigua posterior a asOf, para consultas anteriores a la primera foto
+     */
+    Optional<AccountSnapshot> findFirstByAccountIdAndAsOfGreaterThanOrderByAsOfAsc(Long accountId, LocalDateTime asOf);
+    
+    /**
+     * Última foto de cada una de las cuentas indicadas
+     */
+    @Query("SELECT s FROM AccountSnapshot s WHERE s.accountId IN :accountIds AND s.asOf = " +
+           "(SELECT MAX(s2.asOf) FROM AccountSnapshot s2 WHERE s2.accountId = s.accountId)")
+    List<AccountSnapshot> findLatestByAccountIds(@Param("accountIds") Collection<Long> accountIds);
+}
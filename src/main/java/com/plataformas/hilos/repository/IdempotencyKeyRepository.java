@@ -0,0 +1,52 @@
+package com.plataformas.hilos.repository;
+
+import com.plataformas.hilos.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+    
+    /**
+     * Borra como mucho "limit" claves expiradas, localizadas por el índice de expires_at.
+     * Lotes pequeños y una transacción por lote para no retener bloqueos
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM idempotency_keys WHERE idempotency_key IN (" +
+            "SELECT idempotency_key FROM idempotency_keys WHERE expires_at < :now LIMIT :limit)",
+            nativeQuery = true)
+    int deleteExpired(@Param("now") LocalDateTime now, @Param("limit") int limit);
+    
+    /**
+     * Reasigna la clave a "reference" solo si sigue ligada a staleReference, no llegó a encolarse
+     * y se reservó antes de cutoff. El UPDATE condicional hace que, entre varios reintentos, solo
+     * uno se la quede
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE idempotency_keys SET reference = :reference, created_at = :now " +
+            "WHERE idempotency_key = :key AND reference = :staleReference AND dispatched = false " +
+            "AND created_at < :cutoff",
+            nativeQuery = true)
+    int takeOver(@Param("key") String key, @Param("staleReference") UUID staleReference,
+                 @Param("reference") UUID reference, @Param("now") LocalDateTime now,
+                 @Param("cutoff") LocalDateTime cutoff);
+    
+    /**
+     * Marca la reserva como encolada si la clave sigue ligada a "reference"
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE idempotency_keys SET dispatched = true " +
+            "WHERE idempotency_key = :key AND reference = :reference",
+            nativeQuery = true)
+    int markDispatched(@Param("key") String key, @Param("reference") UUID reference);
+}
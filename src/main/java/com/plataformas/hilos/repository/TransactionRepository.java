@@ -2,30 +2,164 @@ package com.plataformas.hilos.repository;
 
 import com.plataformas.hilos.entity.Transaction;
 import com.plataformas.hilos.entity.TransactionStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
     
     /**
-     * Busca todas las transacciones por estado
+     * Busca una transacción por la referencia devuelta al aceptar la transferencia
      */
-    List<Transaction> findByStatus(TransactionStatus status);
+    Optional<Transaction> findByReference(UUID reference);
     
     /**
-     * Busca todas las transacciones de una cuenta específica (como emisor o receptor)
+     * Página del historial de una cuenta (como emisor o receptor) dentro de [from, to),
+     * por keyset sobre (created_at, id) descendente.
+     * El OR se reescribe como UNION ALL para que cada rama recorra su propio índice
+     * y se corte en :limit filas; la segunda rama excluye las transferencias a sí misma
+     * para no duplicarlas.
      */
-    @Query("SELECT t FROM Transaction t WHERE t.fromAccount.id = :accountId OR t.toAccount.id = :accountId")
-    List<Transaction> findByAccountId(@Param("accountId") Long accountId);
+    @Query(value = "SELECT h.* FROM (" +
+            "(SELECT t.* FROM transactions t WHERE t.from_account_id = :accountId " +
+            "  AND t.created_at >= :from AND t.created_at < :to " +
+            "  AND (t.created_at < :cursorCreatedAt OR (t.created_at = :cursorCreatedAt AND t.id < :cursorId)) " +
+            "  ORDER BY t.created_at DESC, t.id DESC LIMIT :limit) " +
+            "UNION ALL " +
+            "(SELECT t.* FROM transactions t WHERE t.to_account_id = :accountId AND t.from_account_id <> :accountId " +
+            "  AND t.created_at >= :from AND t.created_at < :to " +
+            "  AND (t.created_at < :cursorCreatedAt OR (t.created_at = :cursorCreatedAt AND t.id < :cursorId)) " +
+            "  ORDER BY t.created_at DESC, t.id DESC LIMIT :limit)" +
+            ") h ORDER BY h.created_at DESC, h.id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<Transaction> findAccountHistoryPage(@Param("accountId") Long accountId,
+                                             @Param("from") LocalDateTime from,
+                                             @Param("to") LocalDateTime to,
+                                             @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                             @Param("cursorId") Long cursorId,
+                                             @Param("limit") int limit);
     
     /**
-     * Busca todas las transacciones ordenadas por fecha de creación
+     * Total enviado por la cuenta en transferencias COMPLETED con createdAt en (after, upTo].
+     * Rango sobre el índice (from_account_id, created_at, id). SQL nativo: la suma se hace sobre la
+     * columna NUMERIC (amount es Money en la entidad)
      */
-    @Query("SELECT t FROM Transaction t ORDER BY t.createdAt DESC")
-    List<Transaction> findAllOrderByCreatedAtDesc();
+    @Query(value = "SELECT COALESCE(SUM(t.amount), 0) FROM transactions t WHERE t.from_account_id = :accountId " +
+           "AND t.status = 'COMPLETED' AND t.created_at > :after AND t.created_at <= :upTo",
+           nativeQuery = true)
+    BigDecimal sumCompletedOutgoing(@Param("accountId") Long accountId,
+                                    @Param("after") LocalDateTime after,
+                                    @Param("upTo") LocalDateTime upTo);
+    
+    /**
+     * Total recibido por la cuenta en transferencias COMPLETED con createdAt en (after, upTo]
+     */
+    @Query(value = "SELECT COALESCE(SUM(t.amount), 0) FROM transactions t WHERE t.to_account_id = :accountId " +
+           "AND t.status = 'COMPLETED' AND t.created_at > :after AND t.created_at <= :upTo",
+           nativeQuery = true)
+    BigDecimal sumCompletedIncoming(@Param("accountId") Long accountId,
+                                    @Param("after") LocalDateTime after,
+                                    @Param("upTo") LocalDateTime upTo);
+    
+    /**
+     * Lo mismo para varias cuentas a la vez: filas [accountId, suma], solo cuentas con movimientos
+     */
+    @Query(value = "SELECT t.from_account_id, SUM(t.amount) FROM transactions t WHERE t.from_account_id IN :accountIds " +
+           "AND t.status = 'COMPLETED' AND t.created_at > :after AND t.created_at <= :upTo " +
+           "GROUP BY t.from_account_id",
+           nativeQuery = true)
+    List<Object[]> sumCompletedOutgoingByAccount(@Param("accountIds") Collection<Long> accountIds,
+                                                 @Param("after") LocalDateTime after,
+                                                 @Param("upTo") LocalDateTime upTo);
+    
+    @Query(value = "SELECT t.to_account_id, SUM(t.amount) FROM transactions t WHERE t.to_account_id IN :accountIds " +
+           "AND t.status = 'COMPLETED' AND t.created_at > :after AND t.created_at <= :upTo " +
+           "GROUP BY t.to_account_id",
+           nativeQuery = true)
+    List<Object[]> sumCompletedIncomingByAccount(@Param("accountIds") Collection<Long> accountIds,
+                                                 @Param("after") LocalDateTime after,
+                                                 @Param("upTo") LocalDateTime upTo);
+    
+    /**
+     * Lote de transacciones PENDING creadas antes de :createdBefore, bloqueadas para resolverlas.
+     * Recorre el índice (status, created_at, id) y salta las filas que otro nodo ya tiene bloqueadas
+     * (lock timeout -2 = SKIP LOCKED), así varios barrenderos se reparten el trabajo sin esperarse
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT t FROM Transaction t WHERE t.status = com.plataformas.hilos.entity.TransactionStatus.PENDING " +
+           "AND t.createdAt < :createdBefore ORDER BY t.createdAt, t.id")
+    List<Transaction> findStalePendingForUpdate(@Param("createdBefore") LocalDateTime createdBefore, Pageable pageable);
+    
+    /**
+     * Primera página del historial, ordenado por (createdAt, id) descendente
+     */
+    @Query("SELECT t FROM Transaction t ORDER BY t.createdAt DESC, t.id DESC")
+    List<Transaction> findPage(Pageable pageable);
+    
+    /**
+     * Página siguiente por keyset: filas estrictamente anteriores a (createdAt, id)
+     */
+    @Query("SELECT t FROM Transaction t WHERE t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id) " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    List<Transaction> findPageBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+    
+    @Query("SELECT t FROM Transaction t WHERE t.status = :status ORDER BY t.createdAt DESC, t.id DESC")
+    List<Transaction> findPageByStatus(@Param("status") TransactionStatus status, Pageable pageable);
+    
+    @Query("SELECT t FROM Transaction t WHERE t.status = :status " +
+           "AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    List<Transaction> findPageByStatusBefore(@Param("status") TransactionStatus status,
+                                             @Param("createdAt") LocalDateTime createdAt,
+                                             @Param("id") Long id,
+                                             Pageable pageable);
+    
+    /**
+     * Recorre el historial con un cursor JDBC (fetch size acotado), sin materializarlo en memoria.
+     * Debe consumirse dentro de una transacción y cerrarse al terminar.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Transaction t ORDER BY t.createdAt DESC, t.id DESC")
+    Stream<Transaction> streamAll();
+    
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Transaction t WHERE t.status = :status ORDER BY t.createdAt DESC, t.id DESC")
+    Stream<Transaction> streamByStatus(@Param("status") TransactionStatus status);
+    
+    @Query("SELECT MAX(t.id) FROM Transaction t")
+    Long findMaxId();
+    
+    /**
+     * Flujos COMPLETED con id en [fromId, toId) como filas [fromAccountId, toAccountId, amount].
+     * Proyección escalar por la clave primaria (sin entidades en el contexto de persistencia)
+     * leída con un cursor JDBC; debe consumirse dentro de una transacción y cerrarse al terminar.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.fromAccount.id, t.toAccount.id, t.amount FROM Transaction t " +
+           "WHERE t.id >= :fromId AND t.id < :toId " +
+           "AND t.status = com.plataformas.hilos.entity.TransactionStatus.COMPLETED")
+    Stream<Object[]> streamCompletedFlows(@Param("fromId") long fromId, @Param("toId") long toId);
 }
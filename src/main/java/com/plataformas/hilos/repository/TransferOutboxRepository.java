@@ -0,0 +1,33 @@
+package com.plataformas.hilos.repository;
+
+import com.plataformas.hilos.entity.TransferOutboxEvent;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TransferOutboxRepository extends JpaRepository<TransferOutboxEvent, Long> {
+    
+    /**
+     * Siguiente lote pendiente, bloqueado (FOR UPDATE). Sin SKIP LOCKED a propósito: dos relays
+     * se turnan sobre las mismas filas, así los offsets se asignan en orden de commit
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM TransferOutboxEvent e WHERE e.publishedOffset IS NULL ORDER BY e.id")
+    List<TransferOutboxEvent> findPendingForUpdate(Pageable pageable);
+    
+    @Query("SELECT COALESCE(MAX(e.publishedOffset), 0) FROM TransferOutboxEvent e")
+    long findLastOffset();
+    
+    /**
+     * Eventos publicados después del offset indicado, en orden de publicación
+     */
+    @Query("SELECT e FROM TransferOutboxEvent e WHERE e.publishedOffset > :since ORDER BY e.publishedOffset")
+    List<TransferOutboxEvent> findPublishedAfter(@Param("since") long since, Pageable pageable);
+}
@@ -0,0 +1,117 @@
+package com.plataformas.hilos.service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.plataformas.hilos.config.ReadRoutingContext;
+import com.plataformas.hilos.dto.AccountResponse;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Caché de lectura de cuentas (Caffeine, W-TinyLFU) acotada por tamaño y TTL.
+ * Las transferencias invalidan ambas cuentas tras el commit.
+ *
+ * Para que una lectura lenta no vuelva a guardar un saldo anterior al commit, cada cuenta
+ * tiene un contador de generación (por franjas): la lectura lo captura antes de ir a la BD y
+ * solo guarda el valor si no cambió. La invalidación incrementa la generación y después borra
+ * la entrada; ambas comprobaciones ocurren bajo el bloqueo de la clave en Caffeine.
+ *
+ * Con réplica de lectura, la recarga que sigue a una invalidación llegaría antes que el commit
+ * a la réplica y guardaría el saldo anterior durante todo el TTL. Por eso las cuentas
+ * invalidadas se recuerdan durante hilos.cache.accounts.recent-write-window-ms y, dentro de esa
+ * ventana, se cargan de la primaria; el resto se carga de donde diga el llamante (la réplica
+ * salvo read-your-writes).
+ */
+@Component
+@Slf4j
+public class AccountCache {
+
+    static final String CACHE_NAME = "accounts";
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final Cache<Long, AccountResponse> cache;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final Cache<Long, Boolean> recentlyWritten;
+
+    public AccountCache(MeterRegistry meterRegistry,
+                        @Value("${hilos.cache.accounts.max-size:10000}") long maxSize,
+                        @Value("${hilos.cache.accounts.ttl-ms:5000}") long ttlMs,
+                        @Value("${hilos.cache.accounts.recent-write-window-ms:5000}") long recentWriteWindowMs,
+                        @Value("${hilos.cache.accounts.recent-writes-max-size:100000}") long recentWritesMaxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+        this.recentlyWritten = Caffeine.newBuilder()
+                .maximumSize(recentWritesMaxSize)
+                .expireAfterWrite(Duration.ofMillis(recentWriteWindowMs))
+                .build();
+        // Expone cache.gets{result=hit|miss}, cache.evictions, cache.size, ...
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Devuelve la cuenta cacheada o la carga con loader (fuera de cualquier bloqueo de la caché).
+     * Si la cuenta se escribió hace poco, loader se ejecuta con las lecturas en la primaria
+     */
+    public AccountResponse get(Long id, Supplier<AccountResponse> loader) {
+        AccountResponse cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        long generation = generations.get(stripe(id));
+        AccountResponse loaded = recentlyWritten.getIfPresent(id) != null
+                ? ReadRoutingContext.onPrimary(loader)
+                : loader.get();
+        cache.asMap().compute(id, (key, current) ->
+                generations.get(stripe(key)) == generation ? loaded : current);
+        return loaded;
+    }
+
+    /**
+     * Invalida las cuentas al confirmar la transacción actual; sin transacción, en el acto
+     */
+    public void evictAfterCommit(Long... ids) {
+        evictAfterCommit(Arrays.asList(ids));
+    }
+
+    public void evictAfterCommit(Collection<Long> ids) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(ids);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(ids);
+            }
+        });
+    }
+
+    public void evict(Collection<Long> ids) {
+        for (Long id : ids) {
+            recentlyWritten.put(id, Boolean.TRUE);
+            generations.incrementAndGet(stripe(id));
+            cache.invalidate(id);
+        }
+    }
+
+    private static int stripe(Long id) {
+        return Math.floorMod(Long.hashCode(id), GENERATION_STRIPES);
+    }
+}
@@ -0,0 +1,74 @@
+package com.plataformas.hilos.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Contención observada por cuenta: media móvil exponencial de los conflictos de versión.
+ * Cada conflicto suma 1 y el valor se reduce a la mitad cada hilos.transfer.adaptive.half-life-ms,
+ * así que una cuenta es "caliente" mientras acumule al menos hilos.transfer.adaptive.hot-threshold
+ * conflictos recientes y se enfría sola cuando dejan de producirse.
+ * Solo se guardan las cuentas que tuvieron algún conflicto (Caffeine acotado por tamaño): las
+ * cuentas frías no ocupan memoria ni cuestan nada más que una búsqueda en el mapa.
+ */
+@Component
+public class AccountContentionTracker {
+
+    private final Cache<Long, ContentionScore> scores;
+    private final double halfLifeNanos;
+    private final double hotThreshold;
+
+    public AccountContentionTracker(@Value("${hilos.transfer.adaptive.half-life-ms:5000}") long halfLifeMs,
+                                    @Value("${hilos.transfer.adaptive.hot-threshold:3}") double hotThreshold,
+                                    @Value("${hilos.transfer.adaptive.max-tracked-accounts:100000}") long maxTrackedAccounts) {
+        this.halfLifeNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, halfLifeMs));
+        this.hotThreshold = hotThreshold;
+        this.scores = Caffeine.newBuilder()
+                .maximumSize(maxTrackedAccounts)
+                .build();
+    }
+
+    public void recordConflict(Long accountId) {
+        scores.get(accountId, id -> new ContentionScore()).add(System.nanoTime(), halfLifeNanos);
+    }
+
+    public boolean isContended(Long accountId) {
+        ContentionScore score = scores.getIfPresent(accountId);
+        return score != null && score.current(System.nanoTime(), halfLifeNanos) >= hotThreshold;
+    }
+
+    /**
+     * Contención actual de la cuenta (0 si no tuvo conflictos recientes)
+     */
+    public double getScore(Long accountId) {
+        ContentionScore score = scores.getIfPresent(accountId);
+        return score == null ? 0 : score.current(System.nanoTime(), halfLifeNanos);
+    }
+
+    /**
+     * Valor con decaimiento exponencial en el tiempo; se actualiza en cada conflicto
+     */
+    private static final class ContentionScore {
+
+        private double value;
+        private long updatedNanos = System.nanoTime();
+
+        synchronized void add(long nowNanos, double halfLifeNanos) {
+            value = decayed(nowNanos, halfLifeNanos) + 1;
+            updatedNanos = nowNanos;
+        }
+
+        synchronized double current(long nowNanos, double halfLifeNanos) {
+            return decayed(nowNanos, halfLifeNanos);
+        }
+
+        private double decayed(long nowNanos, double halfLifeNanos) {
+            return value * Math.pow(0.5, Math.max(0, nowNanos - updatedNanos) / halfLifeNanos);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.plataformas.hilos.service;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.plataformas.hilos.entity.Account;
+import com.plataformas.hilos.entity.Money;
+import com.plataformas.hilos.exception.InsufficientFundsException;
+import com.plataformas.hilos.repository.AccountRepository;
+
+/**
+ * Ledger en memoria con los saldos de las cuentas en centavos (long).
+ * Cada cuenta se protege con uno de N locks (lock striping); una transferencia toma
+ * como máximo dos stripes y siempre en orden de índice, por lo que no hay deadlocks.
+ * Las cuentas se cargan desde la base de datos la primera vez que se usan, de modo que
+ * tras un reinicio el ledger se reconstruye a partir de lo ya persistido.
+ * Una cuenta con una entrada en dead-letter queda bloqueada: su saldo en el ledger incluye un
+ * movimiento que no está en la base de datos, y no se mueve más dinero hasta repararla a mano
+ * y reiniciar (el ledger se recarga desde lo persistido).
+ */
+@Component
+@ConditionalOnProperty(name = "hilos.transfer.engine", havingValue = "ledger")
+public class AccountLedger {
+
+    private final AccountRepository accountRepository;
+    private final ReentrantLock[] stripes;
+    /** Saldo en centavos por cuenta; la celda long[1] solo se modifica bajo su stripe */
+    private final ConcurrentHashMap<Long, long[]> balances = new ConcurrentHashMap<>();
+    private final Set<Long> blocked = ConcurrentHashMap.newKeySet();
+
+    public AccountLedger(AccountRepository accountRepository,
+                         @Value("${hilos.ledger.stripes:256}") int stripeCount) {
+        this.accountRepository = accountRepository;
+        this.stripes = new ReentrantLock[Math.max(1, stripeCount)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Mueve el importe entre dos cuentas si el origen tiene saldo suficiente.
+     * El saldo nunca queda negativo.
+     */
+    public void transfer(Long fromAccountId, Long toAccountId, long amountCents) {
+        checkNotBlocked(fromAccountId);
+        checkNotBlocked(toAccountId);
+        long[] from = cell(fromAccountId, "Cuenta origen no encontrada: ");
+        long[] to = cell(toAccountId, "Cuenta destino no encontrada: ");
+
+        int fromStripe = stripeIndex(fromAccountId);
+        int toStripe = stripeIndex(toAccountId);
+        ReentrantLock first = stripes[Math.min(fromStripe, toStripe)];
+        ReentrantLock second = stripes[Math.max(fromStripe, toStripe)];
+
+        first.lock();
+        if (second != first) {
+            second.lock();
+        }
+        try {
+            if (from[0] < amountCents) {
+                throw new InsufficientFundsException("Saldo insuficiente en la cuenta origen");
+            }
+            // Una transferencia a la misma cuenta no altera el saldo
+            if (from != to) {
+                to[0] = Math.addExact(to[0], amountCents);
+                from[0] -= amountCents;
+            }
+        } finally {
+            if (second != first) {
+                second.unlock();
+            }
+            first.unlock();
+        }
+    }
+
+    /**
+     * Saldo actual de una cuenta si ya está cargada en el ledger; null en caso contrario
+     */
+    public Money findBalance(Long accountId) {
+        long[] cell = balances.get(accountId);
+        if (cell == null) {
+            return null;
+        }
+        ReentrantLock stripe = stripes[stripeIndex(accountId)];
+        stripe.lock();
+        try {
+            return Money.ofCents(cell[0]);
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Bloquea las cuentas de una entrada que no se pudo persistir
+     */
+    public void block(Long... accountIds) {
+        blocked.addAll(List.of(accountIds));
+    }
+
+    public boolean isBlocked(Long accountId) {
+        return blocked.contains(accountId);
+    }
+
+    private void checkNotBlocked(Long accountId) {
+        if (blocked.contains(accountId)) {
+            throw new IllegalStateException("Cuenta bloqueada hasta reparar una transferencia sin persistir: " + accountId);
+        }
+    }
+
+    private long[] cell(Long accountId, String notFoundMessage) {
+        long[] cell = balances.get(accountId);
+        if (cell != null) {
+            return cell;
+        }
+        // La lectura de la base de datos se hace fuera del mapa para no bloquear otras cuentas
+        Account account = accountRepository.findById(accountId)
+                .orElseThrow(() -> new RuntimeException(notFoundMessage + accountId));
+        long[] loaded = new long[] { account.getBalance().cents() };
+        long[] existing = balances.putIfAbsent(accountId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private int stripeIndex(Long accountId) {
+        return Math.floorMod(Long.hashCode(accountId), stripes.length);
+    }
+}
@@ -0,0 +1,50 @@
+package com.plataformas.hilos.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.springframework.stereotype.Component;
+
+import com.plataformas.hilos.entity.Account;
+import com.plataformas.hilos.repository.AccountRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Adquiere los bloqueos de fila de las cuentas siempre en el mismo orden (ID ascendente)
+ * y en un único viaje a la base de datos. Debe llamarse dentro de una transacción activa.
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountLockManager {
+
+    private final AccountRepository accountRepository;
+    private final TransferMetrics transferMetrics;
+
+    /**
+     * Bloquea las cuentas indicadas y las devuelve indexadas por ID.
+     * Las cuentas inexistentes simplemente no aparecen en el mapa.
+     */
+    public Map<Long, Account> lockAll(Collection<Long> accountIds) {
+        TreeSet<Long> orderedIds = new TreeSet<>(accountIds);
+        long startNanos = System.nanoTime();
+        List<Account> accounts = accountRepository.findAllByIdsWithLock(orderedIds);
+        transferMetrics.recordLockWait(startNanos);
+
+        Map<Long, Account> lockedById = new HashMap<>(accounts.size() * 2);
+        for (Account account : accounts) {
+            lockedById.put(account.getId(), account);
+        }
+        return lockedById;
+    }
+
+    /**
+     * Bloquea el par origen/destino de una transferencia.
+     */
+    public Map<Long, Account> lockPair(Long fromAccountId, Long toAccountId) {
+        return lockAll(List.of(fromAccountId, toAccountId));
+    }
+}
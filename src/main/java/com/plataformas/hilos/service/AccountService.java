@@ -1,14 +1,21 @@
 package com.plataformas.hilos.service;
 
 import com.plataformas.hilos.dto.AccountResponse;
+import com.plataformas.hilos.dto.CursorPage;
 import com.plataformas.hilos.dto.CreateAccountRequest;
+import com.plataformas.hilos.dto.TransactionResponse;
 import com.plataformas.hilos.entity.Account;
+import com.plataformas.hilos.entity.Money;
+import com.plataformas.hilos.entity.Transaction;
 import com.plataformas.hilos.repository.AccountRepository;
+import com.plataformas.hilos.repository.TransactionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -17,7 +24,16 @@ import java.util.stream.Collectors;
 @Slf4j
 public class AccountService {
     
+    // Límites por defecto del rango de fechas del historial (sin parámetros nulos en la consulta nativa)
+    private static final LocalDateTime HISTORY_MIN = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime HISTORY_MAX = LocalDateTime.of(9999, 12, 31, 0, 0);
+    
     private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    // Solo existe con hilos.transfer.engine=ledger: el saldo vigente vive en memoria
+    private final ObjectProvider<AccountLedger> accountLedger;
+    private final AccountCache accountCache;
+    private final AccountSnapshotService accountSnapshotService;
     
     @Transactional
     public AccountResponse createAccount(CreateAccountRequest request) {
@@ -28,19 +44,24 @@ public class AccountService {
         account.setBalance(request.getInitialBalance());
         
         Account savedAccount = accountRepository.save(account);
+        accountSnapshotService.recordOpening(savedAccount);
         log.info("Cuenta creada con ID: {}", savedAccount.getId());
         
         return mapToResponse(savedAccount);
     }
     
-    @Transactional(readOnly = true)
+    /**
+     * Lectura a través de AccountCache: sin transacción propia, para que un acierto
+     * de caché no ocupe una conexión del pool
+     */
     public AccountResponse getAccount(Long id) {
-        log.info("Consultando cuenta con ID: {}", id);
-        
-        Account account = accountRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Cuenta no encontrada con ID: " + id));
+        log.debug("Consultando cuenta con ID: {}", id);
         
-        return mapToResponse(account);
+        // De la réplica (o de la primaria con read-your-writes); AccountCache lleva a la primaria
+        // la recarga de una cuenta recién escrita
+        return accountCache.get(id, () -> accountRepository.findById(id)
+                .map(this::mapToResponse)
+                .orElseThrow(() -> new RuntimeException("Cuenta no encontrada con ID: " + id)));
     }
     
     @Transactional(readOnly = true)
@@ -53,11 +74,44 @@ public class AccountService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Historial de transacciones de una cuenta (enviadas y recibidas), paginado por cursor.
+     * from (inclusive) y to (exclusive) son opcionales
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<TransactionResponse> getAccountTransactions(Long id, LocalDateTime from, LocalDateTime to,
+                                                                  String cursor, int limit) {
+        log.info("Consultando historial de la cuenta {} (limit {})", id, limit);
+        
+        if (!accountRepository.existsById(id)) {
+            throw new RuntimeException("Cuenta no encontrada con ID: " + id);
+        }
+        
+        LocalDateTime rangeFrom = from != null ? from : HISTORY_MIN;
+        LocalDateTime rangeTo = to != null ? to : HISTORY_MAX;
+        TransactionCursor position = cursor != null
+                ? TransactionCursor.decode(cursor)
+                : new TransactionCursor(rangeTo, Long.MAX_VALUE);
+        
+        List<Transaction> transactions = transactionRepository.findAccountHistoryPage(
+                id, rangeFrom, rangeTo, position.createdAt(), position.id(), limit + 1);
+        return TransferExecutorService.toPage(transactions, limit);
+    }
+    
     private AccountResponse mapToResponse(Account account) {
+        Money balance = account.getBalance();
+        AccountLedger ledger = accountLedger.getIfAvailable();
+        if (ledger != null) {
+            Money ledgerBalance = ledger.findBalance(account.getId());
+            if (ledgerBalance != null) {
+                balance = ledgerBalance;
+            }
+        }
+        
         return new AccountResponse(
                 account.getId(),
                 account.getOwner(),
-                account.getBalance(),
+                balance,
                 account.getCreatedAt()
         );
     }
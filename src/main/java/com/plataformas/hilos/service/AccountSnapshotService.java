@@ -0,0 +1,201 @@
+package com.plataformas.hilos.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.plataformas.hilos.dto.AccountBalanceResponse;
+import com.plataformas.hilos.entity.Account;
+import com.plataformas.hilos.entity.AccountSnapshot;
+import com.plataformas.hilos.entity.Money;
+import com.plataformas.hilos.repository.AccountRepository;
+import com.plataformas.hilos.repository.AccountSnapshotRepository;
+import com.plataformas.hilos.repository.TransactionRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fotos periódicas del saldo de cada cuenta y consulta del saldo en una fecha.
+ *
+ * Las fotos se toman con un margen de seguridad (as_of = ahora - safety-lag): así toda
+ * transacción con created_at <= as_of ya está confirmada y la foto no cambia después.
+ * Con el motor ledger eso no basta: la fila se escribe en diferido con el created_at original
+ * y una cola atrasada puede superar el margen, así que el job se aplaza mientras el
+ * LedgerWriteBehindWorker tenga entradas anteriores al corte sin persistir.
+ * El job es incremental: parte de la última foto de cada cuenta, suma solo las transacciones
+ * posteriores y no escribe foto para las cuentas sin movimientos. Solo lee transactions y
+ * escribe account_snapshots, sin bloquear filas de accounts.
+ */
+@Service
+@Slf4j
+public class AccountSnapshotService {
+
+    private static final LocalDateTime FAR_FUTURE = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final AccountSnapshotRepository accountSnapshotRepository;
+    private final ObjectProvider<LedgerWriteBehindWorker> ledgerWriteBehindWorker;
+    private final TransactionTemplate snapshotTransaction;
+    private final Duration safetyLag;
+    private final int batchSize;
+
+    public AccountSnapshotService(AccountRepository accountRepository,
+                                  TransactionRepository transactionRepository,
+                                  AccountSnapshotRepository accountSnapshotRepository,
+                                  ObjectProvider<LedgerWriteBehindWorker> ledgerWriteBehindWorker,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${hilos.snapshot.safety-lag-ms:60000}") long safetyLagMs,
+                                  @Value("${hilos.snapshot.batch-size:500}") int batchSize) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.accountSnapshotRepository = accountSnapshotRepository;
+        this.ledgerWriteBehindWorker = ledgerWriteBehindWorker;
+        this.safetyLag = Duration.ofMillis(safetyLagMs);
+        this.batchSize = Math.max(1, batchSize);
+        // REPEATABLE READ: saldo actual y sumas salen de la misma vista (necesario para las
+        // cuentas sin fotos previas, cuyo punto de partida es el saldo actual)
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * Foto inicial de una cuenta nueva; debe llamarse en la transacción que la crea
+     */
+    public void recordOpening(Account account) {
+        accountSnapshotRepository.save(new AccountSnapshot(account.getId(), account.getCreatedAt(), account.getBalance()));
+    }
+
+    /**
+     * Saldo de la cuenta al final del instante asOf (incluye las transacciones con createdAt == asOf)
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public AccountBalanceResponse getBalanceAsOf(Long accountId, LocalDateTime asOf) {
+        Account account = accountRepository.findById(accountId)
+                .orElseThrow(() -> new RuntimeException("Cuenta no encontrada con ID: " + accountId));
+        if (account.getCreatedAt() != null && asOf.isBefore(account.getCreatedAt())) {
+            throw new IllegalArgumentException("La cuenta " + accountId + " no existía en " + asOf);
+        }
+
+        Optional<AccountSnapshot> before =
+                accountSnapshotRepository.findFirstByAccountIdAndAsOfLessThanEqualOrderByAsOfDesc(accountId, asOf);
+        if (before.isPresent()) {
+            // Hacia delante: foto + movimientos en (foto, asOf]
+            AccountSnapshot snapshot = before.get();
+            Money balance = snapshot.getBalance().plus(netFlow(accountId, snapshot.getAsOf(), asOf));
+            return new AccountBalanceResponse(accountId, asOf, balance, snapshot.getAsOf());
+        }
+
+        Optional<AccountSnapshot> after =
+                accountSnapshotRepository.findFirstByAccountIdAndAsOfGreaterThanOrderByAsOfAsc(accountId, asOf);
+        if (after.isPresent()) {
+            // Hacia atrás: foto - movimientos en (asOf, foto]
+            AccountSnapshot snapshot = after.get();
+            Money balance = snapshot.getBalance().minus(netFlow(accountId, asOf, snapshot.getAsOf()));
+            return new AccountBalanceResponse(accountId, asOf, balance, snapshot.getAsOf());
+        }
+
+        // Cuenta todavía sin fotos: saldo actual - movimientos posteriores a asOf
+        Money balance = account.getBalance().minus(netFlow(accountId, asOf, FAR_FUTURE));
+        return new AccountBalanceResponse(accountId, asOf, balance, null);
+    }
+
+    @Scheduled(fixedDelayString = "${hilos.snapshot.interval-ms:3600000}",
+               initialDelayString = "${hilos.snapshot.initial-delay-ms:60000}")
+    public void takeSnapshots() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(safetyLag);
+        LedgerWriteBehindWorker ledgerWorker = ledgerWriteBehindWorker.getIfAvailable();
+        if (ledgerWorker != null && ledgerWorker.hasPendingUpTo(cutoff)) {
+            // La foto no vería esas filas y ya no se corregiría: se espera al siguiente ciclo
+            log.warn("Fotos de saldo aplazadas: el ledger tiene transferencias anteriores a {} sin persistir", cutoff);
+            return;
+        }
+        long afterId = 0;
+        int written = 0;
+        List<Long> accountIds;
+        do {
+            accountIds = accountRepository.findIdsAfter(afterId, cutoff, PageRequest.of(0, batchSize));
+            if (accountIds.isEmpty()) {
+                break;
+            }
+            List<Long> page = accountIds;
+            written += snapshotTransaction.execute(status -> snapshotPage(page, cutoff));
+            afterId = accountIds.get(accountIds.size() - 1);
+        } while (accountIds.size() == batchSize);
+
+        log.info("Fotos de saldo a {}: {} cuentas con movimientos", cutoff, written);
+    }
+
+    /**
+     * Escribe la foto a cutoff de las cuentas de la página que tuvieron movimientos
+     */
+    private int snapshotPage(List<Long> accountIds, LocalDateTime cutoff) {
+        Map<Long, AccountSnapshot> latest = accountSnapshotRepository.findLatestByAccountIds(accountIds).stream()
+                .collect(Collectors.toMap(AccountSnapshot::getAccountId, snapshot -> snapshot));
+
+        // Las cuentas se agrupan por la fecha de su última foto: normalmente todas comparten la
+        // del job anterior y basta un par de consultas agrupadas por página
+        Map<LocalDateTime, List<Long>> bySnapshotDate = new HashMap<>();
+        List<Long> withoutSnapshot = new ArrayList<>();
+        for (Long accountId : accountIds) {
+            AccountSnapshot snapshot = latest.get(accountId);
+            if (snapshot == null) {
+                withoutSnapshot.add(accountId);
+            } else if (snapshot.getAsOf().isBefore(cutoff)) {
+                bySnapshotDate.computeIfAbsent(snapshot.getAsOf(), date -> new ArrayList<>()).add(accountId);
+            }
+        }
+
+        List<AccountSnapshot> snapshots = new ArrayList<>();
+        bySnapshotDate.forEach((snapshotDate, ids) -> {
+            Map<Long, Money> flows = netFlows(ids, snapshotDate, cutoff);
+            flows.forEach((accountId, flow) -> snapshots.add(
+                    new AccountSnapshot(accountId, cutoff, latest.get(accountId).getBalance().plus(flow))));
+        });
+
+        if (!withoutSnapshot.isEmpty()) {
+            // Cuentas anteriores a las fotos: se parte del saldo actual hacia atrás
+            Map<Long, Money> flowsAfterCutoff = netFlows(withoutSnapshot, cutoff, FAR_FUTURE);
+            for (Account account : accountRepository.findAllById(withoutSnapshot)) {
+                Money flow = flowsAfterCutoff.getOrDefault(account.getId(), Money.ZERO);
+                snapshots.add(new AccountSnapshot(account.getId(), cutoff, account.getBalance().minus(flow)));
+            }
+        }
+
+        accountSnapshotRepository.saveAll(snapshots);
+        return snapshots.size();
+    }
+
+    private Money netFlow(Long accountId, LocalDateTime after, LocalDateTime upTo) {
+        return Money.of(transactionRepository.sumCompletedIncoming(accountId, after, upTo))
+                .minus(Money.of(transactionRepository.sumCompletedOutgoing(accountId, after, upTo)));
+    }
+
+    private Map<Long, Money> netFlows(List<Long> accountIds, LocalDateTime after, LocalDateTime upTo) {
+        Map<Long, Money> flows = new HashMap<>();
+        for (Object[] row : transactionRepository.sumCompletedIncomingByAccount(accountIds, after, upTo)) {
+            flows.merge(((Number) row[0]).longValue(), Money.of((BigDecimal) row[1]), Money::plus);
+        }
+        for (Object[] row : transactionRepository.sumCompletedOutgoingByAccount(accountIds, after, upTo)) {
+            flows.merge(((Number) row[0]).longValue(), Money.of((BigDecimal) row[1]).negate(), Money::plus);
+        }
+        return flows;
+    }
+}
@@ -0,0 +1,88 @@
+package com.plataformas.hilos.service;
+
+import java.util.UUID;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import com.plataformas.hilos.dto.TransactionResponse;
+import com.plataformas.hilos.dto.TransferRequest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Motor "adaptive": elige por transferencia entre el camino optimista y el pesimista según la
+ * contención observada en sus cuentas (AccountContentionTracker). Si alguna de las dos cuentas
+ * está caliente se usa el motor pesimista (SELECT ... FOR UPDATE ordenado), que no desperdicia
+ * trabajo en reintentos; si no, el optimista, que no espera por bloqueos. Los conflictos de
+ * versión del camino optimista alimentan la medida de contención; el reintento de
+ * TransferRetryTemplate vuelve a elegir camino, de modo que una cuenta que se calienta pasa a
+ * pesimista en el siguiente intento y vuelve a optimista cuando deja de tener conflictos.
+ */
+@Service
+@Slf4j
+public class AdaptiveTransferEngine implements TransferEngine {
+
+    public static final String ENGINE_NAME = "adaptive";
+
+    private final OptimisticTransferEngine optimisticEngine;
+    private final TransferExecutorService pessimisticEngine;
+    private final AccountContentionTracker contentionTracker;
+    private final Counter optimisticRoutes;
+    private final Counter pessimisticRoutes;
+
+    public AdaptiveTransferEngine(OptimisticTransferEngine optimisticEngine,
+                                  TransferExecutorService pessimisticEngine,
+                                  AccountContentionTracker contentionTracker,
+                                  MeterRegistry meterRegistry) {
+        this.optimisticEngine = optimisticEngine;
+        this.pessimisticEngine = pessimisticEngine;
+        this.contentionTracker = contentionTracker;
+        this.optimisticRoutes = routeCounter(meterRegistry, OptimisticTransferEngine.ENGINE_NAME);
+        this.pessimisticRoutes = routeCounter(meterRegistry, TransferExecutorService.ENGINE_NAME);
+    }
+
+    @Override
+    public String name() {
+        return ENGINE_NAME;
+    }
+
+    /**
+     * Sin @Transactional: cada motor abre su propia transacción
+     */
+    @Override
+    public TransactionResponse executeTransfer(TransferRequest request, UUID reference) {
+        Long fromAccountId = request.getFromAccountId();
+        Long toAccountId = request.getToAccountId();
+        if (contentionTracker.isContended(fromAccountId) || contentionTracker.isContended(toAccountId)) {
+            pessimisticRoutes.increment();
+            return pessimisticEngine.executeTransfer(request, reference);
+        }
+
+        optimisticRoutes.increment();
+        try {
+            return optimisticEngine.executeTransfer(request, reference);
+        } catch (OptimisticLockingFailureException e) {
+            // Se anota la cuenta que falló; si no se conoce, las dos
+            if (e instanceof ObjectOptimisticLockingFailureException failure
+                    && failure.getIdentifier() instanceof Long accountId) {
+                contentionTracker.recordConflict(accountId);
+            } else {
+                contentionTracker.recordConflict(fromAccountId);
+                contentionTracker.recordConflict(toAccountId);
+            }
+            log.debug("Conflicto de versión en transferencia {} -> {}", fromAccountId, toAccountId);
+            throw e;
+        }
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, String engine) {
+        return Counter.builder("hilos.transfer.adaptive.routes")
+                .description("Transferencias del motor adaptive según el camino elegido")
+                .tag("engine", engine)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,163 @@
+package com.plataformas.hilos.service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.plataformas.hilos.dto.BatchTransferResult;
+import com.plataformas.hilos.dto.TransferRequest;
+import com.plataformas.hilos.entity.TransactionStatus;
+import com.plataformas.hilos.exception.InsufficientFundsException;
+import com.plataformas.hilos.service.TransferChunkSettler.SettledTransfer;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Procesa lotes de transferencias en bloques. Con el motor pesimista cada bloque se
+ * resuelve en una sola transacción (TransferChunkSettler): un único SELECT ... FOR UPDATE
+ * ordenado sobre todas las cuentas del bloque y los INSERT de transactions agrupados en lotes JDBC.
+ * Cada transferencia obtiene su propio resultado; un saldo insuficiente no afecta al resto.
+ * La latencia de cada transferencia (hilos.transfer.latency) es la de su bloque.
+ */
+@Service
+@Slf4j
+public class BatchTransferService {
+
+    private final TransferEngineRegistry transferEngineRegistry;
+    private final TransferRetryTemplate transferRetryTemplate;
+    private final TransferChunkSettler transferChunkSettler;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final TransferMetrics transferMetrics;
+    private final int chunkSize;
+
+    public BatchTransferService(TransferEngineRegistry transferEngineRegistry,
+                                TransferRetryTemplate transferRetryTemplate,
+                                TransferChunkSettler transferChunkSettler,
+                                TransactionTemplate transactionTemplate,
+                                Validator validator,
+                                TransferMetrics transferMetrics,
+                                @Value("${hilos.batch.chunk-size:500}") int chunkSize) {
+        this.transferEngineRegistry = transferEngineRegistry;
+        this.transferRetryTemplate = transferRetryTemplate;
+        this.transferChunkSettler = transferChunkSettler;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.transferMetrics = transferMetrics;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Consume las transferencias de forma incremental (admite un stream NDJSON)
+     * y devuelve un resultado por cada una, en el mismo orden.
+     */
+    public List<BatchTransferResult> processBatch(Iterator<TransferRequest> requests) {
+        List<BatchTransferResult> results = new ArrayList<>();
+        List<TransferRequest> chunk = new ArrayList<>(chunkSize);
+        List<Integer> chunkIndexes = new ArrayList<>(chunkSize);
+        int index = 0;
+
+        while (requests.hasNext()) {
+            TransferRequest request = requests.next();
+            String violations = validate(request);
+            if (violations != null) {
+                results.add(new BatchTransferResult(index, null, TransactionStatus.FAILED, violations));
+            } else {
+                chunk.add(request);
+                chunkIndexes.add(index);
+            }
+            index++;
+
+            if (chunk.size() == chunkSize) {
+                results.addAll(processChunk(chunk, chunkIndexes));
+                chunk.clear();
+                chunkIndexes.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(processChunk(chunk, chunkIndexes));
+        }
+
+        results.sort((a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+        log.info("Lote procesado: {} transferencias", index);
+        return results;
+    }
+
+    private List<BatchTransferResult> processChunk(List<TransferRequest> chunk, List<Integer> indexes) {
+        TransferEngine engine = transferEngineRegistry.getActiveEngine();
+        if (!transferChunkSettler.supports(engine)) {
+            // Otros motores (p.ej. ledger) mantienen su propio estado: se respeta su camino
+            return processOneByOne(engine, chunk, indexes);
+        }
+
+        long startNanos = System.nanoTime();
+        List<SettledTransfer> settled;
+        try {
+            settled = transferRetryTemplate.execute(
+                    () -> transactionTemplate.execute(status -> transferChunkSettler.settle(chunk, null)));
+        } catch (RuntimeException e) {
+            log.error("Error procesando bloque de {} transferencias: {}", chunk.size(), e.getMessage());
+            List<BatchTransferResult> failed = new ArrayList<>(chunk.size());
+            for (Integer index : indexes) {
+                transferMetrics.recordTransfer(TransferMetrics.Outcome.ERROR, startNanos);
+                failed.add(new BatchTransferResult(index, null, TransactionStatus.FAILED,
+                        "Error procesando el bloque: " + e.getMessage()));
+            }
+            return failed;
+        }
+
+        List<BatchTransferResult> results = new ArrayList<>(settled.size());
+        for (int i = 0; i < settled.size(); i++) {
+            SettledTransfer transfer = settled.get(i);
+            // Como en el group commit: con fila FAILED fue saldo insuficiente, sin fila un error
+            transferMetrics.recordTransfer(transfer.isCompleted() ? TransferMetrics.Outcome.COMPLETED
+                    : transfer.transaction() != null ? TransferMetrics.Outcome.INSUFFICIENT_FUNDS
+                    : TransferMetrics.Outcome.ERROR, startNanos);
+            Long transactionId = transfer.transaction() != null ? transfer.transaction().getId() : null;
+            results.add(new BatchTransferResult(indexes.get(i), transactionId,
+                    transfer.isCompleted() ? TransactionStatus.COMPLETED : TransactionStatus.FAILED, transfer.error()));
+        }
+        return results;
+    }
+
+    private List<BatchTransferResult> processOneByOne(TransferEngine engine, List<TransferRequest> chunk,
+                                                      List<Integer> indexes) {
+        List<BatchTransferResult> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            TransferRequest request = chunk.get(i);
+            long startNanos = System.nanoTime();
+            try {
+                Long transactionId = transferRetryTemplate.execute(() -> engine.executeTransfer(request, UUID.randomUUID())).getId();
+                transferMetrics.recordTransfer(TransferMetrics.Outcome.COMPLETED, startNanos);
+                results.add(new BatchTransferResult(indexes.get(i), transactionId, TransactionStatus.COMPLETED, null));
+            } catch (RuntimeException e) {
+                transferMetrics.recordTransfer(e instanceof InsufficientFundsException
+                        ? TransferMetrics.Outcome.INSUFFICIENT_FUNDS : TransferMetrics.Outcome.ERROR, startNanos);
+                results.add(new BatchTransferResult(indexes.get(i), null, TransactionStatus.FAILED, e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    private String validate(TransferRequest request) {
+        if (request == null) {
+            return "Transferencia vacía";
+        }
+        Set<ConstraintViolation<TransferRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .collect(Collectors.joining(", "));
+    }
+}
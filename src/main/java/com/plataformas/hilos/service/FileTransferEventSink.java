@@ -0,0 +1,68 @@
+package com.plataformas.hilos.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.plataformas.hilos.dto.TransferEvent;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Añade cada evento como una línea NDJSON al final de un fichero (solo append).
+ * Cada línea lleva su offset, así un lector puede retomar desde la última línea procesada.
+ */
+@Component
+@ConditionalOnProperty(name = "hilos.outbox.sink.file.enabled", havingValue = "true")
+public class FileTransferEventSink implements TransferEventSink {
+
+    private final ObjectMapper objectMapper;
+    private final BufferedWriter writer;
+
+    public FileTransferEventSink(ObjectMapper objectMapper,
+                                 @Value("${hilos.outbox.sink.file.path:outbox/transfer-events.ndjson}") Path path)
+            throws IOException {
+        this.objectMapper = objectMapper;
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public synchronized void publish(List<TransferEvent> events) {
+        try {
+            for (TransferEvent event : events) {
+                writer.write(objectMapper.writeValueAsString(event));
+                writer.newLine();
+            }
+            writer.flush();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Evento no serializable", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,230 @@
+package com.plataformas.hilos.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.plataformas.hilos.dto.TransactionResponse;
+import com.plataformas.hilos.dto.TransferRequest;
+import com.plataformas.hilos.exception.InsufficientFundsException;
+import com.plataformas.hilos.exception.TransferRejectedException;
+import com.plataformas.hilos.service.TransferChunkSettler.SettledTransfer;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Group commit (hilos.dispatch.mode=group): las transferencias asíncronas se encolan y cada
+ * hilo confirmador junta las que llegan durante hilos.dispatch.group.window-ms (o hasta
+ * hilos.dispatch.group.max-items) y las liquida en UNA transacción de BD con TransferChunkSettler.
+ * Un commit (fsync, ida y vuelta, apertura de la transacción) se reparte entre todo el grupo a
+ * cambio de hasta window-ms de latencia añadida: ventana 0 agrupa solo lo que ya estaba en cola.
+ *
+ * Dentro del grupo las transferencias se aplican en orden de llegada sobre cuentas bloqueadas en
+ * orden de ID, con el mismo resultado que ejecutarlas una tras otra. Cada una tiene su propio
+ * resultado (un saldo insuficiente no revierte a las demás) y su CompletableFuture se completa
+ * después del commit del grupo. Con motores distintos del pesimista (p.ej. ledger) el grupo se
+ * ejecuta transferencia a transferencia con su propio motor.
+ */
+@Component
+@Slf4j
+public class GroupCommitTransferProcessor {
+
+    public static final String MODE_GROUP = "group";
+
+    private static final long IDLE_POLL_MS = 100;
+
+    private record PendingTransfer(TransferRequest request, UUID reference,
+                                   CompletableFuture<TransactionResponse> future, long enqueuedNanos) {
+    }
+
+    private final TransferChunkSettler transferChunkSettler;
+    private final TransferEngineRegistry transferEngineRegistry;
+    private final TransferRetryTemplate transferRetryTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionService transactionService;
+    private final TransferMetrics transferMetrics;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxItems;
+    private final BlockingQueue<PendingTransfer> queue;
+    private final List<Thread> committers = new ArrayList<>();
+    private final DistributionSummary groupSize;
+    private volatile boolean running;
+
+    public GroupCommitTransferProcessor(TransferChunkSettler transferChunkSettler,
+                                        TransferEngineRegistry transferEngineRegistry,
+                                        TransferRetryTemplate transferRetryTemplate,
+                                        TransactionTemplate transactionTemplate,
+                                        TransactionService transactionService,
+                                        TransferMetrics transferMetrics,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${hilos.dispatch.mode:pool}") String mode,
+                                        @Value("${hilos.dispatch.group.window-ms:5}") long windowMs,
+                                        @Value("${hilos.dispatch.group.max-items:200}") int maxItems,
+                                        @Value("${hilos.dispatch.group.committers:2}") int committerCount,
+                                        @Value("${hilos.dispatch.group.queue-capacity:20000}") int queueCapacity) {
+        this.transferChunkSettler = transferChunkSettler;
+        this.transferEngineRegistry = transferEngineRegistry;
+        this.transferRetryTemplate = transferRetryTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.transactionService = transactionService;
+        this.transferMetrics = transferMetrics;
+        this.enabled = MODE_GROUP.equals(mode);
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, windowMs));
+        this.maxItems = Math.max(1, maxItems);
+        this.queue = new LinkedBlockingQueue<>(Math.max(1, queueCapacity));
+        this.groupSize = DistributionSummary.builder("hilos.transfer.group.size")
+                .description("Transferencias confirmadas en cada transacción del group commit")
+                .register(meterRegistry);
+        Gauge.builder("hilos.transfer.group.queued", queue, BlockingQueue::size)
+                .description("Transferencias esperando a entrar en un grupo")
+                .register(meterRegistry);
+
+        if (enabled) {
+            running = true;
+            for (int i = 0; i < Math.max(1, committerCount); i++) {
+                Thread committer = new Thread(this::runCommitter, "GroupCommit-" + i);
+                committers.add(committer);
+                committer.start();
+            }
+            log.info("Group commit de transferencias: ventana {} ms, máximo {} por grupo, {} confirmadores",
+                    windowMs, this.maxItems, committers.size());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Encola la transferencia; el futuro se completa tras el commit de su grupo
+     */
+    public CompletableFuture<TransactionResponse> dispatch(TransferRequest request, UUID reference) {
+        CompletableFuture<TransactionResponse> future = new CompletableFuture<>();
+        if (!running || !queue.offer(new PendingTransfer(request, reference, future, System.nanoTime()))) {
+            throw new TransferRejectedException("Cola del group commit saturada, reintente más tarde", 1);
+        }
+        return future;
+    }
+
+    private void runCommitter() {
+        List<PendingTransfer> group = new ArrayList<>(maxItems);
+        // Al parar se vacía la cola antes de salir: lo aceptado se ejecuta
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingTransfer first = queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                collect(group, System.nanoTime() + windowNanos);
+                commit(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                group.forEach(transfer -> transfer.future().completeExceptionally(e));
+                return;
+            } catch (RuntimeException e) {
+                log.error("Error inesperado en el group commit: {}", e.getMessage(), e);
+                // No afecta a los futuros ya completados
+                group.forEach(transfer -> transfer.future().completeExceptionally(e));
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    /**
+     * Completa el grupo con lo que haya en cola y lo que llegue antes de deadline
+     */
+    private void collect(List<PendingTransfer> group, long deadline) throws InterruptedException {
+        while (group.size() < maxItems) {
+            queue.drainTo(group, maxItems - group.size());
+            long remaining = deadline - System.nanoTime();
+            if (group.size() >= maxItems || remaining <= 0) {
+                return;
+            }
+            PendingTransfer next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            group.add(next);
+        }
+    }
+
+    private void commit(List<PendingTransfer> group) {
+        TransferEngine engine = transferEngineRegistry.getActiveEngine();
+        if (!transferChunkSettler.supports(engine)) {
+            for (PendingTransfer transfer : group) {
+                try {
+                    transfer.future().complete(transactionService.executeTransfer(transfer.request(), transfer.reference()));
+                } catch (Throwable e) {
+                    transfer.future().completeExceptionally(e);
+                }
+            }
+            return;
+        }
+
+        List<TransferRequest> requests = new ArrayList<>(group.size());
+        List<UUID> references = new ArrayList<>(group.size());
+        for (PendingTransfer transfer : group) {
+            requests.add(transfer.request());
+            references.add(transfer.reference());
+        }
+
+        List<SettledTransfer> settled;
+        try {
+            settled = transferRetryTemplate.execute(
+                    () -> transactionTemplate.execute(status -> transferChunkSettler.settle(requests, references)));
+        } catch (RuntimeException e) {
+            // El grupo entero se revirtió: ninguna transferencia quedó aplicada
+            log.error("Error confirmando grupo de {} transferencias: {}", group.size(), e.getMessage());
+            for (PendingTransfer transfer : group) {
+                transferMetrics.recordTransfer(TransferMetrics.Outcome.ERROR, transfer.enqueuedNanos());
+                transfer.future().completeExceptionally(e);
+            }
+            return;
+        }
+        groupSize.record(group.size());
+
+        for (int i = 0; i < group.size(); i++) {
+            PendingTransfer transfer = group.get(i);
+            SettledTransfer result = settled.get(i);
+            if (result.isCompleted()) {
+                transferMetrics.recordTransfer(TransferMetrics.Outcome.COMPLETED, transfer.enqueuedNanos());
+                transfer.future().complete(TransferExecutorService.mapToResponse(result.transaction()));
+            } else if (result.transaction() != null) {
+                // Fila FAILED confirmada con el grupo, como en el camino de una transferencia
+                transferMetrics.recordTransfer(TransferMetrics.Outcome.INSUFFICIENT_FUNDS, transfer.enqueuedNanos());
+                transfer.future().completeExceptionally(new InsufficientFundsException(result.error()));
+            } else {
+                transferMetrics.recordTransfer(TransferMetrics.Outcome.ERROR, transfer.enqueuedNanos());
+                transfer.future().completeExceptionally(new RuntimeException(result.error()));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        for (Thread committer : committers) {
+            committer.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        // Encoladas justo al parar, cuando los confirmadores ya habían vaciado la cola
+        PendingTransfer transfer;
+        while ((transfer = queue.poll()) != null) {
+            transfer.future().completeExceptionally(new IllegalStateException("Group commit detenido"));
+        }
+    }
+}
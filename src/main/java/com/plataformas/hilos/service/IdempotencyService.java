@@ -0,0 +1,162 @@
+package com.plataformas.hilos.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.plataformas.hilos.dto.TransferRequest;
+import com.plataformas.hilos.entity.IdempotencyKey;
+import com.plataformas.hilos.repository.IdempotencyKeyRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Índice de claves de idempotencia (cabecera Idempotency-Key). Los reintentos recientes se
+ * resuelven en memoria; si la clave no está en la caché, el INSERT en idempotency_keys decide:
+ * la PK única garantiza que entre nodos (o tras un reinicio) solo una petición gana la clave.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    private record Claim(UUID reference, String fingerprint) {
+    }
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final Cache<String, Claim> recentKeys;
+    private final Duration ttl;
+    private final Duration claimGrace;
+    private final int cleanupBatchSize;
+
+    public IdempotencyService(IdempotencyKeyRepository idempotencyKeyRepository,
+                              @Value("${hilos.idempotency.ttl-ms:86400000}") long ttlMs,
+                              @Value("${hilos.idempotency.cache-size:100000}") long cacheSize,
+                              @Value("${hilos.idempotency.cleanup-batch-size:1000}") int cleanupBatchSize,
+                              @Value("${hilos.idempotency.claim-grace-ms:60000}") long claimGraceMs) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.ttl = Duration.ofMillis(ttlMs);
+        this.claimGrace = Duration.ofMillis(claimGraceMs);
+        this.cleanupBatchSize = Math.max(1, cleanupBatchSize);
+        this.recentKeys = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Intenta reservar la clave para la transferencia con la referencia dada.
+     * Devuelve vacío si la reserva es nueva, o la referencia de la transferencia original
+     * si la clave ya se usó. Lanza IllegalArgumentException si se usó con otra transferencia
+     */
+    public Optional<UUID> claim(String key, TransferRequest request, UUID reference) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key inválida: debe tener entre 1 y "
+                    + MAX_KEY_LENGTH + " caracteres");
+        }
+        String fingerprint = fingerprint(request);
+
+        Claim cached = recentKeys.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(original(key, cached, fingerprint));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            idempotencyKeyRepository.saveAndFlush(
+                    new IdempotencyKey(key, reference, fingerprint, now, now.plus(ttl)));
+        } catch (DataIntegrityViolationException e) {
+            // Otra petición ya registró la clave: su INSERT confirmado es el que vale
+            IdempotencyKey stored = idempotencyKeyRepository.findById(key).orElseThrow(() -> e);
+            Claim claim = new Claim(stored.getReference(), stored.getFingerprint());
+            recentKeys.put(key, claim);
+            return Optional.of(original(key, claim, fingerprint));
+        }
+        recentKeys.put(key, new Claim(reference, fingerprint));
+        return Optional.empty();
+    }
+
+    /**
+     * Libera una clave cuya transferencia no llegó a encolarse (p.ej. rechazada por admisión),
+     * para que el reintento del cliente pueda ejecutarla
+     */
+    public void release(String key) {
+        recentKeys.invalidate(key);
+        idempotencyKeyRepository.deleteById(key);
+    }
+
+    /**
+     * Marca la reserva como encolada; a partir de aquí takeOver ya no puede reasignarla, aunque
+     * la transferencia no deje fila (p.ej. un dead-letter del ledger). Devuelve la referencia
+     * ligada ahora a la clave: "reference" salvo que otro reintento se la quedara entretanto
+     */
+    public UUID markDispatched(String key, UUID reference) {
+        if (idempotencyKeyRepository.markDispatched(key, reference) == 1) {
+            return reference;
+        }
+        recentKeys.invalidate(key);
+        return idempotencyKeyRepository.findById(key).map(IdempotencyKey::getReference).orElse(reference);
+    }
+
+    /**
+     * Reserva huérfana: la clave apunta a staleReference, nunca se marcó como encolada y esa
+     * transferencia no tiene fila ni está en curso en este nodo (el proceso cayó entre claim y el
+     * encolado). Pasado el periodo de gracia la clave se reasigna a "reference" para que el
+     * reintento la ejecute. Una reserva encolada no se reasigna nunca: la falta de fila no
+     * demuestra que no se ejecutara.
+     * Devuelve la referencia ligada ahora a la clave: "reference" si esta petición se la quedó
+     */
+    public UUID takeOver(String key, UUID staleReference, UUID reference) {
+        LocalDateTime now = LocalDateTime.now();
+        if (idempotencyKeyRepository.takeOver(key, staleReference, reference, now, now.minus(claimGrace)) == 1) {
+            recentKeys.invalidate(key);
+            log.warn("Idempotency-Key {} reservada para {} sin transferencia: se reasigna a {}",
+                    key, staleReference, reference);
+            return reference;
+        }
+        // Ya encolada, aún dentro del periodo de gracia, o ya la reasignó otro reintento
+        UUID current = idempotencyKeyRepository.findById(key).map(IdempotencyKey::getReference).orElse(staleReference);
+        if (!current.equals(staleReference)) {
+            recentKeys.invalidate(key);
+        }
+        return current;
+    }
+
+    /**
+     * Borra las claves expiradas en lotes por el índice de expires_at
+     */
+    @Scheduled(fixedDelayString = "${hilos.idempotency.cleanup-interval-ms:60000}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        int deleted;
+        do {
+            deleted = idempotencyKeyRepository.deleteExpired(now, cleanupBatchSize);
+            total += deleted;
+        } while (deleted == cleanupBatchSize);
+        if (total > 0) {
+            log.info("Claves de idempotencia expiradas eliminadas: {}", total);
+        }
+    }
+
+    private static UUID original(String key, Claim claim, String fingerprint) {
+        if (!claim.fingerprint().equals(fingerprint)) {
+            throw new IllegalArgumentException("La Idempotency-Key " + key + " ya se usó con otra transferencia");
+        }
+        return claim.reference();
+    }
+
+    private static String fingerprint(TransferRequest request) {
+        return request.getFromAccountId() + ":" + request.getToAccountId() + ":"
+                + request.getAmount().toBigDecimal().stripTrailingZeros().toPlainString();
+    }
+}
@@ -0,0 +1,113 @@
+package com.plataformas.hilos.service;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.plataformas.hilos.dto.TransactionResponse;
+import com.plataformas.hilos.dto.TransferRequest;
+import com.plataformas.hilos.entity.Transaction;
+import com.plataformas.hilos.entity.TransactionStatus;
+import com.plataformas.hilos.exception.InsufficientFundsException;
+import com.plataformas.hilos.repository.AccountRepository;
+import com.plataformas.hilos.repository.TransactionRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Motor "lean": la transferencia son dos UPDATE atómicos y un INSERT, sin cargar las
+ * entidades Account ni hacer una consulta de bloqueo aparte. El débito es condicional
+ * (balance >= amount), de modo que la base de datos garantiza que no haya saldos negativos.
+ * Las filas se actualizan siempre en orden de ID para no provocar deadlocks.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LeanTransferEngine implements TransferEngine {
+
+    public static final String ENGINE_NAME = "lean";
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final AccountCache accountCache;
+    private final TransferOutbox transferOutbox;
+
+    @Override
+    public String name() {
+        return ENGINE_NAME;
+    }
+
+    @Override
+    @Transactional(noRollbackFor = InsufficientFundsException.class)
+    public TransactionResponse executeTransfer(TransferRequest request, UUID reference) {
+        Long fromAccountId = request.getFromAccountId();
+        Long toAccountId = request.getToAccountId();
+        // Los UPDATE nativos reciben el importe como NUMERIC
+        BigDecimal amount = request.getAmount().toBigDecimal();
+        accountCache.evictAfterCommit(fromAccountId, toAccountId);
+
+        if (toAccountId < fromAccountId) {
+            // La fila destino tiene menor ID: se abona primero y se deshace si el débito no procede
+            if (accountRepository.applyBalanceDelta(toAccountId, amount) == 0) {
+                throw new RuntimeException("Cuenta destino no encontrada: " + toAccountId);
+            }
+            if (accountRepository.debitIfSufficient(fromAccountId, amount) == 0) {
+                accountRepository.applyBalanceDelta(toAccountId, amount.negate());
+                rejectDebit(request, reference);
+            }
+        } else {
+            if (accountRepository.debitIfSufficient(fromAccountId, amount) == 0) {
+                rejectDebit(request, reference);
+            }
+            if (accountRepository.applyBalanceDelta(toAccountId, amount) == 0) {
+                // RuntimeException: la transacción se revierte junto con el débito
+                throw new RuntimeException("Cuenta destino no encontrada: " + toAccountId);
+            }
+        }
+
+        Transaction transaction = insertTransaction(request, reference, TransactionStatus.COMPLETED);
+        transferOutbox.append(transaction);
+        log.debug("Transferencia lean completada. Transacción ID: {}", transaction.getId());
+        return mapToResponse(request, transaction);
+    }
+
+    /**
+     * El débito no se aplicó: distingue cuenta inexistente de saldo insuficiente.
+     * Solo en este camino (poco frecuente) se hacen consultas adicionales.
+     */
+    private void rejectDebit(TransferRequest request, UUID reference) {
+        if (!accountRepository.existsById(request.getFromAccountId())) {
+            throw new RuntimeException("Cuenta origen no encontrada: " + request.getFromAccountId());
+        }
+        if (!accountRepository.existsById(request.getToAccountId())) {
+            throw new RuntimeException("Cuenta destino no encontrada: " + request.getToAccountId());
+        }
+        insertTransaction(request, reference, TransactionStatus.FAILED);
+        throw new InsufficientFundsException("Saldo insuficiente en la cuenta origen");
+    }
+
+    private Transaction insertTransaction(TransferRequest request, UUID reference, TransactionStatus status) {
+        Transaction transaction = new Transaction();
+        transaction.setReference(reference);
+        transaction.setFromAccount(accountRepository.getReferenceById(request.getFromAccountId()));
+        transaction.setToAccount(accountRepository.getReferenceById(request.getToAccountId()));
+        transaction.setAmount(request.getAmount());
+        transaction.setStatus(status);
+        return transactionRepository.save(transaction);
+    }
+
+    private TransactionResponse mapToResponse(TransferRequest request, Transaction transaction) {
+        return new TransactionResponse(
+                transaction.getId(),
+                transaction.getReference(),
+                request.getFromAccountId(),
+                request.getToAccountId(),
+                transaction.getAmount(),
+                transaction.getStatus(),
+                transaction.getCreatedAt(),
+                transaction.getUpdatedAt());
+    }
+}
@@ -0,0 +1,13 @@
+package com.plataformas.hilos.service;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.plataformas.hilos.entity.TransactionStatus;
+
+/**
+ * Transferencia ya resuelta en el ledger en memoria y pendiente de persistir
+ */
+public record LedgerEntry(UUID reference, Long fromAccountId, Long toAccountId, long amountCents,
+                          TransactionStatus status, LocalDateTime createdAt) {
+}
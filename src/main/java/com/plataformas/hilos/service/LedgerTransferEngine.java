@@ -0,0 +1,66 @@
+package com.plataformas.hilos.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.plataformas.hilos.dto.TransactionResponse;
+import com.plataformas.hilos.dto.TransferRequest;
+import com.plataformas.hilos.entity.TransactionStatus;
+import com.plataformas.hilos.exception.InsufficientFundsException;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Motor "ledger": valida y aplica la transferencia en el ledger en memoria y delega
+ * la escritura en base de datos al LedgerWriteBehindWorker.
+ */
+@Service
+@ConditionalOnProperty(name = "hilos.transfer.engine", havingValue = "ledger")
+@RequiredArgsConstructor
+@Slf4j
+public class LedgerTransferEngine implements TransferEngine {
+
+    public static final String ENGINE_NAME = "ledger";
+
+    private final AccountLedger accountLedger;
+    private final LedgerWriteBehindWorker writeBehindWorker;
+    private final AccountCache accountCache;
+
+    @Override
+    public String name() {
+        return ENGINE_NAME;
+    }
+
+    @Override
+    public TransactionResponse executeTransfer(TransferRequest request, UUID reference) {
+        long amountCents = request.getAmount().cents();
+        LocalDateTime now = LocalDateTime.now();
+
+        try {
+            accountLedger.transfer(request.getFromAccountId(), request.getToAccountId(), amountCents);
+        } catch (InsufficientFundsException e) {
+            // Igual que el motor pesimista: el intento fallido queda registrado como FAILED
+            writeBehindWorker.enqueue(new LedgerEntry(reference, request.getFromAccountId(), request.getToAccountId(),
+                    amountCents, TransactionStatus.FAILED, now));
+            throw e;
+        }
+
+        writeBehindWorker.enqueue(new LedgerEntry(reference, request.getFromAccountId(), request.getToAccountId(),
+                amountCents, TransactionStatus.COMPLETED, now));
+        // El saldo vigente es el del ledger, ya actualizado: se invalida sin esperar al flush
+        accountCache.evict(List.of(request.getFromAccountId(), request.getToAccountId()));
+        if (log.isDebugEnabled()) {
+            log.debug("Transferencia aplicada en ledger: {} -> {} ({} centavos)",
+                    request.getFromAccountId(), request.getToAccountId(), amountCents);
+        }
+
+        // El ID se asigna al persistir el lote; la referencia ya permite consultarla
+        return new TransactionResponse(null, reference, request.getFromAccountId(), request.getToAccountId(),
+                request.getAmount(), TransactionStatus.COMPLETED, now, now);
+    }
+}
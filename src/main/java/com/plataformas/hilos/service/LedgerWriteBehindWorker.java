@@ -0,0 +1,228 @@
+package com.plataformas.hilos.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingDeque;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.plataformas.hilos.entity.Money;
+import com.plataformas.hilos.entity.Transaction;
+import com.plataformas.hilos.entity.TransactionStatus;
+import com.plataformas.hilos.repository.AccountRepository;
+import com.plataformas.hilos.repository.TransactionRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Persiste en lotes las transferencias resueltas por el ledger en memoria.
+ * Cada lote aplica los deltas netos por cuenta y sus filas de transactions en una sola
+ * transacción de base de datos, así la tabla accounts siempre es un estado consistente
+ * desde el que reconstruir el ledger. Si un lote falla se devuelve a la cola; tras
+ * hilos.ledger.flush-max-attempts fallos seguidos se persiste entrada a entrada, de modo que una
+ * entrada que no se puede escribir (p.ej. cuenta borrada) no bloquea a las siguientes: esa
+ * entrada pasa a la lista de dead-letter (métrica hilos.ledger.dead-letter) y se registra en el
+ * log con todos sus datos para repararla a mano. Su referencia sigue en el TransferTracker (se
+ * consulta como completada y un reintento con la misma Idempotency-Key no la vuelve a ejecutar)
+ * y, si movió dinero, sus dos cuentas se bloquean en el ledger. Los fallos transitorios
+ * (conexión, timeouts) no descartan nada: la entrada vuelve a la cola.
+ */
+@Component
+@ConditionalOnProperty(name = "hilos.transfer.engine", havingValue = "ledger")
+@Slf4j
+public class LedgerWriteBehindWorker {
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransferOutbox transferOutbox;
+    private final TransferTracker transferTracker;
+    private final AccountLedger accountLedger;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final LinkedBlockingDeque<LedgerEntry> pending = new LinkedBlockingDeque<>();
+    private final ConcurrentLinkedQueue<LedgerEntry> deadLetters = new ConcurrentLinkedQueue<>();
+    private final Counter deadLettered;
+    /** Fallos seguidos del lote en cabeza de la cola; solo se usa dentro de flushBatch */
+    private int failedAttempts;
+
+    public LedgerWriteBehindWorker(AccountRepository accountRepository,
+                                   TransactionRepository transactionRepository,
+                                   TransactionTemplate transactionTemplate,
+                                   TransferOutbox transferOutbox,
+                                   TransferTracker transferTracker,
+                                   AccountLedger accountLedger,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${hilos.ledger.flush-batch-size:500}") int batchSize,
+                                   @Value("${hilos.ledger.flush-max-attempts:3}") int maxAttempts) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.transferOutbox = transferOutbox;
+        this.transferTracker = transferTracker;
+        this.accountLedger = accountLedger;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.deadLettered = Counter.builder("hilos.ledger.dead-letter")
+                .description("Entradas del ledger que no se pudieron persistir y se apartaron")
+                .register(meterRegistry);
+        Gauge.builder("hilos.ledger.pending", pending, LinkedBlockingDeque::size)
+                .description("Entradas del ledger pendientes de persistir")
+                .register(meterRegistry);
+    }
+
+    public void enqueue(LedgerEntry entry) {
+        pending.add(entry);
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Si queda por persistir alguna entrada con createdAt <= upTo. Excluye a flushBatch: mientras
+     * se comprueba no hay ningún lote a medio escribir, todo lo no persistido está en la cola
+     */
+    public synchronized boolean hasPendingUpTo(LocalDateTime upTo) {
+        for (LedgerEntry entry : pending) {
+            if (!entry.createdAt().isAfter(upTo)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Entradas apartadas por un fallo permanente; su efecto está en el ledger pero no en la BD
+     */
+    public List<LedgerEntry> getDeadLetters() {
+        return List.copyOf(deadLetters);
+    }
+
+    @Scheduled(fixedDelayString = "${hilos.ledger.flush-interval-ms:50}")
+    public void flush() {
+        while (flushBatch() == batchSize) {
+            // seguir vaciando mientras haya lotes completos
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        log.info("Vaciando ledger antes de detener la aplicación ({} pendientes)", pending.size());
+        flush();
+    }
+
+    private synchronized int flushBatch() {
+        List<LedgerEntry> batch = new ArrayList<>(Math.min(batchSize, pending.size() + 1));
+        pending.drainTo(batch, batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> persist(batch));
+        } catch (RuntimeException e) {
+            if (isTransient(e) || ++failedAttempts < maxAttempts) {
+                log.error("Error persistiendo lote del ledger ({} entradas), se reintentará: {}",
+                        batch.size(), e.getMessage());
+                requeue(batch, 0);
+                return 0;
+            }
+            log.error("Lote del ledger fallido {} veces ({} entradas), se persiste entrada a entrada: {}",
+                    failedAttempts, batch.size(), e.getMessage());
+            failedAttempts = 0;
+            return persistOneByOne(batch);
+        }
+        failedAttempts = 0;
+        batch.forEach(entry -> transferTracker.release(entry.reference()));
+        return batch.size();
+    }
+
+    /**
+     * Cada entrada en su propia transacción: las que fallan de forma permanente van a dead-letter
+     * y no se sueltan del tracker, porque sin fila la referencia daría 404
+     */
+    private int persistOneByOne(List<LedgerEntry> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            LedgerEntry entry = batch.get(i);
+            try {
+                transactionTemplate.executeWithoutResult(status -> persist(List.of(entry)));
+            } catch (RuntimeException e) {
+                if (isTransient(e)) {
+                    log.error("Error transitorio persistiendo el ledger, se reintentará: {}", e.getMessage());
+                    requeue(batch, i);
+                    return i;
+                }
+                if (entry.status() == TransactionStatus.COMPLETED) {
+                    accountLedger.block(entry.fromAccountId(), entry.toAccountId());
+                }
+                deadLetters.add(entry);
+                deadLettered.increment();
+                log.error("Entrada del ledger apartada a dead-letter: {} ({})", entry, e.getMessage());
+                continue;
+            }
+            transferTracker.release(entry.reference());
+        }
+        return batch.size();
+    }
+
+    /**
+     * Devuelve a la cabeza de la cola las entradas desde from, conservando el orden
+     */
+    private void requeue(List<LedgerEntry> batch, int from) {
+        for (int i = batch.size() - 1; i >= from; i--) {
+            pending.addFirst(batch.get(i));
+        }
+    }
+
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    private void persist(List<LedgerEntry> batch) {
+        // TreeMap: las filas de accounts se actualizan en orden de ID
+        Map<Long, Long> netDeltas = new TreeMap<>();
+        List<Transaction> rows = new ArrayList<>(batch.size());
+
+        for (LedgerEntry entry : batch) {
+            if (entry.status() == TransactionStatus.COMPLETED) {
+                netDeltas.merge(entry.fromAccountId(), -entry.amountCents(), Long::sum);
+                netDeltas.merge(entry.toAccountId(), entry.amountCents(), Long::sum);
+            }
+
+            Transaction transaction = new Transaction();
+            transaction.setReference(entry.reference());
+            transaction.setFromAccount(accountRepository.getReferenceById(entry.fromAccountId()));
+            transaction.setToAccount(accountRepository.getReferenceById(entry.toAccountId()));
+            transaction.setAmount(Money.ofCents(entry.amountCents()));
+            transaction.setStatus(entry.status());
+            transaction.setCreatedAt(entry.createdAt());
+            rows.add(transaction);
+        }
+
+        netDeltas.forEach((accountId, delta) -> {
+            if (delta != 0) {
+                accountRepository.applyBalanceDelta(accountId, Money.ofCents(delta).toBigDecimal());
+            }
+        });
+        transactionRepository.saveAll(rows);
+        transferOutbox.appendCompleted(rows);
+    }
+}
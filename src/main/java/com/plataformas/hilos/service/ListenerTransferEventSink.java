@@ -0,0 +1,35 @@
+package com.plataformas.hilos.service;
+
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.plataformas.hilos.dto.TransferEvent;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Publica cada evento como evento de aplicación de Spring: cualquier bean puede
+ * consumirlo con @EventListener(TransferEvent.class)
+ */
+@Component
+@ConditionalOnProperty(name = "hilos.outbox.sink.listener.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class ListenerTransferEventSink implements TransferEventSink {
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Override
+    public String name() {
+        return "listener";
+    }
+
+    @Override
+    public void publish(List<TransferEvent> events) {
+        for (TransferEvent event : events) {
+            applicationEventPublisher.publishEvent(event);
+        }
+    }
+}
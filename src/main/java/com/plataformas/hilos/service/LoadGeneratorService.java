@@ -0,0 +1,243 @@
+package com.plataformas.hilos.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import com.plataformas.hilos.dto.LoadScenario;
+import com.plataformas.hilos.dto.LoadTestReport;
+import com.plataformas.hilos.dto.LoadTestRequest;
+import com.plataformas.hilos.dto.TransferRequest;
+import com.plataformas.hilos.entity.Account;
+import com.plataformas.hilos.entity.Money;
+import com.plataformas.hilos.exception.InsufficientFundsException;
+import com.plataformas.hilos.repository.AccountRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Generador de carga: lanza transferencias síncronas (TransactionService.executeTransfer, con
+ * reintentos y el motor activo) desde el pool gestionado loadGeneratorExecutor y devuelve un
+ * informe con throughput, percentiles de latencia, fallos por causa y conservación del saldo.
+ *
+ * Todos los escenarios usan "concurrency" trabajadores que toman la siguiente transferencia
+ * de un contador compartido. En RAMP cada transferencia tiene además una hora de llegada
+ * planificada y la latencia se mide desde esa hora, no desde que un trabajador quedó libre,
+ * para no ocultar la cola que se forma cuando el sistema no sigue el ritmo.
+ */
+@Service
+@Slf4j
+public class LoadGeneratorService {
+
+    static final String CAUSE_INSUFFICIENT_FUNDS = "INSUFFICIENT_FUNDS";
+    static final String CAUSE_OTHER = "OTHER";
+
+    private final TransactionService transactionService;
+    private final AccountRepository accountRepository;
+    private final ThreadPoolTaskExecutor loadGeneratorExecutor;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public LoadGeneratorService(TransactionService transactionService,
+                                AccountRepository accountRepository,
+                                @Qualifier("loadGeneratorExecutor") ThreadPoolTaskExecutor loadGeneratorExecutor) {
+        this.transactionService = transactionService;
+        this.accountRepository = accountRepository;
+        this.loadGeneratorExecutor = loadGeneratorExecutor;
+    }
+
+    /**
+     * Ejecuta la prueba y espera a que termine. Solo se permite una prueba a la vez
+     */
+    public LoadTestReport run(LoadTestRequest request) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Ya hay una prueba de carga en curso");
+        }
+        try {
+            return execute(request);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private LoadTestReport execute(LoadTestRequest request) {
+        List<Long> accountIds = new ArrayList<>(new LinkedHashSet<>(request.getAccountIds()));
+        if (accountIds.size() < 2) {
+            throw new IllegalArgumentException("Se necesitan al menos 2 cuentas distintas");
+        }
+        Money balanceBefore = totalBalance(accountIds);
+
+        PairGenerator pairs = pairGenerator(request, accountIds);
+        int total = request.getTotalTransfers();
+        int workers = Math.min(Math.min(request.getConcurrency(), total), loadGeneratorExecutor.getMaxPoolSize());
+        long[] arrivals = request.getScenario() == LoadScenario.RAMP ? rampArrivals(request) : null;
+
+        log.info("Prueba de carga {}: {} transferencias, {} trabajadores, {} cuentas",
+                request.getScenario(), total, workers, accountIds.size());
+
+        Histogram latencies = new ConcurrentHistogram(3);
+        LongAdder completed = new LongAdder();
+        Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+        AtomicInteger next = new AtomicInteger();
+        long startNanos = System.nanoTime();
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            futures.add(CompletableFuture.runAsync(() -> {
+                for (int i = next.getAndIncrement(); i < total; i = next.getAndIncrement()) {
+                    long issuedAt = System.nanoTime();
+                    if (arrivals != null) {
+                        long scheduledAt = startNanos + arrivals[i];
+                        while ((issuedAt = System.nanoTime()) < scheduledAt) {
+                            LockSupport.parkNanos(scheduledAt - issuedAt);
+                        }
+                        issuedAt = scheduledAt;
+                    }
+                    long[] pair = pairs.next(ThreadLocalRandom.current());
+                    try {
+                        transactionService.executeTransfer(new TransferRequest(pair[0], pair[1], request.getAmount()));
+                        completed.increment();
+                    } catch (RuntimeException e) {
+                        failures.computeIfAbsent(failureCause(e), cause -> new LongAdder()).increment();
+                    }
+                    latencies.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - issuedAt));
+                }
+            }, loadGeneratorExecutor));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        long durationNanos = System.nanoTime() - startNanos;
+
+        LoadTestReport report = new LoadTestReport();
+        report.setScenario(request.getScenario());
+        report.setRequested(total);
+        report.setCompleted(completed.sum());
+        Map<String, Long> failuresByCause = new LinkedHashMap<>();
+        failures.forEach((cause, count) -> failuresByCause.put(cause, count.sum()));
+        report.setFailuresByCause(failuresByCause);
+        report.setFailed(failuresByCause.values().stream().mapToLong(Long::longValue).sum());
+        report.setDurationMs(TimeUnit.NANOSECONDS.toMillis(durationNanos));
+        report.setThroughputPerSecond(total * 1_000_000_000.0 / Math.max(1, durationNanos));
+        report.setLatencyP50Ms(latencies.getValueAtPercentile(50.0) / 1000.0);
+        report.setLatencyP99Ms(latencies.getValueAtPercentile(99.0) / 1000.0);
+        report.setLatencyP999Ms(latencies.getValueAtPercentile(99.9) / 1000.0);
+        report.setLatencyMaxMs(latencies.getMaxValue() / 1000.0);
+        report.setTotalBalanceBefore(balanceBefore);
+        report.setTotalBalanceAfter(totalBalance(accountIds));
+        report.setBalanceConserved(balanceBefore.equals(report.getTotalBalanceAfter()));
+
+        log.info("Prueba de carga {} terminada: {} ok, {} fallos, {} tx/s, p99 {} ms, saldo conservado: {}",
+                report.getScenario(), report.getCompleted(), report.getFailed(),
+                Math.round(report.getThroughputPerSecond()), report.getLatencyP99Ms(), report.isBalanceConserved());
+        return report;
+    }
+
+    private Money totalBalance(Collection<Long> accountIds) {
+        List<Account> accounts = accountRepository.findAllById(accountIds);
+        if (accounts.size() != accountIds.size()) {
+            throw new IllegalArgumentException("Alguna de las cuentas indicadas no existe");
+        }
+        return accounts.stream().map(Account::getBalance).reduce(Money.ZERO, Money::plus);
+    }
+
+    static String failureCause(RuntimeException error) {
+        if (error instanceof InsufficientFundsException) {
+            return CAUSE_INSUFFICIENT_FUNDS;
+        }
+        TransferRetryTemplate.RetryCause cause = TransferRetryTemplate.classify(error);
+        return cause != null ? cause.name() : CAUSE_OTHER;
+    }
+
+    /**
+     * Instantes de llegada (nanos desde el inicio) con tasa creciente lineal entre
+     * startRatePerSecond y endRatePerSecond
+     */
+    static long[] rampArrivals(LoadTestRequest request) {
+        int total = request.getTotalTransfers();
+        long[] arrivals = new long[total];
+        double at = 0;
+        for (int i = 0; i < total; i++) {
+            double progress = total == 1 ? 0 : (double) i / (total - 1);
+            double rate = request.getStartRatePerSecond()
+                    + (request.getEndRatePerSecond() - request.getStartRatePerSecond()) * progress;
+            arrivals[i] = (long) at;
+            at += 1_000_000_000.0 / rate;
+        }
+        return arrivals;
+    }
+
+    static PairGenerator pairGenerator(LoadTestRequest request, List<Long> accountIds) {
+        long[] ids = accountIds.stream().mapToLong(Long::longValue).toArray();
+        return switch (request.getScenario()) {
+            case FIXED_PAIR -> random -> new long[] {ids[0], ids[1]};
+            case UNIFORM, RAMP -> random -> {
+                int from = random.nextInt(ids.length);
+                int to = (from + 1 + random.nextInt(ids.length - 1)) % ids.length;
+                return new long[] {ids[from], ids[to]};
+            };
+            case OPPOSING_PAIRS -> random -> {
+                int pair = random.nextInt(ids.length / 2) * 2;
+                boolean forward = random.nextBoolean();
+                return new long[] {ids[forward ? pair : pair + 1], ids[forward ? pair + 1 : pair]};
+            };
+            case ZIPFIAN -> zipfian(ids, request.getZipfExponent());
+        };
+    }
+
+    /**
+     * Origen y destino con probabilidad proporcional a 1 / rango^s (rango 1 = primera cuenta)
+     */
+    private static PairGenerator zipfian(long[] ids, double exponent) {
+        double[] cumulative = new double[ids.length];
+        double sum = 0;
+        for (int i = 0; i < ids.length; i++) {
+            sum += 1.0 / Math.pow(i + 1, exponent);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < ids.length; i++) {
+            cumulative[i] /= sum;
+        }
+        return random -> {
+            int from = sample(cumulative, random.nextDouble());
+            int to = sample(cumulative, random.nextDouble());
+            if (to == from) {
+                to = (from + 1 + random.nextInt(ids.length - 1)) % ids.length;
+            }
+            return new long[] {ids[from], ids[to]};
+        };
+    }
+
+    private static int sample(double[] cumulative, double value) {
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @FunctionalInterface
+    interface PairGenerator {
+        long[] next(ThreadLocalRandom random);
+    }
+}
@@ -0,0 +1,129 @@
+package com.plataformas.hilos.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.plataformas.hilos.dto.MultiLegTransferRequest;
+import com.plataformas.hilos.dto.TransactionResponse;
+import com.plataformas.hilos.dto.TransferLeg;
+import com.plataformas.hilos.entity.Account;
+import com.plataformas.hilos.entity.Money;
+import com.plataformas.hilos.entity.Transaction;
+import com.plataformas.hilos.entity.TransactionStatus;
+import com.plataformas.hilos.exception.InsufficientFundsException;
+import com.plataformas.hilos.repository.TransactionRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Transferencias de varios tramos (una nómina: un origen y N destinos) en una sola transacción.
+ * Cada cuenta implicada se bloquea una única vez, todas en un SELECT ... FOR UPDATE ordenado por
+ * ID, así el coste de bloqueo crece con el número de cuentas y no con el de tramos. Los fondos se
+ * comprueban una vez sobre el movimiento neto de cada cuenta y las filas de transactions se
+ * insertan en lotes JDBC. O se aplican todos los tramos o ninguno: si algo falla no se escribe nada.
+ * Cuenta como una sola transferencia en hilos.transfer.latency, sea cual sea el número de tramos.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MultiLegTransferService {
+
+    private final TransferEngineRegistry transferEngineRegistry;
+    private final TransferRetryTemplate transferRetryTemplate;
+    private final AccountLockManager accountLockManager;
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountCache accountCache;
+    private final TransferOutbox transferOutbox;
+    private final TransferMetrics transferMetrics;
+
+    /**
+     * Aplica todos los tramos y devuelve una transacción COMPLETED por tramo, en el mismo orden
+     */
+    public List<TransactionResponse> executeTransfer(MultiLegTransferRequest request) {
+        if (LedgerTransferEngine.ENGINE_NAME.equals(transferEngineRegistry.getActiveEngine().name())) {
+            // El ledger mantiene los saldos en memoria: moverlos en la BD los desincronizaría
+            throw new IllegalStateException("Las transferencias de varios tramos no están disponibles con el motor ledger");
+        }
+        List<TransferLeg> legs = resolveLegs(request);
+
+        long startNanos = System.nanoTime();
+        List<Transaction> rows;
+        try {
+            rows = transferRetryTemplate.execute(() -> transactionTemplate.execute(status -> settle(legs)));
+            transferMetrics.recordTransfer(TransferMetrics.Outcome.COMPLETED, startNanos);
+        } catch (InsufficientFundsException e) {
+            transferMetrics.recordTransfer(TransferMetrics.Outcome.INSUFFICIENT_FUNDS, startNanos);
+            throw e;
+        } catch (RuntimeException e) {
+            transferMetrics.recordTransfer(TransferMetrics.Outcome.ERROR, startNanos);
+            throw e;
+        }
+        log.debug("Transferencia de {} tramos completada", rows.size());
+        return rows.stream().map(TransferExecutorService::mapToResponse).collect(Collectors.toList());
+    }
+
+    /**
+     * Completa el origen de cada tramo con el de la transferencia
+     */
+    private List<TransferLeg> resolveLegs(MultiLegTransferRequest request) {
+        List<TransferLeg> legs = new ArrayList<>(request.getLegs().size());
+        for (int i = 0; i < request.getLegs().size(); i++) {
+            TransferLeg leg = request.getLegs().get(i);
+            Long fromAccountId = leg.getFromAccountId() != null ? leg.getFromAccountId() : request.getFromAccountId();
+            if (fromAccountId == null) {
+                throw new IllegalArgumentException("El tramo " + i + " no tiene cuenta origen");
+            }
+            legs.add(new TransferLeg(fromAccountId, leg.getToAccountId(), leg.getAmount()));
+        }
+        return legs;
+    }
+
+    private List<Transaction> settle(List<TransferLeg> legs) {
+        // Movimiento neto por cuenta: una cuenta que recibe y envía en la misma operación solo
+        // necesita saldo para la diferencia
+        Map<Long, Money> netByAccount = new HashMap<>();
+        for (TransferLeg leg : legs) {
+            netByAccount.merge(leg.getFromAccountId(), leg.getAmount().negate(), Money::plus);
+            netByAccount.merge(leg.getToAccountId(), leg.getAmount(), Money::plus);
+        }
+
+        Map<Long, Account> lockedAccounts = accountLockManager.lockAll(netByAccount.keySet());
+        for (Map.Entry<Long, Money> net : netByAccount.entrySet()) {
+            Account account = lockedAccounts.get(net.getKey());
+            if (account == null) {
+                throw new RuntimeException("Cuenta no encontrada: " + net.getKey());
+            }
+            if (account.getBalance().plus(net.getValue()).isNegative()) {
+                throw new InsufficientFundsException("Saldo insuficiente en la cuenta " + net.getKey());
+            }
+        }
+        accountCache.evictAfterCommit(netByAccount.keySet());
+
+        // Las cuentas están gestionadas: un único UPDATE por cuenta en el flush del commit
+        for (Map.Entry<Long, Money> net : netByAccount.entrySet()) {
+            Account account = lockedAccounts.get(net.getKey());
+            account.setBalance(account.getBalance().plus(net.getValue()));
+        }
+
+        List<Transaction> rows = new ArrayList<>(legs.size());
+        for (TransferLeg leg : legs) {
+            Transaction transaction = new Transaction();
+            transaction.setFromAccount(lockedAccounts.get(leg.getFromAccountId()));
+            transaction.setToAccount(lockedAccounts.get(leg.getToAccountId()));
+            transaction.setAmount(leg.getAmount());
+            transaction.setStatus(TransactionStatus.COMPLETED);
+            rows.add(transaction);
+        }
+        transactionRepository.saveAll(rows);
+        transferOutbox.appendCompleted(rows);
+        return rows;
+    }
+}
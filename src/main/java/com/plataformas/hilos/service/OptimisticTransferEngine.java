@@ -0,0 +1,95 @@
+package com.plataformas.hilos.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.plataformas.hilos.dto.TransactionResponse;
+import com.plataformas.hilos.dto.TransferRequest;
+import com.plataformas.hilos.entity.Account;
+import com.plataformas.hilos.entity.Transaction;
+import com.plataformas.hilos.entity.TransactionStatus;
+import com.plataformas.hilos.exception.InsufficientFundsException;
+import com.plataformas.hilos.repository.AccountRepository;
+import com.plataformas.hilos.repository.TransactionRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Motor "optimistic": lee las dos cuentas sin bloqueo de fila y confía en la columna version.
+ * Al confirmar, cada cuenta se escribe con UPDATE ... WHERE id = ? AND version = ?; si otra
+ * transacción la modificó entretanto el commit falla (ObjectOptimisticLockingFailureException),
+ * se revierte entero y TransferRetryTemplate repite la transferencia con espera aleatoria.
+ * Adecuado cuando las transferencias tocan cuentas distintas y poco usadas: no hay espera por
+ * bloqueos, pero con cuentas calientes los reintentos lo hacen más lento que el pesimista.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OptimisticTransferEngine implements TransferEngine {
+
+    public static final String ENGINE_NAME = "optimistic";
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final AccountCache accountCache;
+    private final TransferOutbox transferOutbox;
+
+    @Override
+    public String name() {
+        return ENGINE_NAME;
+    }
+
+    @Override
+    @Transactional(noRollbackFor = InsufficientFundsException.class)
+    public TransactionResponse executeTransfer(TransferRequest request, UUID reference) {
+        Long fromAccountId = request.getFromAccountId();
+        Long toAccountId = request.getToAccountId();
+        accountCache.evictAfterCommit(fromAccountId, toAccountId);
+
+        // Ambas cuentas en una sola consulta, sin FOR UPDATE
+        Map<Long, Account> accounts = new HashMap<>(4);
+        for (Account account : accountRepository.findAllById(List.of(fromAccountId, toAccountId))) {
+            accounts.put(account.getId(), account);
+        }
+        Account fromAccount = accounts.get(fromAccountId);
+        if (fromAccount == null) {
+            throw new RuntimeException("Cuenta origen no encontrada: " + fromAccountId);
+        }
+        Account toAccount = accounts.get(toAccountId);
+        if (toAccount == null) {
+            throw new RuntimeException("Cuenta destino no encontrada: " + toAccountId);
+        }
+
+        if (fromAccount.getBalance().isLessThan(request.getAmount())) {
+            insertTransaction(request, reference, fromAccount, toAccount, TransactionStatus.FAILED);
+            throw new InsufficientFundsException("Saldo insuficiente en la cuenta origen");
+        }
+
+        // Las cuentas están gestionadas: el UPDATE con comprobación de versión sale en el flush del
+        // commit, ordenado por ID (hibernate.order_updates)
+        fromAccount.setBalance(fromAccount.getBalance().minus(request.getAmount()));
+        toAccount.setBalance(toAccount.getBalance().plus(request.getAmount()));
+
+        Transaction transaction = insertTransaction(request, reference, fromAccount, toAccount, TransactionStatus.COMPLETED);
+        transferOutbox.append(transaction);
+        log.debug("Transferencia optimista completada. Transacción ID: {}", transaction.getId());
+        return TransferExecutorService.mapToResponse(transaction);
+    }
+
+    private Transaction insertTransaction(TransferRequest request, UUID reference, Account fromAccount,
+                                          Account toAccount, TransactionStatus status) {
+        Transaction transaction = new Transaction();
+        transaction.setReference(reference);
+        transaction.setFromAccount(fromAccount);
+        transaction.setToAccount(toAccount);
+        transaction.setAmount(request.getAmount());
+        transaction.setStatus(status);
+        return transactionRepository.save(transaction);
+    }
+}
@@ -0,0 +1,83 @@
+package com.plataformas.hilos.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.plataformas.hilos.dto.TransferEvent;
+import com.plataformas.hilos.entity.TransferOutboxEvent;
+import com.plataformas.hilos.repository.TransferOutboxRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Publica en lotes los eventos pendientes de transfer_outbox. En una transacción bloquea el
+ * lote, le asigna offsets consecutivos a partir del último publicado y lo marca como publicado;
+ * después del commit lo entrega a cada TransferEventSink.
+ * Los destinos "push" reciben cada evento como mucho una vez; un consumidor que se pierda
+ * eventos los recupera leyendo desde su último offset (GET /transactions/events?since=).
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private final TransferOutboxRepository transferOutboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final List<TransferEventSink> sinks;
+    private final int batchSize;
+
+    public OutboxRelay(TransferOutboxRepository transferOutboxRepository,
+                       TransactionTemplate transactionTemplate,
+                       List<TransferEventSink> sinks,
+                       @Value("${hilos.outbox.batch-size:500}") int batchSize) {
+        this.transferOutboxRepository = transferOutboxRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.sinks = sinks;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Scheduled(fixedDelayString = "${hilos.outbox.poll-interval-ms:200}")
+    public void relay() {
+        List<TransferEvent> published;
+        do {
+            published = transactionTemplate.execute(status -> markNextBatch());
+            if (!published.isEmpty()) {
+                deliver(published);
+            }
+        } while (published.size() == batchSize);
+    }
+
+    private List<TransferEvent> markNextBatch() {
+        List<TransferOutboxEvent> pending = transferOutboxRepository.findPendingForUpdate(PageRequest.of(0, batchSize));
+        if (pending.isEmpty()) {
+            return List.of();
+        }
+
+        // Se lee después de obtener los bloqueos: el relay anterior ya confirmó sus offsets
+        long offset = transferOutboxRepository.findLastOffset();
+        LocalDateTime now = LocalDateTime.now();
+        List<TransferEvent> events = new ArrayList<>(pending.size());
+        for (TransferOutboxEvent event : pending) {
+            event.setPublishedOffset(++offset);
+            event.setPublishedAt(now);
+            events.add(TransferOutbox.toResponse(event));
+        }
+        return events;
+    }
+
+    private void deliver(List<TransferEvent> events) {
+        for (TransferEventSink sink : sinks) {
+            try {
+                sink.publish(events);
+            } catch (RuntimeException e) {
+                log.error("Error publicando {} eventos en el destino {}: {}", events.size(), sink.name(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.plataformas.hilos.service;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.plataformas.hilos.dto.TransactionResponse;
+import com.plataformas.hilos.dto.TransferRequest;
+import com.plataformas.hilos.exception.TransferRejectedException;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Despachador por particiones (hilos.dispatch.mode=partitioned). Cada partición es una cola
+ * con un único consumidor y la transferencia se enruta por la MENOR de sus dos cuentas, así que
+ * todas las transferencias entre un mismo par (en las dos direcciones) se ejecutan en orden en
+ * un solo hilo y no compiten por sus bloqueos de fila.
+ *
+ * Cuentas destino calientes: una cuenta que recibe abonos de muchas cuentas distintas (p.ej. un
+ * comercio) caería en todas las particiones y su fila se bloquearía desde todas a la vez. Cada
+ * abono que llega de una cuenta distinta a la del anterior cuenta como conflicto en un
+ * AccountContentionTracker propio (hilos.dispatch.hot-account.*); mientras la cuenta supera el
+ * umbral, sus abonos se enrutan por ella y se serializan en su partición. Una cuenta que solo
+ * recibe de un origen nunca se calienta, así que el orden de ese par no cambia.
+ *
+ * Transferencias entre particiones: el enrutado no interviene en la corrección. Cada
+ * transferencia sigue bloqueando ambas filas en orden de ID en su propia transacción
+ * (AccountLockManager), así que dos particiones que tocan la misma cuenta solo esperan una a la
+ * otra, nunca hay deadlock. Se garantiza el orden FIFO por par de cuentas; el de los cargos de
+ * una cuenta hacia destinos que caen en particiones distintas no está definido, ni el de un par
+ * en el momento en que su destino se calienta o se enfría.
+ *
+ * Cada partición ocupa una conexión mientras ejecuta, así que por defecto se usa la mitad del
+ * pool de Hikari: el resto queda para lecturas, el sweeper, el outbox y la conciliación.
+ */
+@Component
+@Slf4j
+public class PartitionedTransferDispatcher {
+
+    public static final String MODE_PARTITIONED = "partitioned";
+
+    private final TransactionService transactionService;
+    private final boolean enabled;
+    private final ThreadPoolExecutor[] partitions;
+    private final AccountContentionTracker hotAccounts;
+    /** Último origen que abonó en cada cuenta: solo los abonos de orígenes distintos la calientan */
+    private final Cache<Long, Long> lastSenders;
+
+    public PartitionedTransferDispatcher(TransactionService transactionService,
+                                         TransferMetrics transferMetrics,
+                                         @Value("${hilos.dispatch.mode:pool}") String mode,
+                                         @Value("${hilos.dispatch.partitions:0}") int partitionCount,
+                                         @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                                         @Value("${hilos.dispatch.partition-queue-capacity:2000}") int queueCapacity,
+                                         @Value("${hilos.dispatch.hot-account.half-life-ms:1000}") long hotHalfLifeMs,
+                                         @Value("${hilos.dispatch.hot-account.threshold:8}") double hotThreshold,
+                                         @Value("${hilos.dispatch.hot-account.max-tracked-accounts:100000}") long maxTrackedAccounts) {
+        this.transactionService = transactionService;
+        this.hotAccounts = new AccountContentionTracker(hotHalfLifeMs, hotThreshold, maxTrackedAccounts);
+        this.lastSenders = Caffeine.newBuilder()
+                .maximumSize(maxTrackedAccounts)
+                .build();
+        this.enabled = MODE_PARTITIONED.equals(mode);
+        int resolvedCount = partitionCount > 0 ? partitionCount : Math.max(1, poolSize / 2);
+        this.partitions = new ThreadPoolExecutor[enabled ? resolvedCount : 0];
+
+        for (int i = 0; i < partitions.length; i++) {
+            final int partition = i;
+            partitions[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(queueCapacity),
+                    runnable -> new Thread(runnable, "Partition-" + partition));
+            transferMetrics.bindPartition(partitions[i], i);
+        }
+        if (enabled) {
+            log.info("Despacho de transferencias por particiones: {} particiones", partitions.length);
+            if (partitions.length >= poolSize) {
+                log.warn("{} particiones con un pool de {} conexiones: las lecturas esperarán conexión",
+                        partitions.length, poolSize);
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Encola la transferencia en la partición que le corresponde (ver partitionFor)
+     */
+    public CompletableFuture<TransactionResponse> dispatch(TransferRequest request, UUID reference) {
+        Long fromAccountId = request.getFromAccountId();
+        Long toAccountId = request.getToAccountId();
+        Long previousSender = lastSenders.asMap().put(toAccountId, fromAccountId);
+        if (previousSender != null && !previousSender.equals(fromAccountId)) {
+            hotAccounts.recordConflict(toAccountId);
+        }
+
+        int partition = partitionFor(request);
+        CompletableFuture<TransactionResponse> future = new CompletableFuture<>();
+        try {
+            partitions[partition].execute(() -> {
+                try {
+                    future.complete(transactionService.executeTransfer(request, reference));
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw new TransferRejectedException("Partición " + partition + " saturada, reintente más tarde", 1);
+        }
+        return future;
+    }
+
+    /**
+     * Partición de la transferencia: la de la cuenta destino si está caliente y, si no, la de la
+     * menor de las dos cuentas
+     */
+    public int partitionFor(TransferRequest request) {
+        Long toAccountId = request.getToAccountId();
+        long routingAccountId = hotAccounts.isContended(toAccountId)
+                ? toAccountId
+                : Math.min(request.getFromAccountId(), toAccountId);
+        return Math.floorMod(Long.hashCode(routingAccountId), partitions.length);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        for (ThreadPoolExecutor partition : partitions) {
+            partition.shutdown();
+        }
+        for (ThreadPoolExecutor partition : partitions) {
+            partition.awaitTermination(30, TimeUnit.SECONDS);
+        }
+    }
+}
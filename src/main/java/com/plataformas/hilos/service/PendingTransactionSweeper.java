@@ -0,0 +1,177 @@
+package com.plataformas.hilos.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.plataformas.hilos.entity.Account;
+import com.plataformas.hilos.entity.Transaction;
+import com.plataformas.hilos.entity.TransactionStatus;
+import com.plataformas.hilos.repository.TransactionRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Resuelve las transacciones que se quedaron en PENDING más de hilos.sweeper.pending-timeout-ms
+ * (filas de versiones anteriores, escritores externos o una caída entre la fila PENDING y su
+ * estado final). Cada lote es una transacción corta: toma las filas con FOR UPDATE SKIP LOCKED
+ * por el índice (status, created_at, id) y, según hilos.sweeper.action:
+ * - fail: las marca FAILED sin mover saldos
+ * - redrive: las liquida sobre la misma fila, igual que un bloque del lote de transferencias
+ *   (un único SELECT ... FOR UPDATE ordenado de todas las cuentas implicadas). Las que se
+ *   completan pasan a tener created_at = hora de liquidación: con su fecha original quedarían
+ *   por detrás de fotos de saldo ya escritas (AccountSnapshotService) y no se contarían
+ * Es seguro con varios nodos a la vez: cada fila la resuelve solo quien la bloquea.
+ */
+@Component
+@ConditionalOnProperty(name = "hilos.sweeper.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class PendingTransactionSweeper {
+
+    public static final String ACTION_FAIL = "fail";
+    public static final String ACTION_REDRIVE = "redrive";
+
+    private final TransactionRepository transactionRepository;
+    private final AccountLockManager accountLockManager;
+    private final AccountCache accountCache;
+    private final TransferOutbox transferOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration pendingTimeout;
+    private final int batchSize;
+    private final boolean redrive;
+    private final Timer sweepDuration;
+    private final Map<TransactionStatus, Counter> resolved = new EnumMap<>(TransactionStatus.class);
+
+    public PendingTransactionSweeper(TransactionRepository transactionRepository,
+                                     AccountLockManager accountLockManager,
+                                     AccountCache accountCache,
+                                     TransferOutbox transferOutbox,
+                                     TransactionTemplate transactionTemplate,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${hilos.sweeper.pending-timeout-ms:300000}") long pendingTimeoutMs,
+                                     @Value("${hilos.sweeper.batch-size:100}") int batchSize,
+                                     @Value("${hilos.sweeper.action:fail}") String action,
+                                     @Value("${hilos.transfer.engine:pessimistic}") String engineName) {
+        this.transactionRepository = transactionRepository;
+        this.accountLockManager = accountLockManager;
+        this.accountCache = accountCache;
+        this.transferOutbox = transferOutbox;
+        this.transactionTemplate = transactionTemplate;
+        this.pendingTimeout = Duration.ofMillis(pendingTimeoutMs);
+        this.batchSize = Math.max(1, batchSize);
+
+        if (!ACTION_FAIL.equals(action) && !ACTION_REDRIVE.equals(action)) {
+            throw new IllegalStateException("Acción del barrendero desconocida: " + action
+                    + " (disponibles: " + ACTION_FAIL + ", " + ACTION_REDRIVE + ")");
+        }
+        // Con el ledger los saldos viven en memoria: mover saldos directamente en la BD los desincronizaría
+        boolean ledger = LedgerTransferEngine.ENGINE_NAME.equals(engineName);
+        if (ACTION_REDRIVE.equals(action) && ledger) {
+            log.warn("hilos.sweeper.action=redrive no es compatible con el motor ledger; se usará fail");
+        }
+        this.redrive = ACTION_REDRIVE.equals(action) && !ledger;
+
+        this.sweepDuration = Timer.builder("hilos.sweeper.duration")
+                .description("Duración de cada pasada del barrendero de transacciones PENDING")
+                .register(meterRegistry);
+        for (TransactionStatus status : List.of(TransactionStatus.COMPLETED, TransactionStatus.FAILED)) {
+            resolved.put(status, Counter.builder("hilos.sweeper.resolved")
+                    .description("Transacciones PENDING antiguas resueltas por el barrendero")
+                    .tag("status", status.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Una pasada completa: lotes hasta que no queden filas PENDING antiguas sin bloquear.
+     * Devuelve el número de transacciones resueltas
+     */
+    @Scheduled(fixedDelayString = "${hilos.sweeper.interval-ms:60000}",
+               initialDelayString = "${hilos.sweeper.initial-delay-ms:60000}")
+    public int sweep() {
+        return sweepDuration.record(() -> {
+            LocalDateTime createdBefore = LocalDateTime.now().minus(pendingTimeout);
+            int total = 0;
+            int swept;
+            do {
+                swept = transactionTemplate.execute(status -> sweepBatch(createdBefore));
+                total += swept;
+            } while (swept == batchSize);
+
+            if (total > 0) {
+                log.warn("Barrendero: {} transacciones PENDING anteriores a {} resueltas ({})",
+                        total, createdBefore, redrive ? ACTION_REDRIVE : ACTION_FAIL);
+            }
+            return total;
+        });
+    }
+
+    private int sweepBatch(LocalDateTime createdBefore) {
+        List<Transaction> stale = transactionRepository.findStalePendingForUpdate(createdBefore, PageRequest.of(0, batchSize));
+        if (stale.isEmpty()) {
+            return 0;
+        }
+
+        if (redrive) {
+            settle(stale);
+        } else {
+            for (Transaction transaction : stale) {
+                transaction.setStatus(TransactionStatus.FAILED);
+            }
+        }
+
+        for (Transaction transaction : stale) {
+            resolved.get(transaction.getStatus()).increment();
+            if (log.isDebugEnabled()) {
+                log.debug("Transacción {} ({}) PENDING -> {} a {}", transaction.getId(),
+                        transaction.getReference(), transaction.getStatus(), transaction.getCreatedAt());
+            }
+        }
+        // Las filas están gestionadas: el UPDATE sale en el flush del commit
+        return stale.size();
+    }
+
+    /**
+     * Liquida las transferencias sobre sus propias filas, en orden de antigüedad
+     */
+    private void settle(List<Transaction> stale) {
+        Set<Long> accountIds = new HashSet<>();
+        for (Transaction transaction : stale) {
+            accountIds.add(transaction.getFromAccount().getId());
+            accountIds.add(transaction.getToAccount().getId());
+        }
+        Map<Long, Account> lockedAccounts = accountLockManager.lockAll(accountIds);
+        accountCache.evictAfterCommit(accountIds);
+
+        LocalDateTime settledAt = LocalDateTime.now();
+        for (Transaction transaction : stale) {
+            Account fromAccount = lockedAccounts.get(transaction.getFromAccount().getId());
+            Account toAccount = lockedAccounts.get(transaction.getToAccount().getId());
+            if (fromAccount == null || toAccount == null
+                    || fromAccount.getBalance().isLessThan(transaction.getAmount())) {
+                transaction.setStatus(TransactionStatus.FAILED);
+                continue;
+            }
+            fromAccount.setBalance(fromAccount.getBalance().minus(transaction.getAmount()));
+            toAccount.setBalance(toAccount.getBalance().plus(transaction.getAmount()));
+            transaction.setStatus(TransactionStatus.COMPLETED);
+            // El movimiento ocurre ahora: así cae después de cualquier foto ya tomada
+            transaction.setCreatedAt(settledAt);
+        }
+        transferOutbox.appendCompleted(stale);
+    }
+}
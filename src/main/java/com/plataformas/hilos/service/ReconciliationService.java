@@ -0,0 +1,286 @@
+package com.plataformas.hilos.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.plataformas.hilos.dto.ReconciliationMismatch;
+import com.plataformas.hilos.dto.ReconciliationReport;
+import com.plataformas.hilos.entity.Money;
+import com.plataformas.hilos.repository.AccountRepository;
+import com.plataformas.hilos.repository.TransactionRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Conciliación del libro: comprueba que para cada cuenta
+ * saldo = saldo inicial + entradas COMPLETED - salidas COMPLETED.
+ *
+ * Todo se lee en una única transacción REPEATABLE READ de solo lectura, así transactions y
+ * accounts salen de la misma foto aunque sigan entrando transferencias, y sin bloqueos de
+ * fila (MVCC): las transferencias no esperan a la conciliación. La tabla transactions se
+ * recorre por rangos de ID con un cursor JDBC; cada partición se copia a arrays primitivos y
+ * se agrega en el pool fork/join (reconciliationPool) mientras se lee la siguiente. Los deltas
+ * se acumulan en centavos en mapas long -> long, sin boxing.
+ */
+@Service
+@Slf4j
+public class ReconciliationService {
+
+    /** Por debajo de este número de filas una tarea fork/join agrega sin dividirse */
+    private static final int SEQUENTIAL_THRESHOLD = 4096;
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final ForkJoinPool reconciliationPool;
+    private final TransactionTemplate snapshotTransaction;
+    private final int partitionSize;
+    private final int maxReportedMismatches;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong lastMismatchCount = new AtomicLong();
+    private volatile ReconciliationReport lastReport;
+
+    public ReconciliationService(AccountRepository accountRepository,
+                                 TransactionRepository transactionRepository,
+                                 @Qualifier("reconciliationPool") ForkJoinPool reconciliationPool,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${hilos.reconciliation.partition-size:50000}") int partitionSize,
+                                 @Value("${hilos.reconciliation.max-reported-mismatches:100}") int maxReportedMismatches) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.reconciliationPool = reconciliationPool;
+        this.partitionSize = Math.max(1, partitionSize);
+        this.maxReportedMismatches = Math.max(0, maxReportedMismatches);
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTransaction.setReadOnly(true);
+        Gauge.builder("hilos.reconciliation.mismatches", lastMismatchCount, AtomicLong::get)
+                .description("Cuentas descuadradas en la última conciliación")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ejecuta una conciliación completa. Solo una a la vez
+     */
+    public ReconciliationReport reconcile() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Ya hay una conciliación en curso");
+        }
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            long start = System.nanoTime();
+            ReconciliationReport report = snapshotTransaction.execute(status -> reconcileSnapshot());
+            report.setStartedAt(startedAt);
+            report.setDurationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+            lastReport = report;
+            lastMismatchCount.set(report.getMismatchCount());
+            if (report.isConsistent()) {
+                log.info("Conciliación correcta: {} cuentas, {} transferencias en {} ms",
+                        report.getAccountsChecked(), report.getTransactionsScanned(), report.getDurationMs());
+            } else {
+                log.error("Conciliación con {} cuentas descuadradas (saldo total {} frente a {} esperado)",
+                        report.getMismatchCount(), report.getTotalBalance(), report.getTotalExpectedBalance());
+            }
+            return report;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public ReconciliationReport getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * Ejecución periódica opcional: hilos.reconciliation.cron ("-" la desactiva)
+     */
+    @Scheduled(cron = "${hilos.reconciliation.cron:-}")
+    public void scheduledReconcile() {
+        try {
+            reconcile();
+        } catch (IllegalStateException e) {
+            log.warn("Conciliación programada omitida: {}", e.getMessage());
+        }
+    }
+
+    private ReconciliationReport reconcileSnapshot() {
+        LongLongHashMap netFlows = new LongLongHashMap(1024);
+        long transactionsScanned = 0;
+        int partitions = 0;
+
+        Long maxId = transactionRepository.findMaxId();
+        if (maxId != null) {
+            // Como mucho "paralelismo" particiones en vuelo: acota la memoria de los arrays
+            Deque<ForkJoinTask<LongLongHashMap>> inFlight = new ArrayDeque<>();
+            for (long fromId = 0; fromId <= maxId; fromId += partitionSize) {
+                FlowPartition partition = readPartition(fromId, fromId + partitionSize);
+                partitions++;
+                if (partition.size == 0) {
+                    continue;
+                }
+                transactionsScanned += partition.size;
+                inFlight.addLast(reconciliationPool.submit(new AggregateFlows(partition, 0, partition.size)));
+                if (inFlight.size() > reconciliationPool.getParallelism()) {
+                    netFlows.addAll(inFlight.removeFirst().join());
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                netFlows.addAll(inFlight.removeFirst().join());
+            }
+        }
+
+        ReconciliationReport report = compareBalances(netFlows);
+        report.setPartitions(partitions);
+        report.setTransactionsScanned(transactionsScanned);
+        return report;
+    }
+
+    private FlowPartition readPartition(long fromId, long toId) {
+        FlowPartition partition = new FlowPartition(Math.min(partitionSize, 1024));
+        try (Stream<Object[]> rows = transactionRepository.streamCompletedFlows(fromId, toId)) {
+            Iterator<Object[]> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Object[] row = iterator.next();
+                partition.add((Long) row[0], (Long) row[1], ((Money) row[2]).cents());
+            }
+        }
+        return partition;
+    }
+
+    private ReconciliationReport compareBalances(LongLongHashMap netFlows) {
+        long accountsChecked = 0;
+        long withoutInitialBalance = 0;
+        long totalBalance = 0;
+        long totalExpected = 0;
+        long mismatchCount = 0;
+        List<ReconciliationMismatch> mismatches = new ArrayList<>();
+
+        try (Stream<Object[]> rows = accountRepository.streamBalances()) {
+            Iterator<Object[]> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Object[] row = iterator.next();
+                Long accountId = (Long) row[0];
+                if (row[2] == null) {
+                    withoutInitialBalance++;
+                    continue;
+                }
+                long actual = ((Money) row[1]).cents();
+                long expected = ((Money) row[2]).cents() + netFlows.get(accountId);
+                accountsChecked++;
+                totalBalance += actual;
+                totalExpected += expected;
+                if (actual != expected) {
+                    mismatchCount++;
+                    if (mismatches.size() < maxReportedMismatches) {
+                        mismatches.add(new ReconciliationMismatch(accountId, Money.ofCents(expected),
+                                Money.ofCents(actual), Money.ofCents(actual - expected)));
+                    }
+                }
+            }
+        }
+
+        ReconciliationReport report = new ReconciliationReport();
+        report.setAccountsChecked(accountsChecked);
+        report.setAccountsWithoutInitialBalance(withoutInitialBalance);
+        report.setTotalBalance(Money.ofCents(totalBalance));
+        report.setTotalExpectedBalance(Money.ofCents(totalExpected));
+        report.setMismatchCount(mismatchCount);
+        report.setMismatches(mismatches);
+        report.setConsistent(mismatchCount == 0);
+        return report;
+    }
+
+    /**
+     * Filas de una partición en arrays paralelos (columnas), sin objetos por fila
+     */
+    static final class FlowPartition {
+
+        long[] fromIds;
+        long[] toIds;
+        long[] amounts;
+        int size;
+
+        FlowPartition(int initialCapacity) {
+            fromIds = new long[initialCapacity];
+            toIds = new long[initialCapacity];
+            amounts = new long[initialCapacity];
+        }
+
+        void add(long fromId, long toId, long amountCents) {
+            if (size == fromIds.length) {
+                int capacity = fromIds.length << 1;
+                fromIds = Arrays.copyOf(fromIds, capacity);
+                toIds = Arrays.copyOf(toIds, capacity);
+                amounts = Arrays.copyOf(amounts, capacity);
+            }
+            fromIds[size] = fromId;
+            toIds[size] = toId;
+            amounts[size] = amountCents;
+            size++;
+        }
+    }
+
+    /**
+     * Delta neto por cuenta de las filas [from, to) de la partición; divide en mitades hasta
+     * SEQUENTIAL_THRESHOLD y combina el mapa pequeño sobre el grande
+     */
+    static final class AggregateFlows extends RecursiveTask<LongLongHashMap> {
+
+        private final FlowPartition partition;
+        private final int from;
+        private final int to;
+
+        AggregateFlows(FlowPartition partition, int from, int to) {
+            this.partition = partition;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected LongLongHashMap compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                LongLongHashMap flows = new LongLongHashMap(to - from);
+                for (int i = from; i < to; i++) {
+                    flows.addTo(partition.fromIds[i], -partition.amounts[i]);
+                    flows.addTo(partition.toIds[i], partition.amounts[i]);
+                }
+                return flows;
+            }
+
+            int middle = (from + to) >>> 1;
+            AggregateFlows left = new AggregateFlows(partition, from, middle);
+            left.fork();
+            LongLongHashMap right = new AggregateFlows(partition, middle, to).compute();
+            LongLongHashMap leftFlows = left.join();
+            if (leftFlows.size() >= right.size()) {
+                leftFlows.addAll(right);
+                return leftFlows;
+            }
+            right.addAll(leftFlows);
+            return right;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.plataformas.hilos.service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.plataformas.hilos.config.ReadRoutingContext;
+import com.plataformas.hilos.dto.TransferEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Stream SSE de eventos (GET /transactions/events/stream). Cada suscriptor recibe primero los
+ * eventos publicados después de su offset (leídos de la base de datos) y luego los nuevos.
+ * Mientras dura esa lectura los eventos en vivo se guardan y se envían al terminar,
+ * descartando los que ya llegaron por la lectura: no hay huecos ni duplicados.
+ *
+ * Ni la petición ni el hilo del relay escriben en los sockets: subscribe() devuelve el emitter
+ * y la lectura inicial se hace en el pool de envío, y publish() solo encola en la cola acotada
+ * de cada suscriptor. Un suscriptor que desborda su cola (cliente lento) se cierra; al
+ * reconectar con Last-Event-ID retoma desde la base de datos sin perder eventos. La lectura
+ * inicial también está acotada: pasado el máximo se cierra el stream y el cliente continúa
+ * desde el último id recibido.
+ */
+@Component
+@Slf4j
+public class SseTransferEventSink implements TransferEventSink {
+
+    private static final int REPLAY_PAGE_SIZE = 500;
+
+    private final TransferOutbox transferOutbox;
+    private final long emitterTimeoutMs;
+    private final int queueCapacity;
+    private final int maxReplayEvents;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ThreadPoolExecutor senders;
+    private final Counter slowSubscribers;
+
+    public SseTransferEventSink(TransferOutbox transferOutbox,
+                                MeterRegistry meterRegistry,
+                                @Value("${hilos.outbox.sse.timeout-ms:1800000}") long emitterTimeoutMs,
+                                @Value("${hilos.outbox.sse.queue-capacity:10000}") int queueCapacity,
+                                @Value("${hilos.outbox.sse.max-replay-events:100000}") int maxReplayEvents,
+                                @Value("${hilos.outbox.sse.sender-threads:4}") int senderThreads) {
+        this.transferOutbox = transferOutbox;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.maxReplayEvents = Math.max(REPLAY_PAGE_SIZE, maxReplayEvents);
+        // Como mucho una tarea por suscriptor a la vez (lectura inicial o vaciado de su cola)
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "SseSender-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        Gauge.builder("hilos.outbox.sse.subscribers", subscribers, List::size)
+                .description("Suscriptores SSE conectados")
+                .register(meterRegistry);
+        this.slowSubscribers = Counter.builder("hilos.outbox.sse.slow-subscribers")
+                .description("Suscriptores SSE cerrados por desbordar su cola")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String name() {
+        return "sse";
+    }
+
+    @Override
+    public void publish(List<TransferEvent> events) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.receive(events);
+        }
+    }
+
+    /**
+     * Abre un stream que empieza justo después del offset indicado. La lectura de los eventos
+     * anteriores se hace en segundo plano
+     */
+    public SseEmitter subscribe(long since) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, since);
+        emitter.onCompletion(subscriber::detach);
+        emitter.onTimeout(subscriber::detach);
+        emitter.onError(error -> subscriber.detach());
+
+        // Se registra antes de leer: lo que se publique durante la lectura queda en su cola
+        subscribers.add(subscriber);
+        subscriber.submit(subscriber::replay);
+        return emitter;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Queue<TransferEvent> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean live;
+        private volatile boolean closed;
+        // Solo lo toca la tarea de envío en curso (hay una como mucho)
+        private long lastOffset;
+
+        private Subscriber(SseEmitter emitter, long lastOffset) {
+            this.emitter = emitter;
+            this.lastOffset = lastOffset;
+        }
+
+        /**
+         * Hilo del relay: solo encola, nunca escribe en el socket ni espera al cliente
+         */
+        void receive(List<TransferEvent> events) {
+            if (closed) {
+                return;
+            }
+            if (queued.addAndGet(events.size()) > queueCapacity) {
+                slowSubscribers.increment();
+                log.warn("Suscriptor SSE lento ({} eventos en cola): se cierra el stream", queued.get());
+                close();
+                return;
+            }
+            queue.addAll(events);
+            if (live) {
+                scheduleDrain();
+            }
+        }
+
+        void replay() {
+            long position = lastOffset;
+            int replayed = 0;
+            List<TransferEvent> page;
+            do {
+                // De la primaria: el relay publica en vivo lo leído de la primaria y el filtro por
+                // offset descartaría lo que una réplica con retraso aún no tuviera (huecos)
+                long after = position;
+                try {
+                    page = ReadRoutingContext.onPrimary(() -> transferOutbox.findPublishedAfter(after, REPLAY_PAGE_SIZE));
+                } catch (RuntimeException e) {
+                    log.warn("Error leyendo eventos para un suscriptor SSE: {}", e.getMessage());
+                    detach();
+                    emitter.completeWithError(e);
+                    return;
+                }
+                if (!send(page)) {
+                    return;
+                }
+                if (!page.isEmpty()) {
+                    position = page.get(page.size() - 1).getOffset();
+                    replayed += page.size();
+                }
+                if (replayed >= maxReplayEvents && page.size() == REPLAY_PAGE_SIZE) {
+                    // El cliente continúa con Last-Event-ID; la cola en vivo no se queda esperando
+                    log.debug("Lectura inicial SSE limitada a {} eventos, se cierra el stream", replayed);
+                    close();
+                    return;
+                }
+            } while (page.size() == REPLAY_PAGE_SIZE);
+            live = true;
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                submit(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                TransferEvent event;
+                while (!closed && (event = queue.poll()) != null) {
+                    queued.decrementAndGet();
+                    if (!send(List.of(event))) {
+                        return;
+                    }
+                }
+                draining.set(false);
+                // Un evento encolado justo antes de soltar la marca no puede quedarse sin enviar
+            } while (!closed && !queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        private void submit(Runnable task) {
+            try {
+                senders.execute(task);
+            } catch (RejectedExecutionException e) {
+                close();
+            }
+        }
+
+        /**
+         * Envía los eventos con offset posterior al último enviado. Devuelve false si el
+         * cliente se desconectó
+         */
+        private boolean send(List<TransferEvent> events) {
+            try {
+                for (TransferEvent event : events) {
+                    if (event.getOffset() > lastOffset) {
+                        emitter.send(SseEmitter.event()
+                                .id(String.valueOf(event.getOffset()))
+                                .name("transfer")
+                                .data(event));
+                        lastOffset = event.getOffset();
+                    }
+                }
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Suscriptor SSE desconectado: {}", e.getMessage());
+                detach();
+                emitter.completeWithError(e);
+                return false;
+            }
+        }
+
+        private void close() {
+            detach();
+            emitter.complete();
+        }
+
+        void detach() {
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+        }
+    }
+}
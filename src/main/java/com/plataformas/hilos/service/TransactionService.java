@@ -1,14 +1,21 @@
 package com.plataformas.hilos.service;
 
-import java.util.List;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import com.plataformas.hilos.config.ReadRoutingContext;
+import com.plataformas.hilos.dto.CursorPage;
 import com.plataformas.hilos.dto.TransactionResponse;
 import com.plataformas.hilos.dto.TransferRequest;
 import com.plataformas.hilos.entity.TransactionStatus;
+import com.plataformas.hilos.exception.InsufficientFundsException;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -19,44 +26,130 @@ import lombok.extern.slf4j.Slf4j;
 public class TransactionService {
     
     private final TransferExecutorService transferExecutorService;
+    private final TransferEngineRegistry transferEngineRegistry;
+    private final TransferRetryTemplate transferRetryTemplate;
+    private final TransferTracker transferTracker;
+    private final TransferMetrics transferMetrics;
     
     /**
      * Inicia una transferencia de forma asíncrona
      */
     @Async("transferExecutor")
-    public CompletableFuture<TransactionResponse> processTransfer(TransferRequest request) {
-        log.info("Iniciando transferencia asíncrona: {} -> {} (${})", 
-                request.getFromAccountId(), request.getToAccountId(), request.getAmount());
+    public CompletableFuture<TransactionResponse> processTransfer(TransferRequest request, UUID reference) {
+        if (log.isDebugEnabled()) {
+            log.debug("Iniciando transferencia asíncrona {}: {} -> {} (${})",
+                    reference, request.getFromAccountId(), request.getToAccountId(), request.getAmount());
+        }
 
         try {
-            TransactionResponse response = transferExecutorService.executeTransfer(request);
+            TransactionResponse response = executeTransfer(request, reference);
             return CompletableFuture.completedFuture(response);
         } catch (Exception e) {
-            log.error("Error en transferencia asíncrona: {}", e.getMessage());
+            if (e instanceof InsufficientFundsException) {
+                log.debug("Transferencia asíncrona {} rechazada: {}", reference, e.getMessage());
+            } else {
+                log.error("Error en transferencia asíncrona {}: {}", reference, e.getMessage());
+            }
             CompletableFuture<TransactionResponse> failed = new CompletableFuture<>();
             failed.completeExceptionally(e);
             return failed;
         }
     }
     
-    // Compatibilidad para llamadas existentes (p.ej., ConcurrencyDemoController)
+    // Compatibilidad para llamadas existentes (p.ej., ConcurrencyDemoController).
+    // Reintenta de forma acotada los deadlocks y fallos de serialización.
     public TransactionResponse executeTransfer(TransferRequest request) {
-        return transferExecutorService.executeTransfer(request);
+        return executeTransfer(request, UUID.randomUUID());
+    }
+    
+    public TransactionResponse executeTransfer(TransferRequest request, UUID reference) {
+        long startNanos = System.nanoTime();
+        try {
+            TransactionResponse response = transferRetryTemplate.execute(
+                    () -> transferEngineRegistry.getActiveEngine().executeTransfer(request, reference));
+            transferMetrics.recordTransfer(TransferMetrics.Outcome.COMPLETED, startNanos);
+            return response;
+        } catch (InsufficientFundsException e) {
+            transferMetrics.recordTransfer(TransferMetrics.Outcome.INSUFFICIENT_FUNDS, startNanos);
+            throw e;
+        } catch (RuntimeException e) {
+            transferMetrics.recordTransfer(TransferMetrics.Outcome.ERROR, startNanos);
+            throw e;
+        }
+    }
+
+    /**
+     * Obtiene una transacción por su ID de base de datos
+     */
+    public Optional<TransactionResponse> getTransaction(Long id) {
+        return transferExecutorService.findTransaction(id);
+    }
+    
+    /**
+     * Obtiene una transacción por su referencia. Si todavía no está en la base de datos
+     * pero este nodo la está procesando, se informa su estado en curso.
+     * Se lee de la primaria: quien pregunta por una referencia acaba de recibirla en el 202, y
+     * una transferencia que el tracker ya soltó puede no haber llegado aún a la réplica.
+     */
+    public Optional<TransactionResponse> getTransaction(UUID reference) {
+        // Se consulta primero el tracker: una transferencia terminada ya está confirmada en BD
+        Optional<TransferTracker.TrackedTransfer> tracked = transferTracker.find(reference);
+        if (tracked.isPresent() && !tracked.get().future().isDone()) {
+            return Optional.of(TransferSubmissionService.pendingResponse(reference, tracked.get().request()));
+        }
+        
+        Optional<TransactionResponse> stored =
+                ReadRoutingContext.onPrimary(() -> transferExecutorService.findTransaction(reference));
+        if (stored.isPresent() || tracked.isEmpty()) {
+            return stored;
+        }
+        
+        CompletableFuture<TransactionResponse> future = tracked.get().future();
+        if (!future.isCompletedExceptionally()) {
+            // Completada en el ledger con la fila aún por escribir
+            return Optional.of(future.join());
+        }
+        
+        // Falló sin dejar fila (la transacción se revirtió)
+        TransactionResponse failed = TransferSubmissionService.pendingResponse(reference, tracked.get().request());
+        failed.setStatus(TransactionStatus.FAILED);
+        return Optional.of(failed);
+    }
+    
+    /**
+     * Espera (long-poll) a que la transferencia llegue a COMPLETED o FAILED, como mucho
+     * el tiempo indicado, y devuelve su estado en ese momento.
+     */
+    public CompletableFuture<Optional<TransactionResponse>> awaitTransaction(UUID reference, Duration timeout) {
+        return transferTracker.find(reference)
+                .map(tracked -> tracked.future()
+                        .handle((response, error) -> Boolean.TRUE)
+                        .completeOnTimeout(Boolean.FALSE, timeout.toMillis(), TimeUnit.MILLISECONDS)
+                        .thenApply(finished -> getTransaction(reference)))
+                .orElseGet(() -> CompletableFuture.completedFuture(getTransaction(reference)));
     }
 
     /**
-     * Obtiene todas las transacciones
+     * Obtiene una página de transacciones (más recientes primero)
+     */
+    public CursorPage<TransactionResponse> getTransactions(String cursor, int limit) {
+        log.info("Consultando transacciones (limit {})", limit);
+        return transferExecutorService.getTransactionsPage(null, cursor, limit);
+    }
+    
+    /**
+     * Obtiene una página de transacciones por estado
      */
-    public List<TransactionResponse> getAllTransactions() {
-        log.info("Consultando todas las transacciones");
-        return transferExecutorService.getAllTransactions();
+    public CursorPage<TransactionResponse> getTransactionsByStatus(TransactionStatus status, String cursor, int limit) {
+        log.info("Consultando transacciones con estado: {} (limit {})", status, limit);
+        return transferExecutorService.getTransactionsPage(status, cursor, limit);
     }
     
     /**
-     * Obtiene transacciones por estado
+     * Exporta todas las transacciones (opcionalmente filtradas por estado) fila a fila
      */
-    public List<TransactionResponse> getTransactionsByStatus(TransactionStatus status) {
-        log.info("Consultando transacciones con estado: {}", status);
-        return transferExecutorService.getTransactionsByStatus(status);
+    public void exportTransactions(TransactionStatus status, Consumer<TransactionResponse> consumer) {
+        log.info("Exportando transacciones (estado: {})", status);
+        transferExecutorService.exportTransactions(status, consumer);
     }
 }
@@ -0,0 +1,142 @@
+package com.plataformas.hilos.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.plataformas.hilos.exception.TransferRejectedException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Control de admisión de las transferencias asíncronas con límite adaptativo (AIMD).
+ * Cuenta las transferencias aceptadas y no terminadas (en cola + en ejecución) y rechaza
+ * las nuevas cuando se alcanza el límite. El límite crece de forma aditiva mientras la
+ * latencia observada (aceptación -> fin) cumple el objetivo y se reduce de forma
+ * multiplicativa, como mucho una vez por latencia media, cuando lo incumple.
+ */
+@Component
+@Slf4j
+public class TransferAdmissionLimiter {
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private volatile double smoothedLatencyNanos;
+    private long lastDecreaseNanos;
+    /** nanoTime tiene un origen arbitrario: hasta la primera reducción lastDecreaseNanos no vale nada */
+    private boolean decreased;
+
+    private final Counter rejections;
+    private final Timer latency;
+
+    public TransferAdmissionLimiter(MeterRegistry meterRegistry,
+                                    @Value("${hilos.admission.enabled:true}") boolean enabled,
+                                    @Value("${hilos.admission.initial-limit:100}") int initialLimit,
+                                    @Value("${hilos.admission.min-limit:10}") int minLimit,
+                                    @Value("${hilos.admission.max-limit:20000}") int maxLimit,
+                                    @Value("${hilos.admission.latency-target-ms:500}") long latencyTargetMs,
+                                    @Value("${hilos.admission.backoff-ratio:0.9}") double backoffRatio) {
+        this.enabled = enabled;
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.latencyTargetNanos = TimeUnit.MILLISECONDS.toNanos(latencyTargetMs);
+        this.backoffRatio = backoffRatio;
+
+        Gauge.builder("hilos.transfer.admission.inflight", inFlight, AtomicInteger::get)
+                .description("Transferencias aceptadas pendientes de terminar (cola + ejecución)")
+                .register(meterRegistry);
+        Gauge.builder("hilos.transfer.admission.limit", this, TransferAdmissionLimiter::getLimit)
+                .description("Límite de concurrencia adaptativo actual")
+                .register(meterRegistry);
+        this.rejections = Counter.builder("hilos.transfer.admission.rejections")
+                .description("Transferencias rechazadas por saturación")
+                .register(meterRegistry);
+        this.latency = Timer.builder("hilos.transfer.admission.latency")
+                .description("Latencia desde la aceptación hasta el fin de la transferencia")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reserva un hueco para una transferencia. Devuelve el instante de admisión (nanoTime),
+     * que debe pasarse a release(); lanza TransferRejectedException si no hay capacidad.
+     */
+    public long acquire() {
+        if (enabled) {
+            while (true) {
+                int current = inFlight.get();
+                if (current >= (int) limit) {
+                    rejections.increment();
+                    throw new TransferRejectedException(
+                            "Sistema saturado, reintente más tarde", getRetryAfterSeconds(current));
+                }
+                if (inFlight.compareAndSet(current, current + 1)) {
+                    break;
+                }
+            }
+        } else {
+            inFlight.incrementAndGet();
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Libera el hueco de una transferencia terminada (con éxito o no) y ajusta el límite
+     */
+    public void release(long admittedAtNanos) {
+        long now = System.nanoTime();
+        long elapsed = now - admittedAtNanos;
+        int inFlightAtRelease = inFlight.getAndDecrement();
+        latency.record(elapsed, TimeUnit.NANOSECONDS);
+        if (enabled) {
+            onSample(elapsed, inFlightAtRelease, now);
+        }
+    }
+
+    private synchronized void onSample(long elapsedNanos, int inFlightAtRelease, long now) {
+        double smoothed = smoothedLatencyNanos;
+        smoothedLatencyNanos = smoothed == 0 ? elapsedNanos : smoothed * 0.9 + elapsedNanos * 0.1;
+
+        double current = limit;
+        if (elapsedNanos > latencyTargetNanos) {
+            // Una sola reducción por "ventana" para no desplomar el límite con una ráfaga lenta
+            if (!decreased || now - lastDecreaseNanos > smoothedLatencyNanos) {
+                limit = Math.max(minLimit, current * backoffRatio);
+                lastDecreaseNanos = now;
+                decreased = true;
+                log.debug("Latencia {} ms sobre el objetivo, límite de admisión -> {}",
+                        TimeUnit.NANOSECONDS.toMillis(elapsedNanos), (int) limit);
+            }
+        } else if (inFlightAtRelease * 2 >= current) {
+            // Solo crece si el límite actual se está usando de verdad
+            limit = Math.min(maxLimit, current + 1.0 / current);
+        }
+    }
+
+    private long getRetryAfterSeconds(int queued) {
+        // Tiempo estimado para drenar lo que ya está aceptado al ritmo actual
+        double perSlotNanos = smoothedLatencyNanos / Math.max(1.0, limit);
+        long seconds = (long) Math.ceil(queued * perSlotNanos / 1e9);
+        return Math.max(1, Math.min(seconds, 60));
+    }
+
+    public double getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
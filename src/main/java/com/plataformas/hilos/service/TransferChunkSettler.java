@@ -0,0 +1,110 @@
+package com.plataformas.hilos.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.stereotype.Component;
+
+import com.plataformas.hilos.dto.TransferRequest;
+import com.plataformas.hilos.entity.Account;
+import com.plataformas.hilos.entity.Transaction;
+import com.plataformas.hilos.entity.TransactionStatus;
+import com.plataformas.hilos.repository.TransactionRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Liquida un bloque de transferencias dentro de la transacción actual: un único
+ * SELECT ... FOR UPDATE ordenado sobre todas las cuentas del bloque, las transferencias en
+ * el orden recibido (igual que si se ejecutaran una tras otra) y los INSERT de transactions
+ * agrupados en lotes JDBC. Cada transferencia tiene su propio resultado: un saldo
+ * insuficiente deja su fila en FAILED sin afectar al resto del bloque.
+ * Lo usan el lote de transferencias (BatchTransferService) y el group commit.
+ */
+@Component
+@RequiredArgsConstructor
+public class TransferChunkSettler {
+
+    /**
+     * Resultado de una transferencia del bloque. transaction es null si falta alguna cuenta
+     * (no se escribe fila); error es null si la transferencia se completó
+     */
+    public record SettledTransfer(Transaction transaction, String error) {
+
+        public boolean isCompleted() {
+            return error == null;
+        }
+    }
+
+    private final AccountLockManager accountLockManager;
+    private final TransactionRepository transactionRepository;
+    private final AccountCache accountCache;
+    private final TransferOutbox transferOutbox;
+
+    /**
+     * Los motores pesimista, lean, optimista y adaptativo guardan los saldos en las filas que aquí
+     * se bloquean (el bloque incrementa version, así una transferencia optimista en paralelo
+     * reintenta). Solo el ledger mantiene su propio estado y debe ejecutar las transferencias una a una
+     */
+    public boolean supports(TransferEngine engine) {
+        return !LedgerTransferEngine.ENGINE_NAME.equals(engine.name());
+    }
+
+    /**
+     * references puede ser null o contener nulls: la fila recibe entonces una referencia nueva
+     */
+    public List<SettledTransfer> settle(List<TransferRequest> chunk, List<UUID> references) {
+        Set<Long> accountIds = new HashSet<>();
+        for (TransferRequest request : chunk) {
+            accountIds.add(request.getFromAccountId());
+            accountIds.add(request.getToAccountId());
+        }
+        Map<Long, Account> lockedAccounts = accountLockManager.lockAll(accountIds);
+        accountCache.evictAfterCommit(accountIds);
+
+        List<SettledTransfer> results = new ArrayList<>(chunk.size());
+        List<Transaction> rows = new ArrayList<>(chunk.size());
+
+        for (int i = 0; i < chunk.size(); i++) {
+            TransferRequest request = chunk.get(i);
+            Account fromAccount = lockedAccounts.get(request.getFromAccountId());
+            Account toAccount = lockedAccounts.get(request.getToAccountId());
+
+            if (fromAccount == null) {
+                results.add(new SettledTransfer(null, "Cuenta origen no encontrada: " + request.getFromAccountId()));
+                continue;
+            }
+            if (toAccount == null) {
+                results.add(new SettledTransfer(null, "Cuenta destino no encontrada: " + request.getToAccountId()));
+                continue;
+            }
+
+            Transaction transaction = new Transaction();
+            transaction.setReference(references != null ? references.get(i) : null);
+            transaction.setFromAccount(fromAccount);
+            transaction.setToAccount(toAccount);
+            transaction.setAmount(request.getAmount());
+
+            if (fromAccount.getBalance().isLessThan(request.getAmount())) {
+                transaction.setStatus(TransactionStatus.FAILED);
+                results.add(new SettledTransfer(transaction, "Saldo insuficiente en la cuenta origen"));
+            } else {
+                // Las cuentas están gestionadas: el UPDATE sale en el flush del commit
+                fromAccount.setBalance(fromAccount.getBalance().minus(request.getAmount()));
+                toAccount.setBalance(toAccount.getBalance().plus(request.getAmount()));
+                transaction.setStatus(TransactionStatus.COMPLETED);
+                results.add(new SettledTransfer(transaction, null));
+            }
+            rows.add(transaction);
+        }
+
+        // Con IDs de secuencia pooled los INSERT se difieren al flush y se envían en lotes JDBC
+        transactionRepository.saveAll(rows);
+        transferOutbox.appendCompleted(rows);
+        return results;
+    }
+}
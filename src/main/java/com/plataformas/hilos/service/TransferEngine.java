@@ -0,0 +1,25 @@
+package com.plataformas.hilos.service;
+
+import java.util.UUID;
+
+import com.plataformas.hilos.dto.TransactionResponse;
+import com.plataformas.hilos.dto.TransferRequest;
+
+/**
+ * Estrategia de ejecución de una transferencia. El motor activo se elige por despliegue
+ * con la propiedad hilos.transfer.engine (ver TransferEngineRegistry).
+ */
+public interface TransferEngine {
+
+    /**
+     * Nombre con el que se selecciona el motor en la configuración
+     */
+    String name();
+
+    /**
+     * Ejecuta la transferencia de forma síncrona. La fila de transactions se registra con la
+     * referencia indicada. Lanza InsufficientFundsException si la cuenta origen no tiene
+     * saldo suficiente.
+     */
+    TransactionResponse executeTransfer(TransferRequest request, UUID reference);
+}
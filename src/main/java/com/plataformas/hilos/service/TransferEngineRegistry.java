@@ -0,0 +1,47 @@
+package com.plataformas.hilos.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registro de los motores de transferencia disponibles y del motor activo
+ * (hilos.transfer.engine, por defecto "pessimistic").
+ */
+@Component
+@Slf4j
+public class TransferEngineRegistry {
+
+    private final Map<String, TransferEngine> enginesByName = new HashMap<>();
+    private final TransferEngine activeEngine;
+
+    public TransferEngineRegistry(List<TransferEngine> engines,
+                                  @Value("${hilos.transfer.engine:pessimistic}") String activeEngineName) {
+        for (TransferEngine engine : engines) {
+            enginesByName.put(engine.name(), engine);
+        }
+        this.activeEngine = enginesByName.get(activeEngineName);
+        if (activeEngine == null) {
+            throw new IllegalStateException("Motor de transferencias desconocido: " + activeEngineName
+                    + " (disponibles: " + enginesByName.keySet() + ")");
+        }
+        log.info("Motor de transferencias activo: {}", activeEngineName);
+    }
+
+    public TransferEngine getActiveEngine() {
+        return activeEngine;
+    }
+
+    public TransferEngine getEngine(String name) {
+        TransferEngine engine = enginesByName.get(name);
+        if (engine == null) {
+            throw new IllegalArgumentException("Motor de transferencias no disponible: " + name);
+        }
+        return engine;
+    }
+}
@@ -0,0 +1,16 @@
+package com.plataformas.hilos.service;
+
+import java.util.List;
+
+import com.plataformas.hilos.dto.TransferEvent;
+
+/**
+ * Destino de los eventos publicados por OutboxRelay. Recibe cada lote ya confirmado,
+ * en orden de offset; un fallo de un destino no afecta a los demás.
+ */
+public interface TransferEventSink {
+
+    String name();
+
+    void publish(List<TransferEvent> events);
+}
@@ -1,11 +1,20 @@
 package com.plataformas.hilos.service;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.plataformas.hilos.dto.CursorPage;
 import com.plataformas.hilos.dto.TransactionResponse;
 import com.plataformas.hilos.dto.TransferRequest;
 import com.plataformas.hilos.entity.Account;
@@ -15,48 +24,78 @@ import com.plataformas.hilos.exception.InsufficientFundsException;
 import com.plataformas.hilos.repository.AccountRepository;
 import com.plataformas.hilos.repository.TransactionRepository;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class TransferExecutorService {
+public class TransferExecutorService implements TransferEngine {
+
+    public static final String ENGINE_NAME = "pessimistic";
+
 
     private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
+    private final AccountLockManager accountLockManager;
+    private final EntityManager entityManager;
+    private final AccountCache accountCache;
+    private final TransferOutbox transferOutbox;
+
+    @Override
+    public String name() {
+        return ENGINE_NAME;
+    }
 
+    @Override
     @Transactional(noRollbackFor = InsufficientFundsException.class)
-    public TransactionResponse executeTransfer(TransferRequest request) {
-        log.info("Ejecutando transferencia: {} -> {} (${})",
-                request.getFromAccountId(), request.getToAccountId(), request.getAmount());
+    public TransactionResponse executeTransfer(TransferRequest request, UUID reference) {
+        if (log.isDebugEnabled()) {
+            log.debug("Ejecutando transferencia: {} -> {} (${})",
+                    request.getFromAccountId(), request.getToAccountId(), request.getAmount());
+        }
 
-        Transaction transaction = createPendingTransaction(request);
+        Transaction transaction = createPendingTransaction(request, reference);
+        accountCache.evictAfterCommit(request.getFromAccountId(), request.getToAccountId());
 
         try {
-            Account fromAccount = accountRepository.findByIdWithLock(request.getFromAccountId())
-                    .orElseThrow(() -> new RuntimeException("Cuenta origen no encontrada: " + request.getFromAccountId()));
+            // Ambas filas se bloquean en una sola consulta y en orden de ID para evitar deadlocks
+            Map<Long, Account> lockedAccounts = accountLockManager.lockPair(
+                    request.getFromAccountId(), request.getToAccountId());
 
-            Account toAccount = accountRepository.findByIdWithLock(request.getToAccountId())
-                    .orElseThrow(() -> new RuntimeException("Cuenta destino no encontrada: " + request.getToAccountId()));
+            Account fromAccount = lockedAccounts.get(request.getFromAccountId());
+            if (fromAccount == null) {
+                throw new RuntimeException("Cuenta origen no encontrada: " + request.getFromAccountId());
+            }
+
+            Account toAccount = lockedAccounts.get(request.getToAccountId());
+            if (toAccount == null) {
+                throw new RuntimeException("Cuenta destino no encontrada: " + request.getToAccountId());
+            }
 
-            if (fromAccount.getBalance().compareTo(request.getAmount()) < 0) {
+            if (fromAccount.getBalance().isLessThan(request.getAmount())) {
                 transaction.setStatus(TransactionStatus.FAILED);
                 transactionRepository.save(transaction);
                 throw new InsufficientFundsException("Saldo insuficiente en la cuenta origen");
             }
 
-            fromAccount.setBalance(fromAccount.getBalance().subtract(request.getAmount()));
-            toAccount.setBalance(toAccount.getBalance().add(request.getAmount()));
+            fromAccount.setBalance(fromAccount.getBalance().minus(request.getAmount()));
+            toAccount.setBalance(toAccount.getBalance().plus(request.getAmount()));
 
             accountRepository.save(fromAccount);
             accountRepository.save(toAccount);
 
             transaction.setStatus(TransactionStatus.COMPLETED);
             transactionRepository.save(transaction);
+            transferOutbox.append(transaction);
 
-            log.info("Transferencia completada exitosamente. Transacción ID: {}", transaction.getId());
+            log.debug("Transferencia completada exitosamente. Transacción ID: {}", transaction.getId());
 
+        } catch (InsufficientFundsException e) {
+            // Resultado de negocio esperado: la fila FAILED ya está guardada
+            log.debug("Transferencia rechazada por saldo insuficiente. Transacción ID: {}", transaction.getId());
+            throw e;
         } catch (Exception e) {
             log.error("Error en transferencia: {}", e.getMessage());
             transaction.setStatus(TransactionStatus.FAILED);
@@ -67,8 +106,9 @@ public class TransferExecutorService {
         return mapToResponse(transaction);
     }
 
-    private Transaction createPendingTransaction(TransferRequest request) {
+    private Transaction createPendingTransaction(TransferRequest request, UUID reference) {
         Transaction transaction = new Transaction();
+        transaction.setReference(reference);
         transaction.setFromAccount(accountRepository.getReferenceById(request.getFromAccountId()));
         transaction.setToAccount(accountRepository.getReferenceById(request.getToAccountId()));
         transaction.setAmount(request.getAmount());
@@ -78,20 +118,69 @@ public class TransferExecutorService {
     }
 
     @Transactional(readOnly = true)
-    public List<TransactionResponse> getAllTransactions() {
-        List<Transaction> transactions = transactionRepository.findAllOrderByCreatedAtDesc();
-        return transactions.stream().map(this::mapToResponse).collect(Collectors.toList());
+    public Optional<TransactionResponse> findTransaction(Long id) {
+        return transactionRepository.findById(id).map(TransferExecutorService::mapToResponse);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<TransactionResponse> findTransaction(UUID reference) {
+        return transactionRepository.findByReference(reference).map(TransferExecutorService::mapToResponse);
+    }
+
+    /**
+     * Página del historial por keyset sobre (createdAt, id). status y cursor son opcionales
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<TransactionResponse> getTransactionsPage(TransactionStatus status, String cursor, int limit) {
+        // Se pide una fila de más para saber si existe página siguiente sin hacer un COUNT
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        TransactionCursor position = cursor != null ? TransactionCursor.decode(cursor) : null;
+
+        List<Transaction> transactions;
+        if (status == null) {
+            transactions = position == null
+                    ? transactionRepository.findPage(pageable)
+                    : transactionRepository.findPageBefore(position.createdAt(), position.id(), pageable);
+        } else {
+            transactions = position == null
+                    ? transactionRepository.findPageByStatus(status, pageable)
+                    : transactionRepository.findPageByStatusBefore(status, position.createdAt(), position.id(), pageable);
+        }
+        return toPage(transactions, limit);
     }
 
+    /**
+     * Recorre el historial completo con memoria constante: cada fila se entrega al consumidor
+     * y se desvincula del contexto de persistencia.
+     */
     @Transactional(readOnly = true)
-    public List<TransactionResponse> getTransactionsByStatus(TransactionStatus status) {
-        List<Transaction> transactions = transactionRepository.findByStatus(status);
-        return transactions.stream().map(this::mapToResponse).collect(Collectors.toList());
+    public void exportTransactions(TransactionStatus status, Consumer<TransactionResponse> consumer) {
+        try (Stream<Transaction> transactions = status == null
+                ? transactionRepository.streamAll()
+                : transactionRepository.streamByStatus(status)) {
+            transactions.forEach(transaction -> {
+                consumer.accept(mapToResponse(transaction));
+                entityManager.detach(transaction);
+            });
+        }
+    }
+
+    static CursorPage<TransactionResponse> toPage(List<Transaction> transactions, int limit) {
+        boolean hasMore = transactions.size() > limit;
+        List<Transaction> items = hasMore ? transactions.subList(0, limit) : transactions;
+        String nextCursor = null;
+        if (hasMore) {
+            Transaction last = items.get(items.size() - 1);
+            nextCursor = new TransactionCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(items.stream().map(TransferExecutorService::mapToResponse).collect(Collectors.toList()),
+                nextCursor);
     }
 
-    private TransactionResponse mapToResponse(Transaction transaction) {
+    public static TransactionResponse mapToResponse(Transaction transaction) {
         return new TransactionResponse(
                 transaction.getId(),
+                transaction.getReference(),
                 transaction.getFromAccount().getId(),
                 transaction.getToAccount().getId(),
                 transaction.getAmount(),
@@ -0,0 +1,123 @@
+package com.plataformas.hilos.service;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Métricas del camino de transferencia. Todos los medidores se registran una sola vez al
+ * arrancar y se guardan en campos: registrar una muestra es una llamada a Timer.record con
+ * nanos ya calculados, sin búsquedas por nombre/tags ni objetos nuevos por transferencia.
+ * Las métricas del pool de conexiones (hikaricp.connections.*) las publica Spring Boot.
+ */
+@Component
+public class TransferMetrics {
+
+    public enum Outcome {
+        COMPLETED,
+        INSUFFICIENT_FUNDS,
+        ERROR
+    }
+
+    private static final String EXECUTOR_NAME = "transferExecutor";
+
+    private final MeterRegistry meterRegistry;
+    private final Timer lockWait;
+    private final Map<Outcome, Timer> transferLatency = new EnumMap<>(Outcome.class);
+    private final Counter executorRejections;
+
+    public TransferMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.lockWait = Timer.builder("hilos.transfer.lock.wait")
+                .description("Espera para obtener los bloqueos de fila de las cuentas (SELECT ... FOR UPDATE)")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(100_000))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry);
+        for (Outcome outcome : Outcome.values()) {
+            transferLatency.put(outcome, Timer.builder("hilos.transfer.latency")
+                    .description("Duración total de la transferencia, reintentos incluidos")
+                    .tag("outcome", outcome.name().toLowerCase())
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(100_000))
+                    .maximumExpectedValue(Duration.ofSeconds(30))
+                    .register(meterRegistry));
+        }
+        this.executorRejections = Counter.builder("hilos.executor.rejections")
+                .description("Tareas que no cupieron en la cola del executor y se ejecutaron en el hilo llamador")
+                .tag("name", EXECUTOR_NAME)
+                .register(meterRegistry);
+    }
+
+    public void recordLockWait(long startNanos) {
+        lockWait.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordTransfer(Outcome outcome, long startNanos) {
+        transferLatency.get(outcome).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Cola y hilos activos del executor en modo platform
+     */
+    public void bindExecutor(ThreadPoolTaskExecutor executor) {
+        Gauge.builder("hilos.executor.queued", executor, ThreadPoolTaskExecutor::getQueueSize)
+                .description("Tareas esperando en la cola del executor")
+                .tag("name", EXECUTOR_NAME)
+                .register(meterRegistry);
+        Gauge.builder("hilos.executor.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Hilos del executor ejecutando una tarea")
+                .tag("name", EXECUTOR_NAME)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Modo virtual: no hay cola, las tareas esperan permiso en el semáforo
+     */
+    public void bindExecutor(Semaphore permits, int maxConcurrency) {
+        Gauge.builder("hilos.executor.queued", permits, Semaphore::getQueueLength)
+                .description("Tareas esperando en la cola del executor")
+                .tag("name", EXECUTOR_NAME)
+                .register(meterRegistry);
+        Gauge.builder("hilos.executor.active", permits, semaphore -> maxConcurrency - semaphore.availablePermits())
+                .description("Hilos del executor ejecutando una tarea")
+                .tag("name", EXECUTOR_NAME)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Cola y ocupación de una partición del despacho particionado (un hilo por partición)
+     */
+    public void bindPartition(ThreadPoolExecutor partition, int index) {
+        Gauge.builder("hilos.transfer.partition.queued", partition, executor -> executor.getQueue().size())
+                .description("Transferencias en cola por partición")
+                .tag("partition", String.valueOf(index))
+                .register(meterRegistry);
+        Gauge.builder("hilos.transfer.partition.active", partition, ThreadPoolExecutor::getActiveCount)
+                .description("Transferencias en ejecución por partición (0 o 1)")
+                .tag("partition", String.valueOf(index))
+                .register(meterRegistry);
+    }
+
+    /**
+     * Envuelve la política de rechazo para contar cada rechazo antes de aplicarla
+     */
+    public RejectedExecutionHandler countingRejections(RejectedExecutionHandler delegate) {
+        return (task, executor) -> {
+            executorRejections.increment();
+            delegate.rejectedExecution(task, executor);
+        };
+    }
+}
@@ -0,0 +1,73 @@
+package com.plataformas.hilos.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.plataformas.hilos.dto.TransferEvent;
+import com.plataformas.hilos.entity.Transaction;
+import com.plataformas.hilos.entity.TransactionStatus;
+import com.plataformas.hilos.entity.TransferOutboxEvent;
+import com.plataformas.hilos.repository.TransferOutboxRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Escritura en transfer_outbox. Se llama dentro de la transacción que completa la
+ * transferencia: el evento existe si y solo si la transferencia se confirmó.
+ */
+@Component
+@RequiredArgsConstructor
+public class TransferOutbox {
+
+    private final TransferOutboxRepository transferOutboxRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(Transaction transaction) {
+        transferOutboxRepository.save(toEvent(transaction));
+    }
+
+    /**
+     * Registra las transferencias COMPLETED del lote (los INSERT se agrupan en lotes JDBC)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendCompleted(Collection<Transaction> transactions) {
+        List<TransferOutboxEvent> events = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            if (transaction.getStatus() == TransactionStatus.COMPLETED) {
+                events.add(toEvent(transaction));
+            }
+        }
+        transferOutboxRepository.saveAll(events);
+    }
+
+    @Transactional(readOnly = true)
+    public List<TransferEvent> findPublishedAfter(long since, int limit) {
+        return transferOutboxRepository.findPublishedAfter(since, PageRequest.of(0, limit)).stream()
+                .map(TransferOutbox::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    static TransferEvent toResponse(TransferOutboxEvent event) {
+        return new TransferEvent(event.getPublishedOffset(), event.getReference(), event.getTransactionId(),
+                event.getFromAccountId(), event.getToAccountId(), event.getAmount(),
+                event.getCreatedAt(), event.getPublishedAt());
+    }
+
+    private static TransferOutboxEvent toEvent(Transaction transaction) {
+        TransferOutboxEvent event = new TransferOutboxEvent();
+        event.setReference(transaction.getReference());
+        event.setTransactionId(transaction.getId());
+        event.setFromAccountId(transaction.getFromAccount().getId());
+        event.setToAccountId(transaction.getToAccount().getId());
+        event.setAmount(transaction.getAmount());
+        event.setCreatedAt(transaction.getCreatedAt());
+        return event;
+    }
+}
@@ -0,0 +1,147 @@
+package com.plataformas.hilos.service;
+
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Política de reintentos acotada para transferencias que fallan por deadlock,
+ * fallo de serialización, espera de bloqueo o conflicto de versión (bloqueo optimista).
+ * Cada intento debe abrir su propia transacción, por lo que este componente se usa
+ * siempre por fuera de @Transactional.
+ */
+@Component
+@Slf4j
+public class TransferRetryTemplate {
+
+    /** SQLState de PostgreSQL para deadlock detectado */
+    private static final String SQLSTATE_DEADLOCK = "40P01";
+    /** SQLState estándar para fallo de serialización (H2 lo usa también para deadlocks) */
+    private static final String SQLSTATE_SERIALIZATION = "40001";
+
+    public enum RetryCause {
+        DEADLOCK,
+        SERIALIZATION,
+        LOCK,
+        /** Otra transacción cambió la versión de la cuenta (motores optimistic y adaptive) */
+        OPTIMISTIC
+    }
+
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final Map<RetryCause, Counter> failuresByCause = new EnumMap<>(RetryCause.class);
+    private final Counter retries;
+    private final Counter exhausted;
+
+    public TransferRetryTemplate(MeterRegistry meterRegistry,
+                                 @Value("${hilos.transfer.retry.max-attempts:3}") int maxAttempts,
+                                 @Value("${hilos.transfer.retry.initial-backoff-ms:10}") long initialBackoffMs,
+                                 @Value("${hilos.transfer.retry.max-backoff-ms:200}") long maxBackoffMs) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        for (RetryCause cause : RetryCause.values()) {
+            failuresByCause.put(cause, Counter.builder("hilos.transfer.concurrency.failures")
+                    .description("Fallos de concurrencia detectados al ejecutar transferencias")
+                    .tag("cause", cause.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        this.retries = Counter.builder("hilos.transfer.retries")
+                .description("Transferencias reintentadas tras un fallo de concurrencia")
+                .register(meterRegistry);
+        this.exhausted = Counter.builder("hilos.transfer.retries.exhausted")
+                .description("Transferencias que agotaron los reintentos")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ejecuta la acción reintentando solo los errores de concurrencia transitorios.
+     * Cualquier otro error (p.ej. saldo insuficiente) se propaga en el primer intento.
+     */
+    public <T> T execute(Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (RuntimeException e) {
+                RetryCause cause = classify(e);
+                if (cause == null) {
+                    throw e;
+                }
+                failuresByCause.get(cause).increment();
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    log.warn("Transferencia abortada tras {} intentos ({}): {}", attempt, cause, e.getMessage());
+                    throw e;
+                }
+                retries.increment();
+                log.warn("Reintentando transferencia (intento {} de {}) por {}", attempt + 1, maxAttempts, cause);
+                backoff(attempt);
+            }
+        }
+    }
+
+    public long getFailureCount(RetryCause cause) {
+        return (long) failuresByCause.get(cause).count();
+    }
+
+    public long getRetryCount() {
+        return (long) retries.count();
+    }
+
+    /**
+     * Determina si el error es un fallo de concurrencia reintentable.
+     * Devuelve null si no lo es.
+     */
+    static RetryCause classify(Throwable error) {
+        boolean concurrencyFailure = false;
+        for (Throwable current = error; current != null; current = current.getCause()) {
+            if (current instanceof OptimisticLockingFailureException || current instanceof OptimisticLockException) {
+                return RetryCause.OPTIMISTIC;
+            }
+            if (current instanceof ConcurrencyFailureException) {
+                concurrencyFailure = true;
+            }
+            if (current instanceof SQLException sqlException) {
+                String sqlState = sqlException.getSQLState();
+                if (SQLSTATE_DEADLOCK.equals(sqlState)) {
+                    return RetryCause.DEADLOCK;
+                }
+                if (SQLSTATE_SERIALIZATION.equals(sqlState)) {
+                    return RetryCause.SERIALIZATION;
+                }
+            }
+            if (current.getCause() == current) {
+                break;
+            }
+        }
+        return concurrencyFailure ? RetryCause.LOCK : null;
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) {
+            return;
+        }
+        // Jitter completo para que los perdedores de un mismo conflicto no vuelvan a chocar
+        long sleepMs = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        try {
+            Thread.sleep(sleepMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reintento de transferencia interrumpido", e);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.plataformas.hilos.service;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.stereotype.Service;
+
+import com.plataformas.hilos.dto.TransactionResponse;
+import com.plataformas.hilos.dto.TransferRequest;
+import com.plataformas.hilos.entity.TransactionStatus;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Punto de entrada de las transferencias asíncronas: asigna la referencia, encola la
+ * transferencia y la registra en el TransferTracker para poder consultarla.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransferSubmissionService {
+
+    private final TransactionService transactionService;
+    private final TransferTracker transferTracker;
+    private final TransferAdmissionLimiter admissionLimiter;
+    private final PartitionedTransferDispatcher partitionedDispatcher;
+    private final GroupCommitTransferProcessor groupCommitProcessor;
+    private final IdempotencyService idempotencyService;
+
+    /**
+     * Acepta la transferencia y devuelve de inmediato su referencia en estado PENDING.
+     * Lanza TransferRejectedException si el control de admisión la rechaza por saturación
+     */
+    public TransactionResponse submit(TransferRequest request) {
+        return dispatch(request, UUID.randomUUID());
+    }
+
+    /**
+     * Igual que submit(request), pero un reintento con la misma Idempotency-Key devuelve la
+     * transferencia original (solo lecturas, sin bloquear cuentas) en lugar de ejecutarla otra vez.
+     * Si la original no llegó a encolarse (la reserva no está marcada) y no dejó rastro pasado el
+     * periodo de gracia, el reintento se queda la clave y la ejecuta
+     */
+    public TransactionResponse submit(TransferRequest request, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return submit(request);
+        }
+
+        UUID reference = UUID.randomUUID();
+        Optional<UUID> original = idempotencyService.claim(idempotencyKey, request, reference);
+        if (original.isPresent()) {
+            Optional<TransactionResponse> existing = transactionService.getTransaction(original.get());
+            if (existing.isPresent()) {
+                return existing.get();
+            }
+            UUID current = idempotencyService.takeOver(idempotencyKey, original.get(), reference);
+            if (!current.equals(reference)) {
+                return transactionService.getTransaction(current).orElseGet(() -> pendingResponse(current, request));
+            }
+        }
+
+        // Antes de encolar: si el nodo cae a partir de aquí la reserva queda PENDING hasta caducar,
+        // nunca se reasigna a un reintento que pudiera ejecutarla dos veces
+        UUID owner = idempotencyService.markDispatched(idempotencyKey, reference);
+        if (!owner.equals(reference)) {
+            return transactionService.getTransaction(owner).orElseGet(() -> pendingResponse(owner, request));
+        }
+
+        try {
+            return dispatch(request, reference);
+        } catch (RuntimeException e) {
+            // No llegó a encolarse: el reintento del cliente debe poder ejecutarla
+            idempotencyService.release(idempotencyKey);
+            throw e;
+        }
+    }
+
+    private TransactionResponse dispatch(TransferRequest request, UUID reference) {
+        long admittedAt = admissionLimiter.acquire();
+        // Se sigue antes de encolarla: el motor ledger puede persistirla (release) antes de que vuelva dispatch
+        CompletableFuture<TransactionResponse> tracking = new CompletableFuture<>();
+        transferTracker.track(reference, request, tracking);
+        CompletableFuture<TransactionResponse> future;
+        try {
+            if (partitionedDispatcher.isEnabled()) {
+                future = partitionedDispatcher.dispatch(request, reference);
+            } else if (groupCommitProcessor.isEnabled()) {
+                future = groupCommitProcessor.dispatch(request, reference);
+            } else {
+                future = transactionService.processTransfer(request, reference);
+            }
+        } catch (RuntimeException e) {
+            admissionLimiter.release(admittedAt);
+            transferTracker.release(reference);
+            throw e;
+        }
+        future.whenComplete((response, error) -> {
+            admissionLimiter.release(admittedAt);
+            if (error == null) {
+                tracking.complete(response);
+            } else {
+                tracking.completeExceptionally(error);
+            }
+        });
+        return pendingResponse(reference, request);
+    }
+
+    static TransactionResponse pendingResponse(UUID reference, TransferRequest request) {
+        return new TransactionResponse(null, reference, request.getFromAccountId(), request.getToAccountId(),
+                request.getAmount(), TransactionStatus.PENDING, null, null);
+    }
+}
@@ -0,0 +1,63 @@
+package com.plataformas.hilos.service;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.plataformas.hilos.dto.TransactionResponse;
+import com.plataformas.hilos.dto.TransferRequest;
+
+/**
+ * Seguimiento en memoria de las transferencias asíncronas aceptadas por este nodo.
+ * Una transferencia se sigue desde que se acepta hasta que termina; las que terminan bien
+ * se dejan de seguir de inmediato (su fila ya está en la base de datos) y las fallidas se
+ * conservan un tiempo, porque un error inesperado revierte también su fila PENDING.
+ * Con el motor ledger la fila se escribe después (respuesta sin ID): la transferencia se sigue
+ * hasta que LedgerWriteBehindWorker confirma su lote y llama a release.
+ */
+@Component
+public class TransferTracker {
+
+    public record TrackedTransfer(UUID reference, TransferRequest request,
+                                  CompletableFuture<TransactionResponse> future) {
+    }
+
+    private final ConcurrentHashMap<UUID, TrackedTransfer> tracked = new ConcurrentHashMap<>();
+    private final Executor failedEviction;
+
+    public TransferTracker(@Value("${hilos.transfer.tracking.failed-retention-ms:60000}") long failedRetentionMs) {
+        this.failedEviction = CompletableFuture.delayedExecutor(failedRetentionMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void track(UUID reference, TransferRequest request, CompletableFuture<TransactionResponse> future) {
+        tracked.put(reference, new TrackedTransfer(reference, request, future));
+        future.whenComplete((response, error) -> {
+            if (error != null) {
+                failedEviction.execute(() -> tracked.remove(reference));
+            } else if (response.getId() != null) {
+                tracked.remove(reference);
+            }
+        });
+    }
+
+    /**
+     * Deja de seguir la transferencia: su fila ya está escrita o no llegó a encolarse
+     */
+    public void release(UUID reference) {
+        tracked.remove(reference);
+    }
+
+    public Optional<TrackedTransfer> find(UUID reference) {
+        return Optional.ofNullable(tracked.get(reference));
+    }
+
+    public int getTrackedCount() {
+        return tracked.size();
+    }
+}
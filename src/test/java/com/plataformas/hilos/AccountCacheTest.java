@@ -0,0 +1,75 @@
+package com.plataformas.hilos;
+
+import com.plataformas.hilos.dto.AccountResponse;
+import com.plataformas.hilos.dto.TransferRequest;
+import com.plataformas.hilos.entity.Money;
+import com.plataformas.hilos.repository.AccountRepository;
+import com.plataformas.hilos.service.AccountService;
+import com.plataformas.hilos.service.LeanTransferEngine;
+import com.plataformas.hilos.service.TransactionService;
+import com.plataformas.hilos.service.TransferEngineRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static com.plataformas.hilos.TestAccounts.newAccount;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class AccountCacheTest {
+    
+    @Autowired
+    private AccountRepository accountRepository;
+    
+    @Autowired
+    private AccountService accountService;
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    @Autowired
+    private TransferEngineRegistry transferEngineRegistry;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Test
+    public void testCachedBalanceIsNotServedAfterTransferCommits() {
+        Long fromAccountId = accountRepository.save(newAccount("Cache From", "500.00")).getId();
+        Long toAccountId = accountRepository.save(newAccount("Cache To", "0.00")).getId();
+        
+        double hitsBefore = cacheGets("hit");
+        accountService.getAccount(fromAccountId);
+        accountService.getAccount(toAccountId);
+        assertEquals(0, Money.valueOf("500.00").compareTo(accountService.getAccount(fromAccountId).getBalance()));
+        assertTrue(cacheGets("hit") > hitsBefore, "La segunda lectura debe salir de la caché");
+        
+        // Motor pesimista (activo en el perfil de test)
+        transactionService.executeTransfer(new TransferRequest(fromAccountId, toAccountId, Money.valueOf("100.00")));
+        assertBalances(fromAccountId, "400.00", toAccountId, "100.00");
+        
+        // Motor lean: UPDATE directos, sin pasar por las entidades
+        transferEngineRegistry.getEngine(LeanTransferEngine.ENGINE_NAME).executeTransfer(
+                new TransferRequest(fromAccountId, toAccountId, Money.valueOf("50.00")), UUID.randomUUID());
+        assertBalances(fromAccountId, "350.00", toAccountId, "150.00");
+    }
+    
+    private void assertBalances(Long fromAccountId, String fromBalance, Long toAccountId, String toBalance) {
+        AccountResponse from = accountService.getAccount(fromAccountId);
+        AccountResponse to = accountService.getAccount(toAccountId);
+        assertEquals(0, Money.valueOf(fromBalance).compareTo(from.getBalance()),
+                "Saldo origen obsoleto: " + from.getBalance());
+        assertEquals(0, Money.valueOf(toBalance).compareTo(to.getBalance()),
+                "Saldo destino obsoleto: " + to.getBalance());
+    }
+    
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "accounts").tag("result", result)
+                .functionCounter().count();
+    }
+    }
@@ -0,0 +1,119 @@
+package com.plataformas.hilos;
+
+import com.plataformas.hilos.dto.CursorPage;
+import com.plataformas.hilos.dto.TransactionResponse;
+import com.plataformas.hilos.entity.Money;
+import com.plataformas.hilos.repository.AccountRepository;
+import com.plataformas.hilos.service.AccountService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Historial por cuenta sobre una tabla transactions sembrada (10M filas por defecto,
+ * ajustable con -Dhilos.bench.history-rows). Compara la consulta OR original con la
+ * forma UNION ALL indexada, en primera página y en páginas profundas.
+ * Se ejecuta con ./gradlew benchmark.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.com.plataformas.hilos=WARN"
+})
+@ActiveProfiles("test")
+public class AccountHistoryBenchmarkTest {
+    
+    private static final long ROWS = Long.getLong("hilos.bench.history-rows", 10_000_000L);
+    private static final int ACCOUNTS = Integer.getInteger("hilos.bench.accounts", 1000);
+    private static final int QUERIES = Integer.getInteger("hilos.bench.queries", 200);
+    private static final int PAGE_SIZE = 50;
+    /** IDs sembrados lejos del rango de la secuencia */
+    private static final long ID_OFFSET = 1_000_000_000L;
+    
+    @Autowired
+    private AccountRepository accountRepository;
+    
+    @Autowired
+    private AccountService accountService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    public void benchmarkAccountHistory() {
+        List<Long> accountIds = BenchmarkSupport.createAccounts(accountRepository, "History", ACCOUNTS,
+                Money.valueOf("1000.00"));
+        seedTransactions(accountIds);
+        
+        long[] orLatencies = new long[QUERIES];
+        long[] firstPageLatencies = new long[QUERIES];
+        long[] deepPageLatencies = new long[QUERIES];
+        
+        for (int i = 0; i < QUERIES; i++) {
+            Long accountId = accountIds.get(ThreadLocalRandom.current().nextInt(accountIds.size()));
+            
+            long begin = System.nanoTime();
+            jdbcTemplate.queryForList("SELECT * FROM transactions t WHERE t.from_account_id = ? OR t.to_account_id = ? " +
+                    "ORDER BY t.created_at DESC, t.id DESC LIMIT " + PAGE_SIZE, accountId, accountId);
+            orLatencies[i] = System.nanoTime() - begin;
+            
+            begin = System.nanoTime();
+            CursorPage<TransactionResponse> page = accountService.getAccountTransactions(accountId, null, null, null, PAGE_SIZE);
+            firstPageLatencies[i] = System.nanoTime() - begin;
+            
+            // Diez páginas más adentro siguiendo el cursor
+            for (int p = 0; p < 10 && page.getNextCursor() != null; p++) {
+                begin = System.nanoTime();
+                page = accountService.getAccountTransactions(accountId, null, null, page.getNextCursor(), PAGE_SIZE);
+                deepPageLatencies[i] = System.nanoTime() - begin;
+            }
+        }
+        
+        String details = String.format("filas=%d consultas=%d", ROWS, QUERIES);
+        BenchmarkSupport.report("OR + ORDER BY", details, BenchmarkSupport.Result.of(orLatencies, 0));
+        BenchmarkSupport.report("UNION ALL, primera página", details, BenchmarkSupport.Result.of(firstPageLatencies, 0));
+        BenchmarkSupport.report("UNION ALL, página 11", details, BenchmarkSupport.Result.of(deepPageLatencies, 0));
+    }
+    
+    private void seedTransactions(List<Long> accountIds) {
+        String sql = "INSERT INTO transactions (id, reference, from_account_id, to_account_id, amount, status, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        LocalDateTime start = LocalDateTime.now().minusDays(365);
+        int batchSize = 10_000;
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        long seedStart = System.nanoTime();
+        
+        for (long i = 0; i < ROWS; i++) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            Timestamp createdAt = Timestamp.valueOf(start.plusSeconds(i * 3));
+            batch.add(new Object[] {
+                    ID_OFFSET + i,
+                    UUID.randomUUID(),
+                    accountIds.get(random.nextInt(accountIds.size())),
+                    accountIds.get(random.nextInt(accountIds.size())),
+                    Money.valueOf("1.00"),
+                    "COMPLETED",
+                    createdAt,
+                    createdAt
+            });
+            if (batch.size() == batchSize) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+        System.out.printf("Sembradas %d filas en %.1f s%n", ROWS, (System.nanoTime() - seedStart) / 1e9);
+    }
+}
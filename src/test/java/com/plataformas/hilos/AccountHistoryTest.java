@@ -0,0 +1,121 @@
+package com.plataformas.hilos;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.plataformas.hilos.entity.Account;
+import com.plataformas.hilos.entity.Money;
+import com.plataformas.hilos.entity.Transaction;
+import com.plataformas.hilos.entity.TransactionStatus;
+import com.plataformas.hilos.repository.AccountRepository;
+import com.plataformas.hilos.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.plataformas.hilos.TestAccounts.newAccount;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Historial por cuenta (GET /accounts/{id}/transactions) sobre filas con fechas fijadas.
+ * Las filas son FAILED para no alterar saldos ni conciliaciones del contexto compartido
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class AccountHistoryTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2020, 3, 1, 10, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    public void testHistoryIncludesBothDirectionsAndSelfTransfersOnce() throws Exception {
+        Account owner = accountRepository.save(newAccount("History Owner", "0.00"));
+        Account other = accountRepository.save(newAccount("History Other", "0.00"));
+        Account stranger = accountRepository.save(newAccount("History Stranger", "0.00"));
+
+        Transaction sent = save(owner, other, T0);
+        Transaction received = save(other, owner, T0.plusHours(1));
+        Transaction self = save(owner, owner, T0.plusHours(2));
+        Transaction tiedA = save(owner, other, T0.plusHours(3));
+        Transaction tiedB = save(other, owner, T0.plusHours(3));
+        save(other, stranger, T0.plusHours(4));
+
+        // Página de 2: el cursor atraviesa el empate y la autotransferencia aparece una sola vez
+        List<Long> walked = walk(owner.getId(), 2, null, null);
+        assertEquals(List.of(tiedB.getId(), tiedA.getId(), self.getId(), received.getId(), sent.getId()), walked);
+
+        // from inclusive, to exclusive
+        assertEquals(List.of(self.getId(), received.getId()),
+                walk(owner.getId(), 10, T0.plusHours(1), T0.plusHours(3)));
+    }
+
+    @Test
+    public void testInvalidParametersAreBadRequestAndUnknownAccountIsNotFound() throws Exception {
+        Long accountId = accountRepository.save(newAccount("History Errors", "0.00")).getId();
+
+        mockMvc.perform(get("/accounts/{id}/transactions", accountId).param("cursor", "no-es-un-cursor"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/accounts/{id}/transactions", accountId).param("from", "ayer"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/accounts/{id}/transactions", accountId)
+                        .param("from", "2020-03-02T00:00:00").param("to", "2020-03-01T00:00:00"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/accounts/{id}/transactions", 999_999_999L))
+                .andExpect(status().isNotFound());
+    }
+
+    private List<Long> walk(Long accountId, int limit, LocalDateTime from, LocalDateTime to) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = get("/accounts/{id}/transactions", accountId)
+                    .param("limit", String.valueOf(limit));
+            if (from != null) {
+                request.param("from", from.toString());
+            }
+            if (to != null) {
+                request.param("to", to.toString());
+            }
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            String body = mockMvc.perform(request).andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode page = objectMapper.readTree(body).path("data");
+            page.path("items").forEach(item -> ids.add(item.path("id").asLong()));
+            cursor = page.path("nextCursor").asText(null);
+        } while (cursor != null);
+        return ids;
+    }
+
+    private Transaction save(Account from, Account to, LocalDateTime createdAt) {
+        Transaction transaction = new Transaction();
+        transaction.setFromAccount(from);
+        transaction.setToAccount(to);
+        transaction.setAmount(Money.valueOf("1.00"));
+        transaction.setStatus(TransactionStatus.FAILED);
+        transaction.setCreatedAt(createdAt);
+        return transactionRepository.save(transaction);
+    }
+}
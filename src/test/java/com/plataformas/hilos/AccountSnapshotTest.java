@@ -0,0 +1,68 @@
+package com.plataformas.hilos;
+
+import com.plataformas.hilos.dto.CreateAccountRequest;
+import com.plataformas.hilos.dto.TransferRequest;
+import com.plataformas.hilos.entity.Money;
+import com.plataformas.hilos.service.AccountService;
+import com.plataformas.hilos.service.AccountSnapshotService;
+import com.plataformas.hilos.service.TransactionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "hilos.snapshot.safety-lag-ms=0")
+@ActiveProfiles("test")
+public class AccountSnapshotTest {
+    
+    @Autowired
+    private AccountService accountService;
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    @Autowired
+    private AccountSnapshotService accountSnapshotService;
+    
+    @Test
+    public void testBalanceAsOfBeforeAndAfterSnapshots() throws InterruptedException {
+        Long fromAccountId = accountService.createAccount(new CreateAccountRequest("Snapshot From", Money.valueOf("100.00"))).getId();
+        Long toAccountId = accountService.createAccount(new CreateAccountRequest("Snapshot To", Money.valueOf("0.00"))).getId();
+        
+        LocalDateTime beforeTransfers = pause();
+        transactionService.executeTransfer(new TransferRequest(fromAccountId, toAccountId, Money.valueOf("30.00")));
+        LocalDateTime afterFirst = pause();
+        transactionService.executeTransfer(new TransferRequest(fromAccountId, toAccountId, Money.valueOf("20.00")));
+        LocalDateTime afterSecond = pause();
+        
+        // Solo con la foto de apertura
+        assertBalance(fromAccountId, beforeTransfers, "100.00");
+        assertBalance(fromAccountId, afterFirst, "70.00");
+        assertBalance(fromAccountId, afterSecond, "50.00");
+        assertBalance(toAccountId, afterSecond, "50.00");
+        
+        // Con una foto incremental posterior a las transferencias: mismos resultados
+        accountSnapshotService.takeSnapshots();
+        assertBalance(fromAccountId, beforeTransfers, "100.00");
+        assertBalance(fromAccountId, afterFirst, "70.00");
+        assertBalance(fromAccountId, LocalDateTime.now(), "50.00");
+        assertBalance(toAccountId, afterFirst, "30.00");
+    }
+    
+    private void assertBalance(Long accountId, LocalDateTime asOf, String expected) {
+        Money balance = accountSnapshotService.getBalanceAsOf(accountId, asOf).getBalance();
+        assertEquals(0, Money.valueOf(expected).compareTo(balance),
+                "Saldo de la cuenta " + accountId + " a " + asOf + ": " + balance);
+    }
+    
+    private LocalDateTime pause() throws InterruptedException {
+        Thread.sleep(5);
+        LocalDateTime now = LocalDateTime.now();
+        Thread.sleep(5);
+        return now;
+    }
+}
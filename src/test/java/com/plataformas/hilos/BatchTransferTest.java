@@ -0,0 +1,127 @@
+package com.plataformas.hilos;
+
+import com.plataformas.hilos.config.IdSequenceAligner;
+import com.plataformas.hilos.entity.Money;
+import com.plataformas.hilos.repository.AccountRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static com.plataformas.hilos.TestAccounts.newAccount;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class BatchTransferTest {
+
+    private static final long MISSING_ACCOUNT_ID = 999_999_999L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private IdSequenceAligner idSequenceAligner;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    public void testJsonBatchReturnsOneOutcomePerItem() throws Exception {
+        Long fromId = accountRepository.save(newAccount("Batch JSON From", "30.00")).getId();
+        Long toId = accountRepository.save(newAccount("Batch JSON To", "0.00")).getId();
+
+        String body = "[" + String.join(",",
+                transfer(fromId, toId, "10.00"),
+                transfer(fromId, toId, "25.00"),
+                transfer(fromId, toId, "10.00"),
+                "{\"fromAccountId\":" + fromId + ",\"toAccountId\":" + toId + ",\"amount\":-5}",
+                transfer(fromId, MISSING_ACCOUNT_ID, "1.00")) + "]";
+
+        assertBatchOutcomes(mockMvc.perform(post("/transactions/transfers/batch")
+                .contentType(MediaType.APPLICATION_JSON).content(body)));
+
+        assertEquals(Money.valueOf("10.00"), accountRepository.findById(fromId).orElseThrow().getBalance());
+        assertEquals(Money.valueOf("20.00"), accountRepository.findById(toId).orElseThrow().getBalance());
+    }
+
+    @Test
+    public void testNdjsonBatchReturnsOneOutcomePerLine() throws Exception {
+        Long fromId = accountRepository.save(newAccount("Batch NDJSON From", "30.00")).getId();
+        Long toId = accountRepository.save(newAccount("Batch NDJSON To", "0.00")).getId();
+
+        String body = String.join("\n",
+                transfer(fromId, toId, "10.00"),
+                transfer(fromId, toId, "25.00"),
+                transfer(fromId, toId, "10.00"),
+                "{\"fromAccountId\":" + fromId + ",\"toAccountId\":" + toId + "}",
+                transfer(fromId, MISSING_ACCOUNT_ID, "1.00")) + "\n";
+
+        assertBatchOutcomes(mockMvc.perform(post("/transactions/transfers/batch")
+                .contentType(MediaType.APPLICATION_NDJSON).content(body)));
+
+        assertEquals(Money.valueOf("10.00"), accountRepository.findById(fromId).orElseThrow().getBalance());
+        assertEquals(Money.valueOf("20.00"), accountRepository.findById(toId).orElseThrow().getBalance());
+    }
+
+    @Test
+    public void testSequenceIsMovedAboveExistingIds() {
+        // Fila con un ID alto como las que dejaba IDENTITY en una base existente
+        long existingId = 5_000_000L;
+        transactionTemplate.executeWithoutResult(status -> entityManager.createNativeQuery(
+                "INSERT INTO accounts (id, owner, balance, initial_balance, version, created_at) "
+                        + "VALUES (?, 'Legacy', 0, 0, 0, CURRENT_TIMESTAMP)")
+                .setParameter(1, existingId)
+                .executeUpdate());
+
+        idSequenceAligner.afterSingletonsInstantiated();
+
+        long nextValue = transactionTemplate.execute(status -> ((Number) entityManager
+                .createNativeQuery("SELECT NEXT VALUE FOR accounts_seq").getSingleResult()).longValue());
+        assertTrue(nextValue - 50 >= existingId, "El siguiente bloque de IDs debe quedar por encima de MAX(id)");
+    }
+
+    /**
+     * Orden de los lotes: completada, saldo insuficiente a mitad del bloque, completada, inválida,
+     * cuenta inexistente
+     */
+    private void assertBatchOutcomes(ResultActions result) throws Exception {
+        result.andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(5))
+                .andExpect(jsonPath("$.data[0].index").value(0))
+                .andExpect(jsonPath("$.data[0].status").value("COMPLETED"))
+                .andExpect(jsonPath("$.data[0].transactionId").isNumber())
+                .andExpect(jsonPath("$.data[1].status").value("FAILED"))
+                .andExpect(jsonPath("$.data[1].message").value(containsString("Saldo insuficiente")))
+                .andExpect(jsonPath("$.data[1].transactionId").isNumber())
+                .andExpect(jsonPath("$.data[2].status").value("COMPLETED"))
+                .andExpect(jsonPath("$.data[3].index").value(3))
+                .andExpect(jsonPath("$.data[3].status").value("FAILED"))
+                .andExpect(jsonPath("$.data[3].message").value(containsString("amount")))
+                .andExpect(jsonPath("$.data[3].transactionId").value(nullValue()))
+                .andExpect(jsonPath("$.data[4].status").value("FAILED"))
+                .andExpect(jsonPath("$.data[4].message").value(containsString("Cuenta destino no encontrada")));
+    }
+
+    private static String transfer(Long fromId, Long toId, String amount) {
+        return "{\"fromAccountId\":" + fromId + ",\"toAccountId\":" + toId + ",\"amount\":" + amount + "}";
+    }
+}
@@ -0,0 +1,92 @@
+package com.plataformas.hilos;
+
+import com.plataformas.hilos.entity.Account;
+import com.plataformas.hilos.entity.Money;
+import com.plataformas.hilos.repository.AccountRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Piezas comunes de los benchmarks de integración (@Tag("benchmark"), ./gradlew benchmark):
+ * siembra de cuentas, ejecución concurrente midiendo la latencia de cada operación y el
+ * informe de percentiles. La salida va a consola porque la tarea benchmark la muestra
+ * (showStandardStreams) con el log de la aplicación en WARN.
+ */
+final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Latencias ordenadas (nanos) y duración total de una ejecución
+     */
+    record Result(long[] sortedLatencies, long elapsedNanos) {
+
+        static Result of(long[] latencies, long elapsedNanos) {
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            return new Result(sorted, elapsedNanos);
+        }
+
+        double percentileMs(double percentile) {
+            int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, index)] / 1_000_000.0;
+        }
+
+        double throughput() {
+            return sortedLatencies.length / (elapsedNanos / 1e9);
+        }
+
+        String percentiles() {
+            return String.format("p50=%.2fms p99=%.2fms p999=%.2fms",
+                    percentileMs(0.50), percentileMs(0.99), percentileMs(0.999));
+        }
+    }
+
+    static List<Long> createAccounts(AccountRepository accountRepository, String ownerPrefix, int count, Money balance) {
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Account account = new Account();
+            account.setOwner(ownerPrefix + " " + i);
+            account.setBalance(balance);
+            ids.add(accountRepository.save(account).getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Lanza operations tareas en executor y espera a todas. Con fromEnqueue la latencia incluye
+     * la espera en la cola del executor; si no, solo la ejecución. Las excepciones de la
+     * operación (p.ej. saldo insuficiente) no cortan la medición y cuentan igual para la latencia
+     */
+    static Result runConcurrently(int operations, Executor executor, boolean fromEnqueue, Runnable operation) {
+        long[] latencies = new long[operations];
+        List<CompletableFuture<Void>> futures = new ArrayList<>(operations);
+        long start = System.nanoTime();
+
+        for (int i = 0; i < operations; i++) {
+            final int slot = i;
+            final long enqueuedAt = System.nanoTime();
+            futures.add(CompletableFuture.runAsync(() -> {
+                long begin = fromEnqueue ? enqueuedAt : System.nanoTime();
+                try {
+                    operation.run();
+                } catch (RuntimeException e) {
+                    // cuenta igual para la latencia
+                }
+                latencies[slot] = System.nanoTime() - begin;
+            }, executor));
+        }
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        return Result.of(latencies, System.nanoTime() - start);
+    }
+
+    static void report(String label, String details, Result result) {
+        System.out.printf("[%s] %s %s%n", label, details, result.percentiles());
+    }
+}
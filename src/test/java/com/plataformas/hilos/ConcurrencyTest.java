@@ -2,6 +2,7 @@ package com.plataformas.hilos;
 
 import com.plataformas.hilos.dto.TransferRequest;
 import com.plataformas.hilos.entity.Account;
+import com.plataformas.hilos.entity.Money;
 import com.plataformas.hilos.entity.TransactionStatus;
 import com.plataformas.hilos.repository.AccountRepository;
 import com.plataformas.hilos.repository.TransactionRepository;
@@ -10,13 +11,14 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
+import static com.plataformas.hilos.TestTransactions.countByStatus;
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
@@ -28,6 +30,9 @@ public class ConcurrencyTest {
     
     @Autowired
     private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
     
     @Autowired
     private TransactionService transactionService;
@@ -37,12 +42,12 @@ public class ConcurrencyTest {
         // Crear cuentas de prueba
         Account fromAccount = new Account();
         fromAccount.setOwner("Test From");
-        fromAccount.setBalance(new BigDecimal("1000.00"));
+        fromAccount.setBalance(Money.valueOf("1000.00"));
         fromAccount = accountRepository.save(fromAccount);
         
         Account toAccount = new Account();
         toAccount.setOwner("Test To");
-        toAccount.setBalance(new BigDecimal("0.00"));
+        toAccount.setBalance(Money.valueOf("0.00"));
         toAccount = accountRepository.save(toAccount);
         
         final Long fromAccountId = fromAccount.getId();
@@ -59,7 +64,7 @@ public class ConcurrencyTest {
                     TransferRequest request = new TransferRequest(
                         fromAccountId, 
                         toAccountId, 
-                        new BigDecimal("50.00")
+                        Money.valueOf("50.00")
                     );
                     transactionService.executeTransfer(request);
                     System.out.println("Transferencia " + transferNumber + " completada");
@@ -82,16 +87,16 @@ public class ConcurrencyTest {
         System.out.println("Saldo cuenta destino: $" + updatedToAccount.getBalance());
         
         // Verificar que no hay saldo negativo
-        assertTrue(updatedFromAccount.getBalance().compareTo(BigDecimal.ZERO) >= 0, 
+        assertTrue(updatedFromAccount.getBalance().compareTo(Money.ZERO) >= 0, 
                   "La cuenta origen no debe tener saldo negativo");
         
         // Verificar que el saldo total se mantiene
-        BigDecimal totalBalance = updatedFromAccount.getBalance().add(updatedToAccount.getBalance());
-        assertEquals(new BigDecimal("1000.00"), totalBalance, 
+        Money totalBalance = updatedFromAccount.getBalance().plus(updatedToAccount.getBalance());
+        assertEquals(Money.valueOf("1000.00"), totalBalance, 
                     "El saldo total debe mantenerse constante");
         
         // Verificar transacciones completadas
-        long completedTransactions = transactionRepository.findByStatus(TransactionStatus.COMPLETED).size();
+        long completedTransactions = countByStatus(transactionRepository, transactionTemplate, TransactionStatus.COMPLETED);
         System.out.println("Transacciones completadas: " + completedTransactions);
         
         assertTrue(completedTransactions > 0, "Debe haber al menos una transacción completada");
@@ -0,0 +1,83 @@
+package com.plataformas.hilos;
+
+import com.plataformas.hilos.config.AsyncConfig;
+import com.plataformas.hilos.dto.TransferRequest;
+import com.plataformas.hilos.entity.Money;
+import com.plataformas.hilos.repository.AccountRepository;
+import com.plataformas.hilos.service.TransactionService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Throughput y latencia de cola (encolado -> fin) de las transferencias con el executor
+ * de hilos nativos frente al de hilos virtuales limitado por semáforo.
+ * Se ejecuta con ./gradlew benchmark.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.com.plataformas.hilos=WARN"
+})
+@ActiveProfiles("test")
+public class ExecutorModeBenchmarkTest {
+    
+    private static final int ACCOUNTS = Integer.getInteger("hilos.bench.accounts", 100);
+    private static final int TRANSFERS = Integer.getInteger("hilos.bench.transfers", 20000);
+    
+    @Autowired
+    private AccountRepository accountRepository;
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int connectionPoolSize;
+    
+    @Test
+    public void compareExecutorModes() {
+        List<Long> accountIds = BenchmarkSupport.createAccounts(accountRepository, "Executor", ACCOUNTS,
+                Money.valueOf("1000000.00"));
+        
+        ThreadPoolTaskExecutor platform = AsyncConfig.platformThreadExecutor(connectionPoolSize, TRANSFERS);
+        platform.initialize();
+        SimpleAsyncTaskExecutor virtual = AsyncConfig.virtualThreadExecutor(connectionPoolSize);
+        
+        // Calentamiento
+        run(platform, accountIds, TRANSFERS / 10);
+        run(virtual, accountIds, TRANSFERS / 10);
+        
+        report(AsyncConfig.MODE_PLATFORM, run(platform, accountIds, TRANSFERS));
+        report(AsyncConfig.MODE_VIRTUAL, run(virtual, accountIds, TRANSFERS));
+        
+        platform.shutdown();
+        virtual.close();
+    }
+    
+    /**
+     * Latencia desde el encolado: incluye la espera por el executor
+     */
+    private BenchmarkSupport.Result run(AsyncTaskExecutor executor, List<Long> accountIds, int transfers) {
+        return BenchmarkSupport.runConcurrently(transfers, executor, true, () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            transactionService.executeTransfer(new TransferRequest(
+                    accountIds.get(random.nextInt(accountIds.size())),
+                    accountIds.get(random.nextInt(accountIds.size())),
+                    Money.valueOf("1.00")));
+        });
+    }
+    
+    private void report(String mode, BenchmarkSupport.Result result) {
+        BenchmarkSupport.report(mode, String.format("transferencias=%d conexiones=%d tps=%.0f",
+                result.sortedLatencies().length, connectionPoolSize, result.throughput()), result);
+    }
+}
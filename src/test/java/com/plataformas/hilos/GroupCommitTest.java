@@ -0,0 +1,86 @@
+package com.plataformas.hilos;
+
+import com.plataformas.hilos.dto.TransactionResponse;
+import com.plataformas.hilos.dto.TransferRequest;
+import com.plataformas.hilos.entity.Account;
+import com.plataformas.hilos.entity.Money;
+import com.plataformas.hilos.entity.TransactionStatus;
+import com.plataformas.hilos.exception.InsufficientFundsException;
+import com.plataformas.hilos.repository.AccountRepository;
+import com.plataformas.hilos.repository.TransactionRepository;
+import com.plataformas.hilos.service.GroupCommitTransferProcessor;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static com.plataformas.hilos.TestAccounts.newAccount;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "hilos.dispatch.mode=group",
+        "hilos.dispatch.group.window-ms=50",
+        "hilos.dispatch.group.committers=1"
+})
+@ActiveProfiles("test")
+public class GroupCommitTest {
+
+    private static final int TRANSFERS = 20;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private GroupCommitTransferProcessor groupCommitProcessor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void testGroupedTransfersHaveIndividualOutcomes() {
+        assertTrue(groupCommitProcessor.isEnabled());
+        Account fromAccount = accountRepository.save(newAccount("Group From", "150.00"));
+        Account toAccount = accountRepository.save(newAccount("Group To", "0.00"));
+        DistributionSummary groupSize = meterRegistry.get("hilos.transfer.group.size").summary();
+        long groupsBefore = groupSize.count();
+
+        // 20 transferencias de $10 sobre $150: 15 se completan y 5 fallan sin revertir a las demás
+        List<CompletableFuture<TransactionResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < TRANSFERS; i++) {
+            futures.add(groupCommitProcessor.dispatch(
+                    new TransferRequest(fromAccount.getId(), toAccount.getId(), Money.valueOf("10.00")), UUID.randomUUID()));
+        }
+
+        int completed = 0;
+        int insufficientFunds = 0;
+        for (CompletableFuture<TransactionResponse> future : futures) {
+            try {
+                TransactionResponse response = future.join();
+                assertEquals(TransactionStatus.COMPLETED, response.getStatus());
+                assertTrue(transactionRepository.findByReference(response.getReference()).isPresent());
+                completed++;
+            } catch (CompletionException e) {
+                assertInstanceOf(InsufficientFundsException.class, e.getCause());
+                insufficientFunds++;
+            }
+        }
+
+        assertEquals(15, completed);
+        assertEquals(5, insufficientFunds);
+        assertEquals(Money.ZERO, accountRepository.findById(fromAccount.getId()).orElseThrow().getBalance());
+        assertEquals(Money.valueOf("150.00"), accountRepository.findById(toAccount.getId()).orElseThrow().getBalance());
+        // Con una ventana de 50 ms las transferencias comparten transacción
+        assertTrue(groupSize.count() - groupsBefore < TRANSFERS, "Las transferencias deben agruparse");
+    }
+}
@@ -0,0 +1,174 @@
+package com.plataformas.hilos;
+
+import com.plataformas.hilos.dto.TransactionResponse;
+import com.plataformas.hilos.dto.TransferRequest;
+import com.plataformas.hilos.entity.IdempotencyKey;
+import com.plataformas.hilos.entity.Money;
+import com.plataformas.hilos.entity.TransactionStatus;
+import com.plataformas.hilos.repository.AccountRepository;
+import com.plataformas.hilos.repository.IdempotencyKeyRepository;
+import com.plataformas.hilos.service.TransactionService;
+import com.plataformas.hilos.service.TransferSubmissionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.plataformas.hilos.TestAccounts.newAccount;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class IdempotencyKeyTest {
+    
+    @Autowired
+    private AccountRepository accountRepository;
+    
+    @Autowired
+    private TransferSubmissionService transferSubmissionService;
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+    
+    @Test
+    public void testRetryWithSameKeyDoesNotTransferTwice() {
+        Long fromAccountId = accountRepository.save(newAccount("Idem From", "100.00")).getId();
+        Long toAccountId = accountRepository.save(newAccount("Idem To", "0.00")).getId();
+        TransferRequest request = new TransferRequest(fromAccountId, toAccountId, Money.valueOf("30.00"));
+        String key = "test-" + UUID.randomUUID();
+        
+        TransactionResponse first = transferSubmissionService.submit(request, key);
+        TransactionResponse completed = transactionService
+                .awaitTransaction(first.getReference(), Duration.ofSeconds(10)).join().orElseThrow();
+        assertEquals(TransactionStatus.COMPLETED, completed.getStatus());
+        assertTrue(idempotencyKeyRepository.findById(key).orElseThrow().isDispatched());
+        
+        // Reintento del cliente: misma clave y misma transferencia
+        TransactionResponse retry = transferSubmissionService.submit(
+                new TransferRequest(fromAccountId, toAccountId, Money.valueOf("30.0")), key);
+        assertEquals(first.getReference(), retry.getReference());
+        assertEquals(TransactionStatus.COMPLETED, retry.getStatus());
+        
+        assertEquals(0, Money.valueOf("70.00").compareTo(
+                accountRepository.findById(fromAccountId).orElseThrow().getBalance()));
+        
+        // La misma clave con otra transferencia se rechaza
+        assertThrows(IllegalArgumentException.class, () -> transferSubmissionService.submit(
+                new TransferRequest(fromAccountId, toAccountId, Money.valueOf("31.00")), key));
+    }
+    
+    @Test
+    public void testConcurrentSubmissionsWithSameKeyTransferOnce() throws Exception {
+        Long fromAccountId = accountRepository.save(newAccount("Idem Race From", "100.00")).getId();
+        Long toAccountId = accountRepository.save(newAccount("Idem Race To", "0.00")).getId();
+        String key = "race-" + UUID.randomUUID();
+        int clients = 8;
+        
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        List<Future<TransactionResponse>> submissions = new ArrayList<>();
+        try {
+            for (int i = 0; i < clients; i++) {
+                submissions.add(executor.submit(() -> {
+                    start.await();
+                    return transferSubmissionService.submit(
+                            new TransferRequest(fromAccountId, toAccountId, Money.valueOf("25.00")), key);
+                }));
+            }
+            start.countDown();
+            Set<UUID> references = new HashSet<>();
+            for (Future<TransactionResponse> submission : submissions) {
+                references.add(submission.get().getReference());
+            }
+            assertEquals(1, references.size(), "Todas las peticiones deben resolver a la misma transferencia");
+            
+            TransactionResponse completed = transactionService
+                    .awaitTransaction(references.iterator().next(), Duration.ofSeconds(10)).join().orElseThrow();
+            assertEquals(TransactionStatus.COMPLETED, completed.getStatus());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(Money.valueOf("75.00"), accountRepository.findById(fromAccountId).orElseThrow().getBalance());
+    }
+    
+    @Test
+    public void testOrphanedClaimIsTakenOverAfterGracePeriod() {
+        Long fromAccountId = accountRepository.save(newAccount("Idem Orphan From", "100.00")).getId();
+        Long toAccountId = accountRepository.save(newAccount("Idem Orphan To", "0.00")).getId();
+        TransferRequest request = new TransferRequest(fromAccountId, toAccountId, Money.valueOf("30.00"));
+        
+        // Reserva de una petición cuyo nodo cayó antes de encolar la transferencia
+        String key = "orphan-" + UUID.randomUUID();
+        UUID orphan = UUID.randomUUID();
+        LocalDateTime claimedAt = LocalDateTime.now().minusMinutes(5);
+        idempotencyKeyRepository.saveAndFlush(new IdempotencyKey(key, orphan,
+                fromAccountId + ":" + toAccountId + ":30", claimedAt, claimedAt.plusDays(1)));
+        
+        TransactionResponse retry = transferSubmissionService.submit(request, key);
+        assertNotEquals(orphan, retry.getReference());
+        assertEquals(retry.getReference(), idempotencyKeyRepository.findById(key).orElseThrow().getReference());
+        TransactionResponse completed = transactionService
+                .awaitTransaction(retry.getReference(), Duration.ofSeconds(10)).join().orElseThrow();
+        assertEquals(TransactionStatus.COMPLETED, completed.getStatus());
+        
+        // Los reintentos siguientes ya ven la transferencia nueva y no la repiten
+        assertEquals(retry.getReference(), transferSubmissionService.submit(request, key).getReference());
+        assertEquals(Money.valueOf("70.00"), accountRepository.findById(fromAccountId).orElseThrow().getBalance());
+    }
+    
+    @Test
+    public void testDispatchedClaimIsNeverTakenOver() {
+        Long fromAccountId = accountRepository.save(newAccount("Idem Dispatched From", "100.00")).getId();
+        Long toAccountId = accountRepository.save(newAccount("Idem Dispatched To", "0.00")).getId();
+        TransferRequest request = new TransferRequest(fromAccountId, toAccountId, Money.valueOf("30.00"));
+        
+        // Encolada y sin fila (p.ej. su escritura se perdió): la falta de fila no prueba que no se ejecutara
+        String key = "dispatched-" + UUID.randomUUID();
+        UUID dispatched = UUID.randomUUID();
+        LocalDateTime claimedAt = LocalDateTime.now().minusMinutes(5);
+        IdempotencyKey claim = new IdempotencyKey(key, dispatched,
+                fromAccountId + ":" + toAccountId + ":30", claimedAt, claimedAt.plusDays(1));
+        claim.setDispatched(true);
+        idempotencyKeyRepository.saveAndFlush(claim);
+        
+        TransactionResponse retry = transferSubmissionService.submit(request, key);
+        assertEquals(dispatched, retry.getReference());
+        assertEquals(TransactionStatus.PENDING, retry.getStatus());
+        assertEquals(dispatched, idempotencyKeyRepository.findById(key).orElseThrow().getReference());
+        assertEquals(Money.valueOf("100.00"), accountRepository.findById(fromAccountId).orElseThrow().getBalance());
+    }
+    
+    @Test
+    public void testRecentClaimWithoutTransferStaysPending() {
+        Long fromAccountId = accountRepository.save(newAccount("Idem Grace From", "100.00")).getId();
+        Long toAccountId = accountRepository.save(newAccount("Idem Grace To", "0.00")).getId();
+        String key = "grace-" + UUID.randomUUID();
+        UUID claimed = UUID.randomUUID();
+        LocalDateTime claimedAt = LocalDateTime.now();
+        idempotencyKeyRepository.saveAndFlush(new IdempotencyKey(key, claimed,
+                fromAccountId + ":" + toAccountId + ":30", claimedAt, claimedAt.plusDays(1)));
+        
+        // Dentro del periodo de gracia la original puede seguir en cola en otro nodo
+        TransactionResponse retry = transferSubmissionService.submit(
+                new TransferRequest(fromAccountId, toAccountId, Money.valueOf("30.00")), key);
+        assertEquals(claimed, retry.getReference());
+        assertEquals(TransactionStatus.PENDING, retry.getStatus());
+        assertEquals(claimed, idempotencyKeyRepository.findById(key).orElseThrow().getReference());
+        assertEquals(Money.valueOf("100.00"), accountRepository.findById(fromAccountId).orElseThrow().getBalance());
+    }
+    }
@@ -0,0 +1,111 @@
+package com.plataformas.hilos;
+
+import com.plataformas.hilos.dto.TransferRequest;
+import com.plataformas.hilos.entity.Account;
+import com.plataformas.hilos.entity.Money;
+import com.plataformas.hilos.entity.TransactionStatus;
+import com.plataformas.hilos.exception.InsufficientFundsException;
+import com.plataformas.hilos.repository.AccountRepository;
+import com.plataformas.hilos.repository.TransactionRepository;
+import com.plataformas.hilos.service.LeanTransferEngine;
+import com.plataformas.hilos.service.TransferEngine;
+import com.plataformas.hilos.service.TransferEngineRegistry;
+import com.plataformas.hilos.service.TransferRetryTemplate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.plataformas.hilos.TestAccounts.newAccount;
+import static com.plataformas.hilos.TestTransactions.countByStatus;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class LeanTransferEngineTest {
+    
+    @Autowired
+    private AccountRepository accountRepository;
+    
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private TransferEngineRegistry transferEngineRegistry;
+    
+    @Autowired
+    private TransferRetryTemplate transferRetryTemplate;
+    
+    @Test
+    public void testConcurrentLeanTransfersKeepInvariants() throws InterruptedException {
+        TransferEngine leanEngine = transferEngineRegistry.getEngine(LeanTransferEngine.ENGINE_NAME);
+        
+        Account fromAccount = accountRepository.save(newAccount("Lean From", "100.00"));
+        Account toAccount = accountRepository.save(newAccount("Lean To", "0.00"));
+        final Long fromAccountId = fromAccount.getId();
+        final Long toAccountId = toAccount.getId();
+        
+        long completedBefore = countByStatus(transactionRepository, transactionTemplate, TransactionStatus.COMPLETED);
+        
+        // 30 transferencias de $10 sobre un saldo de $100: solo 10 pueden completarse
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        CompletableFuture<?>[] futures = new CompletableFuture[30];
+        AtomicInteger insufficientFunds = new AtomicInteger();
+        
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = CompletableFuture.runAsync(() -> {
+                try {
+                    TransferRequest request = new TransferRequest(fromAccountId, toAccountId, Money.valueOf("10.00"));
+                    transferRetryTemplate.execute(() -> leanEngine.executeTransfer(request, UUID.randomUUID()));
+                } catch (InsufficientFundsException e) {
+                    insufficientFunds.incrementAndGet();
+                }
+            }, executor);
+        }
+        
+        CompletableFuture.allOf(futures).join();
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+        
+        Account updatedFrom = accountRepository.findById(fromAccountId).orElseThrow();
+        Account updatedTo = accountRepository.findById(toAccountId).orElseThrow();
+        
+        assertTrue(updatedFrom.getBalance().compareTo(Money.ZERO) >= 0,
+                "La cuenta origen no debe tener saldo negativo");
+        assertEquals(0, Money.valueOf("100.00").compareTo(updatedFrom.getBalance().plus(updatedTo.getBalance())),
+                "El saldo total debe mantenerse constante");
+        assertEquals(0, Money.ZERO.compareTo(updatedFrom.getBalance()));
+        assertEquals(20, insufficientFunds.get());
+        
+        long completedAfter = countByStatus(transactionRepository, transactionTemplate, TransactionStatus.COMPLETED);
+        assertEquals(10, completedAfter - completedBefore);
+    }
+    
+    @Test
+    public void testReverseOrderTransferUndoesCreditOnInsufficientFunds() {
+        TransferEngine leanEngine = transferEngineRegistry.getEngine(LeanTransferEngine.ENGINE_NAME);
+        
+        // La cuenta destino se crea primero, así tiene el ID menor y se abona antes del débito
+        Account toAccount = accountRepository.save(newAccount("Lean Low", "5.00"));
+        Account fromAccount = accountRepository.save(newAccount("Lean High", "1.00"));
+        
+        TransferRequest request = new TransferRequest(fromAccount.getId(), toAccount.getId(), Money.valueOf("2.00"));
+        assertThrows(InsufficientFundsException.class, () -> leanEngine.executeTransfer(request, UUID.randomUUID()));
+        
+        assertEquals(0, Money.valueOf("5.00").compareTo(
+                accountRepository.findById(toAccount.getId()).orElseThrow().getBalance()));
+        assertEquals(0, Money.valueOf("1.00").compareTo(
+                accountRepository.findById(fromAccount.getId()).orElseThrow().getBalance()));
+    }
+    }
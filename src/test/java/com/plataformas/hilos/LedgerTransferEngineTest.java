@@ -0,0 +1,270 @@
+package com.plataformas.hilos;
+
+import com.plataformas.hilos.dto.AccountBalanceResponse;
+import com.plataformas.hilos.dto.TransactionResponse;
+import com.plataformas.hilos.dto.TransferRequest;
+import com.plataformas.hilos.entity.Account;
+import com.plataformas.hilos.entity.Money;
+import com.plataformas.hilos.entity.TransactionStatus;
+import com.plataformas.hilos.exception.InsufficientFundsException;
+import com.plataformas.hilos.repository.AccountRepository;
+import com.plataformas.hilos.repository.TransactionRepository;
+import com.plataformas.hilos.service.AccountLedger;
+import com.plataformas.hilos.service.AccountSnapshotService;
+import com.plataformas.hilos.service.LedgerEntry;
+import com.plataformas.hilos.service.LedgerTransferEngine;
+import com.plataformas.hilos.service.LedgerWriteBehindWorker;
+import com.plataformas.hilos.service.TransferEngine;
+import com.plataformas.hilos.service.TransactionService;
+import com.plataformas.hilos.service.TransferEngineRegistry;
+import com.plataformas.hilos.service.TransferSubmissionService;
+import com.plataformas.hilos.service.TransferTracker;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.plataformas.hilos.TestAccounts.newAccount;
+import static com.plataformas.hilos.TestTransactions.countByStatus;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sin flush programado durante el test: cada test vacía el ledger con flush()
+@SpringBootTest(properties = {
+        "hilos.transfer.engine=ledger",
+        "hilos.ledger.flush-max-attempts=2",
+        "hilos.ledger.flush-interval-ms=3600000",
+        "hilos.idempotency.claim-grace-ms=0",
+        "hilos.snapshot.safety-lag-ms=0"
+})
+@ActiveProfiles("test")
+public class LedgerTransferEngineTest {
+
+    private static final int ACCOUNTS = 5;
+    private static final int TRANSFERS = 300;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TransferEngineRegistry transferEngineRegistry;
+
+    @Autowired
+    private AccountLedger accountLedger;
+
+    @Autowired
+    private LedgerWriteBehindWorker writeBehindWorker;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TransferSubmissionService transferSubmissionService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransferTracker transferTracker;
+
+    @Autowired
+    private AccountSnapshotService accountSnapshotService;
+
+    @Test
+    public void testConcurrentLedgerTransfersMatchDatabaseAfterFlush() throws InterruptedException {
+        TransferEngine ledgerEngine = transferEngineRegistry.getActiveEngine();
+        assertEquals(LedgerTransferEngine.ENGINE_NAME, ledgerEngine.name());
+
+        List<Long> accountIds = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountIds.add(accountRepository.save(newAccount("Ledger " + i, "50.00")).getId());
+        }
+        long completedBefore = countByStatus(transactionRepository, transactionTemplate, TransactionStatus.COMPLETED);
+
+        // Importes de $1 a $20 entre 5 cuentas de $50: muchas transferencias se quedan sin saldo
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        CompletableFuture<?>[] futures = new CompletableFuture[TRANSFERS];
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger insufficientFunds = new AtomicInteger();
+        for (int i = 0; i < TRANSFERS; i++) {
+            futures[i] = CompletableFuture.runAsync(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                int from = random.nextInt(ACCOUNTS);
+                int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+                TransferRequest request = new TransferRequest(accountIds.get(from), accountIds.get(to),
+                        Money.ofCents(100L * (1 + random.nextInt(20))));
+                try {
+                    ledgerEngine.executeTransfer(request, UUID.randomUUID());
+                    completed.incrementAndGet();
+                } catch (InsufficientFundsException e) {
+                    insufficientFunds.incrementAndGet();
+                }
+            }, executor);
+        }
+        CompletableFuture.allOf(futures).join();
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+        writeBehindWorker.flush();
+
+        assertEquals(0, writeBehindWorker.getPendingCount());
+        Money total = Money.ZERO;
+        for (Long accountId : accountIds) {
+            Money ledgerBalance = accountLedger.findBalance(accountId);
+            Money databaseBalance = accountRepository.findById(accountId).orElseThrow().getBalance();
+            assertTrue(databaseBalance.compareTo(Money.ZERO) >= 0, "Ningún saldo debe quedar negativo");
+            assertEquals(ledgerBalance, databaseBalance, "La BD debe coincidir con el ledger tras el flush");
+            total = total.plus(databaseBalance);
+        }
+        assertEquals(Money.valueOf("250.00"), total, "El saldo total debe mantenerse constante");
+        assertEquals(TRANSFERS, completed.get() + insufficientFunds.get());
+        assertEquals(completed.get(),
+                countByStatus(transactionRepository, transactionTemplate, TransactionStatus.COMPLETED) - completedBefore);
+    }
+
+    @Test
+    public void testInsufficientFundsLeavesLedgerUntouched() {
+        TransferEngine ledgerEngine = transferEngineRegistry.getActiveEngine();
+        Account fromAccount = accountRepository.save(newAccount("Ledger Pobre", "5.00"));
+        Account toAccount = accountRepository.save(newAccount("Ledger Destino", "0.00"));
+        UUID reference = UUID.randomUUID();
+
+        assertThrows(InsufficientFundsException.class, () -> ledgerEngine.executeTransfer(
+                new TransferRequest(fromAccount.getId(), toAccount.getId(), Money.valueOf("5.01")), reference));
+        writeBehindWorker.flush();
+
+        assertEquals(Money.valueOf("5.00"), accountLedger.findBalance(fromAccount.getId()));
+        assertEquals(Money.ZERO, accountLedger.findBalance(toAccount.getId()));
+        // El intento queda registrado como FAILED, igual que con el motor pesimista
+        assertEquals(TransactionStatus.FAILED, transactionRepository.findByReference(reference).orElseThrow().getStatus());
+        assertEquals(Money.valueOf("5.00"), accountRepository.findById(fromAccount.getId()).orElseThrow().getBalance());
+    }
+
+    @Test
+    public void testPermanentFlushFailureDoesNotBlockLaterEntries() {
+        TransferEngine ledgerEngine = transferEngineRegistry.getActiveEngine();
+        Account fromAccount = accountRepository.save(newAccount("Ledger DLQ From", "100.00"));
+        Account toAccount = accountRepository.save(newAccount("Ledger DLQ To", "0.00"));
+        UUID persistedReference = UUID.randomUUID();
+        ledgerEngine.executeTransfer(
+                new TransferRequest(fromAccount.getId(), toAccount.getId(), Money.valueOf("10.00")), persistedReference);
+        writeBehindWorker.flush();
+        double deadLetteredBefore = meterRegistry.get("hilos.ledger.dead-letter").counter().count();
+
+        // Referencia repetida: viola la restricción única en cada intento, nunca se podrá escribir
+        LedgerEntry broken = new LedgerEntry(persistedReference, fromAccount.getId(), toAccount.getId(),
+                100, TransactionStatus.FAILED, LocalDateTime.now());
+        writeBehindWorker.enqueue(broken);
+        UUID laterReference = UUID.randomUUID();
+        ledgerEngine.executeTransfer(
+                new TransferRequest(fromAccount.getId(), toAccount.getId(), Money.valueOf("20.00")), laterReference);
+
+        int flushes = 0;
+        do {
+            writeBehindWorker.flush();
+        } while (writeBehindWorker.getPendingCount() > 0 && ++flushes < 10);
+
+        assertEquals(0, writeBehindWorker.getPendingCount(), "La entrada rota no debe bloquear la cola");
+        assertTrue(transactionRepository.findByReference(laterReference).isPresent());
+        assertTrue(writeBehindWorker.getDeadLetters().contains(broken));
+        assertEquals(deadLetteredBefore + 1, meterRegistry.get("hilos.ledger.dead-letter").counter().count());
+        assertEquals(Money.valueOf("70.00"), accountRepository.findById(fromAccount.getId()).orElseThrow().getBalance());
+        assertEquals(Money.valueOf("30.00"), accountRepository.findById(toAccount.getId()).orElseThrow().getBalance());
+    }
+
+    @Test
+    public void testDeadLetteredTransferIsNotExecutedAgain() {
+        Long fromId = accountRepository.save(newAccount("Ledger DLQ Retry From", "100.00")).getId();
+        Long toId = accountRepository.save(newAccount("Ledger DLQ Retry To", "0.00")).getId();
+        Long otherId = accountRepository.save(newAccount("Ledger DLQ Retry Other", "0.00")).getId();
+        TransferRequest request = new TransferRequest(fromId, toId, Money.valueOf("25.00"));
+        String key = "ledger-dead-letter-" + UUID.randomUUID();
+
+        UUID reference = transferSubmissionService.submit(request, key).getReference();
+        assertEquals(TransactionStatus.COMPLETED, transactionService.awaitTransaction(reference, Duration.ofSeconds(10))
+                .join().orElseThrow().getStatus());
+
+        // La cuenta destino desaparece antes del flush: la fila viola la clave foránea en cada intento
+        accountRepository.deleteById(toId);
+        int flushes = 0;
+        do {
+            writeBehindWorker.flush();
+        } while (writeBehindWorker.getPendingCount() > 0 && ++flushes < 10);
+        assertTrue(writeBehindWorker.getDeadLetters().stream().anyMatch(entry -> entry.reference().equals(reference)));
+        assertTrue(transactionRepository.findByReference(reference).isEmpty());
+
+        // Sin fila la referencia sigue resolviéndose, así que el reintento (sin periodo de gracia) no se queda la clave
+        assertEquals(TransactionStatus.COMPLETED, transactionService.getTransaction(reference).orElseThrow().getStatus());
+        assertEquals(reference, transferSubmissionService.submit(request, key).getReference());
+        assertEquals(Money.valueOf("75.00"), accountLedger.findBalance(fromId));
+
+        // El origen no mueve más dinero hasta repararlo
+        assertTrue(accountLedger.isBlocked(fromId));
+        assertThrows(IllegalStateException.class, () -> transferEngineRegistry.getActiveEngine().executeTransfer(
+                new TransferRequest(fromId, otherId, Money.valueOf("1.00")), UUID.randomUUID()));
+        assertEquals(Money.valueOf("75.00"), accountLedger.findBalance(fromId));
+    }
+
+    @Test
+    public void testSnapshotWaitsForDelayedLedgerEntries() {
+        Long fromId = accountRepository.save(newAccount("Ledger Snapshot From", "100.00")).getId();
+        Long toId = accountRepository.save(newAccount("Ledger Snapshot To", "0.00")).getId();
+        transferEngineRegistry.getActiveEngine().executeTransfer(
+                new TransferRequest(fromId, toId, Money.valueOf("30.00")), UUID.randomUUID());
+
+        // La entrada tiene created_at anterior al corte y aún no está en BD: la foto se aplaza
+        accountSnapshotService.takeSnapshots();
+        assertNull(accountSnapshotService.getBalanceAsOf(fromId, LocalDateTime.now()).getSnapshotAsOf());
+
+        writeBehindWorker.flush();
+        accountSnapshotService.takeSnapshots();
+
+        LocalDateTime now = LocalDateTime.now();
+        AccountBalanceResponse from = accountSnapshotService.getBalanceAsOf(fromId, now);
+        assertNotNull(from.getSnapshotAsOf());
+        assertEquals(Money.valueOf("70.00"), from.getBalance());
+        assertEquals(Money.valueOf("30.00"), accountSnapshotService.getBalanceAsOf(toId, now).getBalance());
+    }
+
+    @Test
+    public void testCompletedTransferResolvesUntilPersisted() {
+        Long fromId = accountRepository.save(newAccount("Ledger Ref From", "100.00")).getId();
+        Long toId = accountRepository.save(newAccount("Ledger Ref To", "0.00")).getId();
+
+        UUID reference = transferSubmissionService.submit(
+                new TransferRequest(fromId, toId, Money.valueOf("25.00"))).getReference();
+        TransactionResponse completed = transactionService.awaitTransaction(reference, Duration.ofSeconds(10))
+                .join().orElseThrow();
+        assertEquals(TransactionStatus.COMPLETED, completed.getStatus());
+
+        // Antes del flush no hay fila, pero la referencia no da 404
+        assertTrue(transactionRepository.findByReference(reference).isEmpty());
+        assertEquals(TransactionStatus.COMPLETED, transactionService.getTransaction(reference).orElseThrow().getStatus());
+        assertTrue(transferTracker.find(reference).isPresent());
+
+        writeBehindWorker.flush();
+
+        TransactionResponse persisted = transactionService.getTransaction(reference).orElseThrow();
+        assertNotNull(persisted.getId());
+        assertEquals(TransactionStatus.COMPLETED, persisted.getStatus());
+        assertTrue(transferTracker.find(reference).isEmpty(), "Tras persistirse deja de seguirse");
+    }
+}
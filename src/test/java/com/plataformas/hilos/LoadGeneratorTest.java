@@ -0,0 +1,53 @@
+package com.plataformas.hilos;
+
+import com.plataformas.hilos.dto.LoadScenario;
+import com.plataformas.hilos.dto.LoadTestReport;
+import com.plataformas.hilos.dto.LoadTestRequest;
+import com.plataformas.hilos.entity.Account;
+import com.plataformas.hilos.entity.Money;
+import com.plataformas.hilos.repository.AccountRepository;
+import com.plataformas.hilos.service.LoadGeneratorService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class LoadGeneratorTest {
+    
+    @Autowired
+    private AccountRepository accountRepository;
+    
+    @Autowired
+    private LoadGeneratorService loadGeneratorService;
+    
+    @Test
+    public void testScenariosReportEveryTransferAndConserveBalance() {
+        List<Long> accountIds = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Account account = new Account();
+            account.setOwner("Load " + i);
+            account.setBalance(Money.valueOf("50.00"));
+            accountIds.add(accountRepository.save(account).getId());
+        }
+        
+        for (LoadScenario scenario : LoadScenario.values()) {
+            LoadTestRequest request = new LoadTestRequest(scenario, accountIds, Money.valueOf("5.00"), 200, 8);
+            request.setStartRatePerSecond(500);
+            request.setEndRatePerSecond(2000);
+            
+            LoadTestReport report = loadGeneratorService.run(request);
+            
+            assertEquals(200, report.getCompleted() + report.getFailed(), scenario + ": transferencias sin contabilizar");
+            assertTrue(report.isBalanceConserved(), scenario + ": la suma de saldos cambió");
+            assertTrue(report.getLatencyP50Ms() <= report.getLatencyP99Ms());
+            assertNull(report.getFailuresByCause().get("OTHER"), scenario + ": fallos inesperados " + report.getFailuresByCause());
+        }
+    }
+}
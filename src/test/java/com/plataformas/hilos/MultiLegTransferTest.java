@@ -0,0 +1,95 @@
+package com.plataformas.hilos;
+
+import com.plataformas.hilos.dto.MultiLegTransferRequest;
+import com.plataformas.hilos.dto.TransactionResponse;
+import com.plataformas.hilos.dto.TransferLeg;
+import com.plataformas.hilos.entity.Account;
+import com.plataformas.hilos.entity.Money;
+import com.plataformas.hilos.entity.TransactionStatus;
+import com.plataformas.hilos.exception.InsufficientFundsException;
+import com.plataformas.hilos.repository.AccountRepository;
+import com.plataformas.hilos.repository.TransactionRepository;
+import com.plataformas.hilos.service.MultiLegTransferService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static com.plataformas.hilos.TestAccounts.newAccount;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class MultiLegTransferTest {
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private MultiLegTransferService multiLegTransferService;
+
+    @Test
+    public void testPayrollAppliesEveryLeg() {
+        Account payer = accountRepository.save(newAccount("Nómina", "1000.00"));
+        Account first = accountRepository.save(newAccount("Empleado 1", "0.00"));
+        Account second = accountRepository.save(newAccount("Empleado 2", "0.00"));
+
+        List<TransactionResponse> legs = multiLegTransferService.executeTransfer(new MultiLegTransferRequest(payer.getId(), List.of(
+                new TransferLeg(null, first.getId(), Money.valueOf("300.00")),
+                new TransferLeg(null, second.getId(), Money.valueOf("450.50")),
+                new TransferLeg(null, first.getId(), Money.valueOf("49.50")))));
+
+        assertEquals(3, legs.size());
+        for (TransactionResponse leg : legs) {
+            assertEquals(TransactionStatus.COMPLETED, leg.getStatus());
+            assertEquals(payer.getId(), leg.getFromAccountId());
+            assertTrue(transactionRepository.existsById(leg.getId()));
+        }
+        assertEquals(Money.valueOf("200.00"), balanceOf(payer));
+        assertEquals(Money.valueOf("349.50"), balanceOf(first));
+        assertEquals(Money.valueOf("450.50"), balanceOf(second));
+    }
+
+    @Test
+    public void testInsufficientFundsAppliesNothing() {
+        Account payer = accountRepository.save(newAccount("Pagador", "100.00"));
+        Account first = accountRepository.save(newAccount("Destino 1", "0.00"));
+        Account second = accountRepository.save(newAccount("Destino 2", "0.00"));
+        long transactionsBefore = transactionRepository.count();
+
+        MultiLegTransferRequest request = new MultiLegTransferRequest(payer.getId(), List.of(
+                new TransferLeg(null, first.getId(), Money.valueOf("60.00")),
+                new TransferLeg(null, second.getId(), Money.valueOf("60.00"))));
+
+        assertThrows(InsufficientFundsException.class, () -> multiLegTransferService.executeTransfer(request));
+        assertEquals(transactionsBefore, transactionRepository.count());
+        assertEquals(Money.valueOf("100.00"), balanceOf(payer));
+        assertEquals(Money.ZERO, balanceOf(first));
+        assertEquals(Money.ZERO, balanceOf(second));
+    }
+
+    @Test
+    public void testFundsAreCheckedOnNetMovement() {
+        Account a = accountRepository.save(newAccount("Neto A", "0.00"));
+        Account b = accountRepository.save(newAccount("Neto B", "100.00"));
+        Account c = accountRepository.save(newAccount("Neto C", "0.00"));
+
+        // A no tiene saldo, pero recibe de B en la misma operación lo que envía a C
+        multiLegTransferService.executeTransfer(new MultiLegTransferRequest(null, List.of(
+                new TransferLeg(a.getId(), c.getId(), Money.valueOf("80.00")),
+                new TransferLeg(b.getId(), a.getId(), Money.valueOf("80.00")))));
+
+        assertEquals(Money.ZERO, balanceOf(a));
+        assertEquals(Money.valueOf("20.00"), balanceOf(b));
+        assertEquals(Money.valueOf("80.00"), balanceOf(c));
+    }
+
+    private Money balanceOf(Account account) {
+        return accountRepository.findById(account.getId()).orElseThrow().getBalance();
+    }
+}
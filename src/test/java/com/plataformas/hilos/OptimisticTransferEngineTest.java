@@ -0,0 +1,157 @@
+package com.plataformas.hilos;
+
+import com.plataformas.hilos.dto.TransferRequest;
+import com.plataformas.hilos.entity.Account;
+import com.plataformas.hilos.entity.Money;
+import com.plataformas.hilos.repository.AccountRepository;
+import com.plataformas.hilos.service.AccountContentionTracker;
+import com.plataformas.hilos.service.AdaptiveTransferEngine;
+import com.plataformas.hilos.service.OptimisticTransferEngine;
+import com.plataformas.hilos.service.TransactionService;
+import com.plataformas.hilos.service.TransferEngineRegistry;
+import com.plataformas.hilos.service.TransferExecutorService;
+import com.plataformas.hilos.service.TransferRetryTemplate;
+import com.plataformas.hilos.service.TransferRetryTemplate.RetryCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.plataformas.hilos.TestAccounts.newAccount;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "hilos.transfer.engine=adaptive",
+        "hilos.transfer.retry.max-attempts=50",
+        "hilos.transfer.retry.initial-backoff-ms=1",
+        "hilos.transfer.retry.max-backoff-ms=20",
+        "hilos.transfer.adaptive.hot-threshold=1",
+        "hilos.transfer.adaptive.half-life-ms=200"
+})
+@ActiveProfiles("test")
+public class OptimisticTransferEngineTest {
+
+    private static final int TRANSFERS = 200;
+    private static final int THREADS = 16;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransferEngineRegistry transferEngineRegistry;
+
+    @Autowired
+    private TransferRetryTemplate transferRetryTemplate;
+
+    @Autowired
+    private AccountContentionTracker contentionTracker;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void testNativeUpdatesInvalidateStaleReads() {
+        Account account = accountRepository.save(newAccount("Versión", "100.00"));
+        long versionBefore = account.getVersion();
+
+        transactionTemplate.executeWithoutResult(status ->
+                accountRepository.applyBalanceDelta(account.getId(), Money.valueOf("5.00").toBigDecimal()));
+        assertEquals(versionBefore + 1, accountRepository.findById(account.getId()).orElseThrow().getVersion());
+
+        // Escribir sobre la lectura anterior perdería el delta: debe fallar por versión
+        account.setBalance(Money.valueOf("0.00"));
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> accountRepository.save(account));
+        assertEquals(Money.valueOf("105.00"), accountRepository.findById(account.getId()).orElseThrow().getBalance());
+    }
+
+    @Test
+    public void testConcurrentAdaptiveTransfersKeepInvariants() throws InterruptedException {
+        assertEquals(AdaptiveTransferEngine.ENGINE_NAME, transferEngineRegistry.getActiveEngine().name());
+
+        Account accountA = accountRepository.save(newAccount("Adaptive A", "1000.00"));
+        Account accountB = accountRepository.save(newAccount("Adaptive B", "1000.00"));
+        final Long idA = accountA.getId();
+        final Long idB = accountB.getId();
+        long conflictsBefore = transferRetryTemplate.getFailureCount(RetryCause.OPTIMISTIC);
+
+        // Par caliente en ambos sentidos: provoca conflictos de versión en el camino optimista
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CompletableFuture<?>[] futures = new CompletableFuture[TRANSFERS];
+        Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        for (int i = 0; i < TRANSFERS; i++) {
+            final boolean forward = i % 2 == 0;
+            futures[i] = CompletableFuture.runAsync(() -> {
+                try {
+                    transactionService.executeTransfer(forward
+                            ? new TransferRequest(idA, idB, Money.valueOf("1.00"))
+                            : new TransferRequest(idB, idA, Money.valueOf("2.00")));
+                } catch (Exception e) {
+                    errors.add(e);
+                }
+            }, executor);
+        }
+        CompletableFuture.allOf(futures).join();
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+
+        assertTrue(errors.isEmpty(), "Ninguna transferencia debe fallar: " + errors);
+        // 100 x $1 de A a B y 100 x $2 de B a A
+        assertEquals(Money.valueOf("1100.00"), accountRepository.findById(idA).orElseThrow().getBalance());
+        assertEquals(Money.valueOf("900.00"), accountRepository.findById(idB).orElseThrow().getBalance());
+
+        if (transferRetryTemplate.getFailureCount(RetryCause.OPTIMISTIC) > conflictsBefore) {
+            assertTrue(contentionTracker.getScore(idA) + contentionTracker.getScore(idB) > 0,
+                    "Los conflictos de versión deben registrarse como contención");
+        }
+    }
+
+    @Test
+    public void testHotAccountRoutesPessimisticUntilContentionDecays() throws InterruptedException {
+        Long idC = accountRepository.save(newAccount("Adaptive C", "100.00")).getId();
+        Long idD = accountRepository.save(newAccount("Adaptive D", "100.00")).getId();
+
+        // Dos conflictos recientes superan hot-threshold=1
+        contentionTracker.recordConflict(idC);
+        contentionTracker.recordConflict(idC);
+        assertTrue(contentionTracker.isContended(idC));
+
+        double optimisticBefore = routes(OptimisticTransferEngine.ENGINE_NAME);
+        double pessimisticBefore = routes(TransferExecutorService.ENGINE_NAME);
+        transactionService.executeTransfer(new TransferRequest(idD, idC, Money.valueOf("5.00")));
+        assertEquals(pessimisticBefore + 1, routes(TransferExecutorService.ENGINE_NAME));
+        assertEquals(optimisticBefore, routes(OptimisticTransferEngine.ENGINE_NAME));
+
+        // Con half-life de 200 ms la contención cae por debajo del umbral en unos 200 ms
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (contentionTracker.isContended(idC)) {
+            assertTrue(System.nanoTime() < deadline, "La contención debe decaer");
+            Thread.sleep(50);
+        }
+        assertTrue(contentionTracker.getScore(idC) < 1);
+
+        transactionService.executeTransfer(new TransferRequest(idD, idC, Money.valueOf("5.00")));
+        assertEquals(optimisticBefore + 1, routes(OptimisticTransferEngine.ENGINE_NAME));
+        assertEquals(pessimisticBefore + 1, routes(TransferExecutorService.ENGINE_NAME));
+        assertEquals(Money.valueOf("110.00"), accountRepository.findById(idC).orElseThrow().getBalance());
+    }
+
+    private double routes(String engine) {
+        return meterRegistry.get("hilos.transfer.adaptive.routes").tag("engine", engine).counter().count();
+    }
+}
@@ -0,0 +1,88 @@
+package com.plataformas.hilos;
+
+import com.plataformas.hilos.dto.TransferRequest;
+import com.plataformas.hilos.entity.Account;
+import com.plataformas.hilos.entity.Money;
+import com.plataformas.hilos.repository.AccountRepository;
+import com.plataformas.hilos.service.TransactionService;
+import com.plataformas.hilos.service.TransferRetryTemplate;
+import com.plataformas.hilos.service.TransferRetryTemplate.RetryCause;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.plataformas.hilos.TestAccounts.newAccount;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class OrderedLockingTest {
+    
+    private static final int TRANSFERS = 400;
+    private static final int THREADS = 16;
+    
+    @Autowired
+    private AccountRepository accountRepository;
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    @Autowired
+    private TransferRetryTemplate transferRetryTemplate;
+    
+    @Test
+    public void testOpposingTransfersNeverDeadlock() throws InterruptedException {
+        Account accountA = accountRepository.save(newAccount("Test A", "1000.00"));
+        Account accountB = accountRepository.save(newAccount("Test B", "1000.00"));
+        
+        final Long idA = accountA.getId();
+        final Long idB = accountB.getId();
+        
+        long deadlocksBefore = transferRetryTemplate.getFailureCount(RetryCause.DEADLOCK)
+                + transferRetryTemplate.getFailureCount(RetryCause.SERIALIZATION);
+        
+        // Mitad de las transferencias A -> B y la otra mitad B -> A, intercaladas
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CompletableFuture<?>[] futures = new CompletableFuture[TRANSFERS];
+        Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        
+        for (int i = 0; i < TRANSFERS; i++) {
+            final boolean forward = i % 2 == 0;
+            futures[i] = CompletableFuture.runAsync(() -> {
+                try {
+                    TransferRequest request = forward
+                            ? new TransferRequest(idA, idB, Money.valueOf("1.00"))
+                            : new TransferRequest(idB, idA, Money.valueOf("1.00"));
+                    transactionService.executeTransfer(request);
+                } catch (Exception e) {
+                    errors.add(e);
+                }
+            }, executor);
+        }
+        
+        CompletableFuture.allOf(futures).join();
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+        
+        long deadlocksAfter = transferRetryTemplate.getFailureCount(RetryCause.DEADLOCK)
+                + transferRetryTemplate.getFailureCount(RetryCause.SERIALIZATION);
+        
+        assertTrue(errors.isEmpty(), "Ninguna transferencia debe fallar: " + errors);
+        assertEquals(deadlocksBefore, deadlocksAfter, "No debe detectarse ningún deadlock");
+        
+        Account updatedA = accountRepository.findById(idA).orElseThrow();
+        Account updatedB = accountRepository.findById(idB).orElseThrow();
+        
+        // Mismo número de transferencias en cada sentido: los saldos vuelven al inicial
+        assertEquals(0, Money.valueOf("1000.00").compareTo(updatedA.getBalance()));
+        assertEquals(0, Money.valueOf("1000.00").compareTo(updatedB.getBalance()));
+    }
+    }
@@ -0,0 +1,152 @@
+package com.plataformas.hilos;
+
+import com.plataformas.hilos.dto.TransactionResponse;
+import com.plataformas.hilos.dto.TransferRequest;
+import com.plataformas.hilos.entity.Account;
+import com.plataformas.hilos.entity.Money;
+import com.plataformas.hilos.exception.InsufficientFundsException;
+import com.plataformas.hilos.repository.AccountRepository;
+import com.plataformas.hilos.service.PartitionedTransferDispatcher;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.plataformas.hilos.TestAccounts.newAccount;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "hilos.dispatch.mode=partitioned",
+        "hilos.dispatch.partitions=3"
+})
+@ActiveProfiles("test")
+public class PartitionedDispatchTest {
+
+    @Autowired
+    private PartitionedTransferDispatcher dispatcher;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void testTransfersOfOnePairRunInSubmissionOrder() {
+        Long fromId = accountRepository.save(newAccount("Partition Ordered", "100.00")).getId();
+        Long toId = accountRepository.save(newAccount("Partition Sink", "0.00")).getId();
+
+        List<Integer> completionOrder = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<TransactionResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            final int position = i;
+            futures.add(dispatcher.dispatch(new TransferRequest(fromId, toId, Money.valueOf("15.00")), UUID.randomUUID())
+                    .whenComplete((response, error) -> completionOrder.add(position)));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .handle((ignored, error) -> null).orTimeout(30, TimeUnit.SECONDS).join();
+
+        // FIFO por par de cuentas (un único origen no calienta el destino): las 6 primeras caben en 100.00 y las 4 últimas no
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), completionOrder);
+        for (int i = 0; i < futures.size(); i++) {
+            CompletableFuture<TransactionResponse> future = futures.get(i);
+            if (i < 6) {
+                assertFalse(future.isCompletedExceptionally(), "Transferencia " + i + " debía completarse");
+            } else {
+                CompletionException error = assertThrows(CompletionException.class, future::join);
+                assertInstanceOf(InsufficientFundsException.class, error.getCause());
+            }
+        }
+        assertEquals(Money.valueOf("10.00"), accountRepository.findById(fromId).orElseThrow().getBalance());
+        assertEquals(Money.valueOf("90.00"), accountRepository.findById(toId).orElseThrow().getBalance());
+    }
+
+    @Test
+    public void testCrossPartitionTransfersConserveTotalBalance() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            ids.add(accountRepository.save(newAccount("Partition Mesh " + i, "50.00")).getId());
+        }
+
+        List<CompletableFuture<TransactionResponse>> futures = new ArrayList<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < 300; i++) {
+            Long from = ids.get(random.nextInt(ids.size()));
+            Long to = ids.get(random.nextInt(ids.size()));
+            if (from.equals(to)) {
+                continue;
+            }
+            futures.add(dispatcher.dispatch(new TransferRequest(from, to, Money.valueOf(random.nextInt(1, 20) + ".00")),
+                    UUID.randomUUID()));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .handle((ignored, error) -> null).orTimeout(60, TimeUnit.SECONDS).join();
+
+        // Solo se admite el fallo por saldo insuficiente, nunca un deadlock o un error de bloqueo
+        for (CompletableFuture<TransactionResponse> future : futures) {
+            if (future.isCompletedExceptionally()) {
+                CompletionException error = assertThrows(CompletionException.class, future::join);
+                assertInstanceOf(InsufficientFundsException.class, error.getCause());
+            }
+        }
+        Money total = Money.ZERO;
+        for (Account account : accountRepository.findAllById(ids)) {
+            assertFalse(account.getBalance().isLessThan(Money.ZERO), "Saldo negativo en " + account.getId());
+            total = total.plus(account.getBalance());
+        }
+        assertEquals(Money.valueOf("300.00"), total);
+    }
+
+    @Test
+    public void testHotDestinationIsSerializedOnOnePartition() {
+        List<Long> sources = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            sources.add(accountRepository.save(newAccount("Partition Payer " + i, "10.00")).getId());
+        }
+        Long merchantId = accountRepository.save(newAccount("Partition Merchant", "0.00")).getId();
+
+        // Por la menor cuenta del par los pagadores se repartirían entre las 3 particiones
+        assertTrue(sources.stream()
+                .map(source -> dispatcher.partitionFor(new TransferRequest(source, merchantId, Money.valueOf("1.00"))))
+                .distinct().count() > 1);
+
+        List<CompletableFuture<TransactionResponse>> futures = new ArrayList<>();
+        for (int round = 0; round < 5; round++) {
+            for (Long source : sources) {
+                futures.add(dispatcher.dispatch(new TransferRequest(source, merchantId, Money.valueOf("1.00")),
+                        UUID.randomUUID()));
+            }
+        }
+
+        // Con abonos de muchos orígenes el destino se calienta y todos sus abonos van a una sola cola
+        assertEquals(1, sources.stream()
+                .map(source -> dispatcher.partitionFor(new TransferRequest(source, merchantId, Money.valueOf("1.00"))))
+                .distinct().count());
+
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).orTimeout(30, TimeUnit.SECONDS).join();
+        assertEquals(Money.valueOf("60.00"), accountRepository.findById(merchantId).orElseThrow().getBalance());
+        for (Account payer : accountRepository.findAllById(sources)) {
+            assertEquals(Money.valueOf("5.00"), payer.getBalance());
+        }
+    }
+
+    @Test
+    public void testEachPartitionPublishesQueueGauges() {
+        for (int i = 0; i < 3; i++) {
+            String partition = String.valueOf(i);
+            assertNotNull(meterRegistry.find("hilos.transfer.partition.queued").tag("partition", partition).gauge());
+            assertNotNull(meterRegistry.find("hilos.transfer.partition.active").tag("partition", partition).gauge());
+        }
+        assertNull(meterRegistry.find("hilos.transfer.partition.queued").tag("partition", "3").gauge());
+    }
+}
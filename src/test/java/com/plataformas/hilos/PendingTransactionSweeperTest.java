@@ -0,0 +1,104 @@
+package com.plataformas.hilos;
+
+import com.plataformas.hilos.entity.Account;
+import com.plataformas.hilos.entity.Money;
+import com.plataformas.hilos.entity.Transaction;
+import com.plataformas.hilos.entity.TransactionStatus;
+import com.plataformas.hilos.repository.AccountRepository;
+import com.plataformas.hilos.repository.TransactionRepository;
+import com.plataformas.hilos.service.AccountSnapshotService;
+import com.plataformas.hilos.service.PendingTransactionSweeper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static com.plataformas.hilos.TestAccounts.newAccount;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "hilos.sweeper.action=redrive",
+        "hilos.sweeper.pending-timeout-ms=60000",
+        "hilos.sweeper.batch-size=2",
+        "hilos.snapshot.safety-lag-ms=0"
+})
+@ActiveProfiles("test")
+public class PendingTransactionSweeperTest {
+    
+    @Autowired
+    private AccountRepository accountRepository;
+    
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    @Autowired
+    private PendingTransactionSweeper pendingTransactionSweeper;
+    
+    @Autowired
+    private AccountSnapshotService accountSnapshotService;
+    
+    @Test
+    public void testStalePendingTransactionsAreRedriven() {
+        Account from = accountRepository.save(newAccount("Sweeper From", "100.00"));
+        Account to = accountRepository.save(newAccount("Sweeper To", "0.00"));
+        LocalDateTime stale = LocalDateTime.now().minusMinutes(10);
+        
+        Long settledId = transactionRepository.save(pending(from, to, "60.00", stale)).getId();
+        Long insufficientId = transactionRepository.save(pending(from, to, "60.00", stale.plusSeconds(1))).getId();
+        Long recentId = transactionRepository.save(pending(from, to, "10.00", LocalDateTime.now())).getId();
+        
+        // batch-size=2: la pasada sigue con lotes hasta agotar las filas antiguas
+        assertTrue(pendingTransactionSweeper.sweep() >= 2);
+        
+        assertEquals(TransactionStatus.COMPLETED, transactionRepository.findById(settledId).orElseThrow().getStatus());
+        assertEquals(TransactionStatus.FAILED, transactionRepository.findById(insufficientId).orElseThrow().getStatus());
+        assertEquals(TransactionStatus.PENDING, transactionRepository.findById(recentId).orElseThrow().getStatus());
+        assertEquals(0, Money.valueOf("40.00").compareTo(accountRepository.findById(from.getId()).orElseThrow().getBalance()));
+        assertEquals(0, Money.valueOf("60.00").compareTo(accountRepository.findById(to.getId()).orElseThrow().getBalance()));
+        
+        transactionRepository.deleteById(recentId);
+    }
+    
+    @Test
+    public void testRedrivenTransferIsCountedAfterExistingSnapshots() throws InterruptedException {
+        Account from = accountRepository.save(newAccount("Sweeper Snapshot From", "100.00"));
+        Account to = accountRepository.save(newAccount("Sweeper Snapshot To", "0.00"));
+        Long pendingId = transactionRepository.save(
+                pending(from, to, "60.00", LocalDateTime.now().minusMinutes(10))).getId();
+        
+        // La foto se toma con la transferencia aún PENDING: 100.00 en origen
+        Thread.sleep(5);
+        accountSnapshotService.takeSnapshots();
+        LocalDateTime snapshotTakenAt = LocalDateTime.now();
+        Thread.sleep(5);
+        
+        pendingTransactionSweeper.sweep();
+        Transaction redriven = transactionRepository.findById(pendingId).orElseThrow();
+        assertEquals(TransactionStatus.COMPLETED, redriven.getStatus());
+        assertTrue(redriven.getCreatedAt().isAfter(snapshotTakenAt), "La liquidación debe fecharse tras la foto");
+        
+        // Foto + movimientos posteriores: el cargo diferido se cuenta una sola vez
+        LocalDateTime now = LocalDateTime.now();
+        assertEquals(Money.valueOf("40.00"), accountSnapshotService.getBalanceAsOf(from.getId(), now).getBalance());
+        assertEquals(Money.valueOf("60.00"), accountSnapshotService.getBalanceAsOf(to.getId(), now).getBalance());
+        assertEquals(Money.valueOf("100.00"),
+                accountSnapshotService.getBalanceAsOf(from.getId(), snapshotTakenAt).getBalance());
+        
+        Thread.sleep(5);
+        accountSnapshotService.takeSnapshots();
+        assertEquals(Money.valueOf("40.00"),
+                accountSnapshotService.getBalanceAsOf(from.getId(), LocalDateTime.now()).getBalance());
+    }
+    
+    private Transaction pending(Account from, Account to, String amount, LocalDateTime createdAt) {
+        Transaction transaction = new Transaction();
+        transaction.setFromAccount(from);
+        transaction.setToAccount(to);
+        transaction.setAmount(Money.valueOf(amount));
+        transaction.setStatus(TransactionStatus.PENDING);
+        transaction.setCreatedAt(createdAt);
+        return transaction;
+    }
+    }
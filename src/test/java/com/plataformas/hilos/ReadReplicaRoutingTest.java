@@ -0,0 +1,120 @@
+package com.plataformas.hilos;
+
+import com.plataformas.hilos.config.ReadRoutingContext;
+import com.plataformas.hilos.dto.TransactionResponse;
+import com.plataformas.hilos.dto.TransferRequest;
+import com.plataformas.hilos.entity.Money;
+import com.plataformas.hilos.entity.TransactionStatus;
+import com.plataformas.hilos.repository.AccountRepository;
+import com.plataformas.hilos.service.AccountService;
+import com.plataformas.hilos.service.TransactionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static com.plataformas.hilos.TestAccounts.newAccount;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Dos bases H2 en memoria: testdb como primaria y replicadb como réplica. Solo la réplica tiene
+ * la tabla REPLICA_MARKER, así cada transacción muestra a qué base fue su conexión. La réplica no
+ * tiene el esquema: es una réplica "infinitamente retrasada" y cualquier lectura que deba ver una
+ * escritura recién confirmada falla si se enruta a ella
+ */
+@SpringBootTest(properties = {
+        "hilos.datasource.replica.jdbc-url=jdbc:h2:mem:replicadb;DB_CLOSE_DELAY=-1",
+        "hilos.datasource.replica.username=sa",
+        "hilos.datasource.replica.password=",
+        "hilos.datasource.replica.maximum-pool-size=4"
+})
+@ActiveProfiles("test")
+public class ReadReplicaRoutingTest {
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @BeforeEach
+    public void createMarker() {
+        new JdbcTemplate(replicaDataSource).execute("CREATE TABLE IF NOT EXISTS replica_marker (id INT)");
+    }
+
+    @Test
+    public void testReadOnlyTransactionsUseReplica() {
+        assertTrue(runsOnReplica(true), "Las transacciones de solo lectura deben ir a la réplica");
+        assertFalse(runsOnReplica(false), "Las transacciones de escritura deben ir a la primaria");
+        assertFalse(ReadRoutingContext.onPrimary(() -> runsOnReplica(true)),
+                "Con read-your-writes las lecturas deben ir a la primaria");
+        assertTrue(runsOnReplica(true));
+    }
+
+    @Test
+    public void testEachPoolPublishesMetrics() {
+        runsOnReplica(true);
+        assertNotNull(meterRegistry.find("jdbc.connections.max").tag("name", "primary").gauge());
+        assertNotNull(meterRegistry.find("jdbc.connections.max").tag("name", "replica").gauge());
+    }
+
+    @Test
+    public void testReadsAfterOwnWritesUsePrimary() {
+        Long fromId = accountRepository.save(newAccount("Replica From", "100.00")).getId();
+        Long toId = accountRepository.save(newAccount("Replica To", "0.00")).getId();
+        // Sin escritura reciente en la caché la cuenta se carga de la réplica, que no la tiene
+        assertThrows(RuntimeException.class, () -> accountService.getAccount(fromId));
+        // Carga la caché (con read-your-writes) antes de la transferencia para que esta la invalide
+        assertEquals(Money.valueOf("100.00"),
+                ReadRoutingContext.onPrimary(() -> accountService.getAccount(fromId)).getBalance());
+
+        TransactionResponse completed = transactionService.executeTransfer(
+                new TransferRequest(fromId, toId, Money.valueOf("25.00")));
+
+        // Fuera del tracker: la consulta por referencia y el long-poll leen la fila de la primaria
+        TransactionResponse byReference = transactionService.getTransaction(completed.getReference()).orElseThrow();
+        assertEquals(TransactionStatus.COMPLETED, byReference.getStatus());
+        TransactionResponse awaited = transactionService
+                .awaitTransaction(completed.getReference(), Duration.ZERO).join().orElseThrow();
+        assertEquals(completed.getId(), awaited.getId());
+
+        // Invalidadas por la transferencia: la recarga, sin cabecera, va a la primaria y ve el saldo nuevo
+        assertEquals(Money.valueOf("75.00"), accountService.getAccount(fromId).getBalance());
+        assertEquals(Money.valueOf("25.00"), accountService.getAccount(toId).getBalance());
+    }
+
+    private boolean runsOnReplica(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        Number markers = template.execute(status -> (Number) entityManager.createNativeQuery(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = 'REPLICA_MARKER'")
+                .getSingleResult());
+        return markers.intValue() == 1;
+    }
+}
@@ -0,0 +1,73 @@
+package com.plataformas.hilos;
+
+import com.plataformas.hilos.dto.ReconciliationMismatch;
+import com.plataformas.hilos.dto.ReconciliationReport;
+import com.plataformas.hilos.dto.TransferRequest;
+import com.plataformas.hilos.entity.Money;
+import com.plataformas.hilos.repository.AccountRepository;
+import com.plataformas.hilos.service.ReconciliationService;
+import com.plataformas.hilos.service.TransactionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static com.plataformas.hilos.TestAccounts.newAccount;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "hilos.reconciliation.partition-size=7")
+@ActiveProfiles("test")
+public class ReconciliationTest {
+    
+    @Autowired
+    private AccountRepository accountRepository;
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    @Autowired
+    private ReconciliationService reconciliationService;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Test
+    public void testReconciliationDetectsBalanceDrift() {
+        Long fromAccountId = accountRepository.save(newAccount("Reconciliation From", "1000.00")).getId();
+        Long toAccountId = accountRepository.save(newAccount("Reconciliation To", "0.00")).getId();
+        
+        // Varias particiones de 7 IDs: la agregación se reparte entre tareas fork/join
+        for (int i = 0; i < 40; i++) {
+            transactionService.executeTransfer(new TransferRequest(fromAccountId, toAccountId, Money.valueOf("10.25")));
+        }
+        
+        ReconciliationReport report = reconciliationService.reconcile();
+        assertTrue(report.getTransactionsScanned() >= 40);
+        assertTrue(report.getPartitions() > 1);
+        assertTrue(findMismatch(report, fromAccountId).isEmpty());
+        assertTrue(findMismatch(report, toAccountId).isEmpty());
+        
+        // Descuadre: saldo modificado sin transferencia que lo respalde
+        transactionTemplate.executeWithoutResult(status ->
+                accountRepository.applyBalanceDelta(toAccountId, new BigDecimal("0.01")));
+        
+        ReconciliationMismatch mismatch = findMismatch(reconciliationService.reconcile(), toAccountId)
+                .orElseThrow(() -> new AssertionError("La conciliación debe detectar el descuadre"));
+        assertEquals(0, Money.valueOf("410.00").compareTo(mismatch.getExpectedBalance()));
+        assertEquals(0, Money.valueOf("0.01").compareTo(mismatch.getDifference()));
+        assertFalse(reconciliationService.getLastReport().isConsistent());
+        
+        transactionTemplate.executeWithoutResult(status ->
+                accountRepository.applyBalanceDelta(toAccountId, new BigDecimal("-0.01")));
+    }
+    
+    private Optional<ReconciliationMismatch> findMismatch(ReconciliationReport report, Long accountId) {
+        return report.getMismatches().stream()
+                .filter(mismatch -> mismatch.getAccountId().equals(accountId))
+                .findFirst();
+    }
+    }
@@ -0,0 +1,125 @@
+package com.plataformas.hilos;
+
+import com.plataformas.hilos.dto.TransferEvent;
+import com.plataformas.hilos.entity.Money;
+import com.plataformas.hilos.service.SseTransferEventSink;
+import com.plataformas.hilos.service.TransferOutbox;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sin contexto de Spring: el outbox se sustituye por uno que bloquea o genera páginas para
+ * controlar en qué punto de la lectura inicial está cada suscriptor
+ */
+public class SseTransferEventSinkTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CountDownLatch replayReleased = new CountDownLatch(1);
+    private SseTransferEventSink sink;
+
+    @AfterEach
+    public void tearDown() {
+        replayReleased.countDown();
+        if (sink != null) {
+            sink.shutdown();
+        }
+    }
+
+    @Test
+    public void testSubscribeReturnsBeforeReplayAndRelayNeverWaits() {
+        sink = newSink(new BlockingOutbox(), 100, 1000);
+
+        // La lectura inicial está bloqueada, pero subscribe y publish vuelven de inmediato
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            sink.subscribe(0);
+            sink.publish(events(1, 10));
+        });
+        assertEquals(1.0, subscribers());
+    }
+
+    @Test
+    public void testSlowSubscriberIsClosedWhenItsQueueOverflows() {
+        sink = newSink(new BlockingOutbox(), 5, 1000);
+        sink.subscribe(0);
+
+        sink.publish(events(1, 5));
+        assertEquals(1.0, subscribers());
+        sink.publish(events(6, 1));
+
+        assertEquals(0.0, subscribers());
+        assertEquals(1.0, registry.get("hilos.outbox.sse.slow-subscribers").counter().count());
+    }
+
+    @Test
+    public void testReplayIsCappedPerConnection() throws Exception {
+        AtomicInteger pagesRead = new AtomicInteger();
+        TransferOutbox endless = new TransferOutbox(null) {
+            @Override
+            public List<TransferEvent> findPublishedAfter(long offset, int limit) {
+                pagesRead.incrementAndGet();
+                return events(offset + 1, limit);
+            }
+        };
+        sink = newSink(endless, 100, 1000);
+        sink.subscribe(0);
+
+        // Tras el máximo se cierra el stream; el cliente seguirá con Last-Event-ID
+        awaitCondition(() -> subscribers() == 0.0);
+        assertEquals(2, pagesRead.get());
+    }
+
+    private SseTransferEventSink newSink(TransferOutbox outbox, int queueCapacity, int maxReplayEvents) {
+        return new SseTransferEventSink(outbox, registry, 60_000, queueCapacity, maxReplayEvents, 1);
+    }
+
+    private double subscribers() {
+        return registry.get("hilos.outbox.sse.subscribers").gauge().value();
+    }
+
+    private final class BlockingOutbox extends TransferOutbox {
+
+        private BlockingOutbox() {
+            super(null);
+        }
+
+        @Override
+        public List<TransferEvent> findPublishedAfter(long offset, int limit) {
+            try {
+                replayReleased.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return List.of();
+        }
+    }
+
+    private static List<TransferEvent> events(long firstOffset, int count) {
+        List<TransferEvent> events = new ArrayList<>(count);
+        for (long offset = firstOffset; offset < firstOffset + count; offset++) {
+            events.add(new TransferEvent(offset, UUID.randomUUID(), offset, 1L, 2L, Money.valueOf("1.00"),
+                    LocalDateTime.now(), LocalDateTime.now()));
+        }
+        return events;
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "La condición no se cumplió a tiempo");
+            Thread.sleep(10);
+        }
+    }
+}
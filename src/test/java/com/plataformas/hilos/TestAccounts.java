@@ -0,0 +1,23 @@
+package com.plataformas.hilos;
+
+import com.plataformas.hilos.entity.Account;
+import com.plataformas.hilos.entity.Money;
+
+/**
+ * Cuentas de prueba compartidas por los tests de integración
+ */
+final class TestAccounts {
+
+    private TestAccounts() {
+    }
+
+    /**
+     * Cuenta sin guardar con el titular y el saldo indicados
+     */
+    static Account newAccount(String owner, String balance) {
+        Account account = new Account();
+        account.setOwner(owner);
+        account.setBalance(Money.valueOf(balance));
+        return account;
+    }
+}
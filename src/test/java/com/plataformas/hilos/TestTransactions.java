@@ -0,0 +1,30 @@
+package com.plataformas.hilos;
+
+import com.plataformas.hilos.entity.Transaction;
+import com.plataformas.hilos.entity.TransactionStatus;
+import com.plataformas.hilos.repository.TransactionRepository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.Stream;
+
+/**
+ * Consultas de apoyo sobre transactions para los tests de integración
+ */
+final class TestTransactions {
+
+    private TestTransactions() {
+    }
+
+    /**
+     * Filas con el estado indicado, recorridas con streamByStatus (el stream necesita una transacción abierta)
+     */
+    static long countByStatus(TransactionRepository transactionRepository, TransactionTemplate transactionTemplate,
+                              TransactionStatus status) {
+        Long count = transactionTemplate.execute(tx -> {
+            try (Stream<Transaction> rows = transactionRepository.streamByStatus(status)) {
+                return rows.count();
+            }
+        });
+        return count != null ? count : 0;
+    }
+}
@@ -0,0 +1,143 @@
+package com.plataformas.hilos;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.plataformas.hilos.entity.Account;
+import com.plataformas.hilos.entity.Money;
+import com.plataformas.hilos.entity.Transaction;
+import com.plataformas.hilos.entity.TransactionStatus;
+import com.plataformas.hilos.repository.AccountRepository;
+import com.plataformas.hilos.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.plataformas.hilos.TestAccounts.newAccount;
+import static com.plataformas.hilos.TestTransactions.countByStatus;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Las filas del test se crean con fechas futuras para encabezar el listado aunque el contexto
+ * compartido tenga otras transacciones, y en FAILED para no alterar saldos ni conciliaciones
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class TransactionPagingTest {
+
+    private static final LocalDateTime FUTURE = LocalDateTime.of(2999, 1, 1, 12, 0);
+    /** Cada siembra va un día después de la anterior, así sus filas siempre encabezan el listado */
+    private static final AtomicInteger SEEDS = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    public void testCursorWalksTiesOnCreatedAtWithoutGapsOrDuplicates() throws Exception {
+        List<Transaction> expected = seedFutureRows();
+
+        for (String path : List.of("/transactions", "/transactions/status/FAILED")) {
+            List<Long> walked = new ArrayList<>();
+            String cursor = null;
+            // Páginas de 3 sobre 7 filas empatadas en created_at y 2 anteriores
+            do {
+                JsonNode page = getJson(cursor == null
+                        ? get(path).param("limit", "3")
+                        : get(path).param("limit", "3").param("cursor", cursor));
+                page.path("data").path("items").forEach(item -> walked.add(item.path("id").asLong()));
+                cursor = page.path("data").path("nextCursor").asText(null);
+            } while (walked.size() < expected.size() && cursor != null);
+            assertEquals(expected.stream().map(Transaction::getId).toList(), walked.subList(0, expected.size()),
+                    "Orden (created_at, id) descendente en " + path);
+        }
+    }
+
+    @Test
+    public void testInvalidCursorIsBadRequest() throws Exception {
+        mockMvc.perform(get("/transactions").param("cursor", "no-es-un-cursor"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/transactions/status/COMPLETED").param("cursor", "%%%"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testExportStreamsOneJsonLinePerTransaction() throws Exception {
+        List<Transaction> expected = seedFutureRows();
+
+        MvcResult exporting = mockMvc.perform(get("/transactions/export").param("status", "FAILED"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(exporting))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(countByStatus(transactionRepository, transactionTemplate, TransactionStatus.FAILED), lines.length);
+        for (int i = 0; i < expected.size(); i++) {
+            JsonNode line = objectMapper.readTree(lines[i]);
+            assertEquals(expected.get(i).getId(), line.path("id").asLong());
+            assertEquals("FAILED", line.path("status").asText());
+        }
+    }
+
+    /**
+     * Devuelve las filas creadas en el orden esperado del listado
+     */
+    private List<Transaction> seedFutureRows() {
+        Account from = accountRepository.save(newAccount("Paging From", "0.00"));
+        Account to = accountRepository.save(newAccount("Paging To", "0.00"));
+        LocalDateTime tie = FUTURE.plusDays(SEEDS.incrementAndGet());
+        List<Transaction> rows = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            rows.add(newTransaction(from, to, tie));
+        }
+        rows.add(newTransaction(from, to, tie.minusSeconds(1)));
+        rows.add(newTransaction(from, to, tie.minusSeconds(2)));
+        List<Transaction> saved = new ArrayList<>(transactionRepository.saveAll(rows));
+        saved.sort(Comparator.comparing(Transaction::getCreatedAt).thenComparing(Transaction::getId).reversed());
+        return saved;
+    }
+
+    private JsonNode getJson(RequestBuilder request) throws Exception {
+        String body = mockMvc.perform(request).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private static Transaction newTransaction(Account from, Account to, LocalDateTime createdAt) {
+        Transaction transaction = new Transaction();
+        transaction.setFromAccount(from);
+        transaction.setToAccount(to);
+        transaction.setAmount(Money.valueOf("1.00"));
+        transaction.setStatus(TransactionStatus.FAILED);
+        transaction.setCreatedAt(createdAt);
+        return transaction;
+    }
+}
@@ -0,0 +1,171 @@
+package com.plataformas.hilos;
+
+import com.plataformas.hilos.entity.Money;
+import com.plataformas.hilos.exception.TransferRejectedException;
+import com.plataformas.hilos.repository.AccountRepository;
+import com.plataformas.hilos.service.TransferAdmissionLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.plataformas.hilos.TestAccounts.newAccount;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Límite AIMD del control de admisión. Los tests del algoritmo construyen su propio limitador
+ * y fijan la latencia de cada muestra con el instante de admisión que pasan a release();
+ * el contexto (límite fijo en 1) solo se usa para comprobar el 503 del endpoint
+ */
+@SpringBootTest(properties = {
+        "hilos.admission.initial-limit=1",
+        "hilos.admission.min-limit=1",
+        "hilos.admission.max-limit=1"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class TransferAdmissionLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(2);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransferAdmissionLimiter admissionLimiter;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    public void testLimitGrowsAdditivelyUnderTargetOnlyWhenUsed() {
+        TransferAdmissionLimiter limiter = newLimiter(10, 1, 100);
+
+        // Con un solo hueco ocupado el límite no se está usando: no crece
+        limiter.acquire();
+        limiter.release(System.nanoTime() - FAST);
+        assertEquals(10.0, limiter.getLimit(), 1e-9);
+
+        // Con el límite lleno cada muestra rápida suma 1/limit
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire();
+        }
+        limiter.release(System.nanoTime() - FAST);
+        assertEquals(10.1, limiter.getLimit(), 1e-9);
+    }
+
+    @Test
+    public void testLimitDecreasesMultiplicativelyOncePerWindowOverTarget() {
+        TransferAdmissionLimiter limiter = newLimiter(40, 1, 100);
+
+        limiter.acquire();
+        limiter.acquire();
+        limiter.release(System.nanoTime() - SLOW);
+        assertEquals(20.0, limiter.getLimit(), 1e-9);
+
+        // Segunda muestra lenta dentro de la misma ventana (latencia media): no vuelve a reducir
+        limiter.release(System.nanoTime() - SLOW);
+        assertEquals(20.0, limiter.getLimit(), 1e-9);
+    }
+
+    @Test
+    public void testLimitIsClampedToMinAndMax() {
+        assertEquals(50.0, newLimiter(1000, 1, 50).getLimit(), 1e-9);
+        assertEquals(5.0, newLimiter(1, 5, 50).getLimit(), 1e-9);
+
+        TransferAdmissionLimiter atMin = newLimiter(3, 3, 50);
+        atMin.acquire();
+        atMin.release(System.nanoTime() - SLOW);
+        assertEquals(3.0, atMin.getLimit(), 1e-9);
+
+        TransferAdmissionLimiter atMax = newLimiter(4, 1, 4);
+        for (int i = 0; i < 4; i++) {
+            atMax.acquire();
+        }
+        for (int i = 0; i < 4; i++) {
+            atMax.release(System.nanoTime() - FAST);
+        }
+        assertEquals(4.0, atMax.getLimit(), 1e-9);
+    }
+
+    @Test
+    public void testConcurrentAcquireNeverExceedsLimit() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TransferAdmissionLimiter limiter = new TransferAdmissionLimiter(registry, true, 50, 1, 100, 500, 0.5);
+        int threads = 16;
+        int attemptsPerThread = 100;
+        AtomicInteger admitted = new AtomicInteger();
+        List<TransferRejectedException> rejected = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int t = 0; t < threads; t++) {
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        try {
+                            limiter.acquire();
+                            admitted.incrementAndGet();
+                        } catch (TransferRejectedException e) {
+                            synchronized (rejected) {
+                                rejected.add(e);
+                            }
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(50, admitted.get());
+        assertEquals(50, limiter.getInFlight());
+        assertEquals(threads * attemptsPerThread - 50, rejected.size());
+        assertEquals(rejected.size(), registry.get("hilos.transfer.admission.rejections").counter().count(), 1e-9);
+        assertTrue(rejected.stream().allMatch(e -> e.getRetryAfterSeconds() >= 1 && e.getRetryAfterSeconds() <= 60));
+    }
+
+    @Test
+    public void testRejectedTransferIsServiceUnavailableWithRetryAfter() throws Exception {
+        Long fromId = accountRepository.save(newAccount("Admission From", "10.00")).getId();
+        Long toId = accountRepository.save(newAccount("Admission To", "0.00")).getId();
+
+        // Ocupa el único hueco del contexto
+        long admittedAt = admissionLimiter.acquire();
+        try {
+            mockMvc.perform(post("/transactions/transfer")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"fromAccountId\":" + fromId + ",\"toAccountId\":" + toId + ",\"amount\":1.00}"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+        } finally {
+            admissionLimiter.release(admittedAt);
+        }
+        assertEquals(Money.valueOf("10.00"), accountRepository.findById(fromId).orElseThrow().getBalance());
+    }
+
+    private static TransferAdmissionLimiter newLimiter(int initial, int min, int max) {
+        return new TransferAdmissionLimiter(new SimpleMeterRegistry(), true, initial, min, max, 500, 0.5);
+    }
+}
@@ -0,0 +1,128 @@
+package com.plataformas.hilos;
+
+import com.plataformas.hilos.dto.BatchTransferResult;
+import com.plataformas.hilos.dto.MultiLegTransferRequest;
+import com.plataformas.hilos.dto.TransferLeg;
+import com.plataformas.hilos.dto.TransferRequest;
+import com.plataformas.hilos.entity.Money;
+import com.plataformas.hilos.entity.TransactionStatus;
+import com.plataformas.hilos.exception.InsufficientFundsException;
+import com.plataformas.hilos.repository.AccountRepository;
+import com.plataformas.hilos.repository.TransactionRepository;
+import com.plataformas.hilos.service.AccountCache;
+import com.plataformas.hilos.service.AccountLockManager;
+import com.plataformas.hilos.service.BatchTransferService;
+import com.plataformas.hilos.service.MultiLegTransferService;
+import com.plataformas.hilos.service.TransferChunkSettler;
+import com.plataformas.hilos.service.TransferEngineRegistry;
+import com.plataformas.hilos.service.TransferMetrics;
+import com.plataformas.hilos.service.TransferOutbox;
+import com.plataformas.hilos.service.TransferRetryTemplate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static com.plataformas.hilos.TestAccounts.newAccount;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * hilos.transfer.latency{outcome} en los caminos de lote y de varios tramos. Los servicios se
+ * construyen con los colaboradores del contexto y un TransferMetrics sobre un SimpleMeterRegistry
+ * propio, así los recuentos no dependen de lo que hayan ejecutado otros tests
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class TransferLatencyMetricsTest {
+
+    @Autowired
+    private TransferEngineRegistry transferEngineRegistry;
+
+    @Autowired
+    private TransferRetryTemplate transferRetryTemplate;
+
+    @Autowired
+    private TransferChunkSettler transferChunkSettler;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private AccountLockManager accountLockManager;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountCache accountCache;
+
+    @Autowired
+    private TransferOutbox transferOutbox;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    private SimpleMeterRegistry registry;
+    private TransferMetrics transferMetrics;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        transferMetrics = new TransferMetrics(registry);
+    }
+
+    @Test
+    public void testBatchRecordsOneSamplePerTransferByOutcome() {
+        BatchTransferService batchTransferService = new BatchTransferService(transferEngineRegistry,
+                transferRetryTemplate, transferChunkSettler, transactionTemplate, validator, transferMetrics, 500);
+        Long fromId = accountRepository.save(newAccount("Metrics Batch From", "10.00")).getId();
+        Long toId = accountRepository.save(newAccount("Metrics Batch To", "0.00")).getId();
+
+        List<BatchTransferResult> results = batchTransferService.processBatch(List.of(
+                new TransferRequest(fromId, toId, Money.valueOf("4.00")),
+                new TransferRequest(fromId, toId, Money.valueOf("50.00")),
+                new TransferRequest(fromId, 999_999_999L, Money.valueOf("1.00")),
+                new TransferRequest(fromId, toId, Money.valueOf("4.00"))).iterator());
+
+        assertEquals(List.of(TransactionStatus.COMPLETED, TransactionStatus.FAILED, TransactionStatus.FAILED,
+                TransactionStatus.COMPLETED), results.stream().map(BatchTransferResult::getStatus).toList());
+        assertEquals(2, latencyCount("completed"));
+        assertEquals(1, latencyCount("insufficient_funds"));
+        assertEquals(1, latencyCount("error"));
+    }
+
+    @Test
+    public void testMultiLegRecordsOneSamplePerOperation() {
+        MultiLegTransferService multiLegTransferService = new MultiLegTransferService(transferEngineRegistry,
+                transferRetryTemplate, accountLockManager, transactionRepository, transactionTemplate,
+                accountCache, transferOutbox, transferMetrics);
+        Long payerId = accountRepository.save(newAccount("Metrics Payer", "100.00")).getId();
+        Long firstId = accountRepository.save(newAccount("Metrics Leg 1", "0.00")).getId();
+        Long secondId = accountRepository.save(newAccount("Metrics Leg 2", "0.00")).getId();
+
+        multiLegTransferService.executeTransfer(new MultiLegTransferRequest(payerId, List.of(
+                new TransferLeg(null, firstId, Money.valueOf("30.00")),
+                new TransferLeg(null, secondId, Money.valueOf("30.00")))));
+        assertThrows(InsufficientFundsException.class, () -> multiLegTransferService.executeTransfer(
+                new MultiLegTransferRequest(payerId, List.of(
+                        new TransferLeg(null, firstId, Money.valueOf("30.00")),
+                        new TransferLeg(null, secondId, Money.valueOf("30.00"))))));
+
+        assertEquals(1, latencyCount("completed"));
+        assertEquals(1, latencyCount("insufficient_funds"));
+        assertEquals(0, latencyCount("error"));
+    }
+
+    private long latencyCount(String outcome) {
+        return registry.get("hilos.transfer.latency").tag("outcome", outcome).timer().count();
+    }
+}
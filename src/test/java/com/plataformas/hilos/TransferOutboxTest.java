@@ -0,0 +1,78 @@
+package com.plataformas.hilos;
+
+import com.plataformas.hilos.dto.TransferEvent;
+import com.plataformas.hilos.dto.TransferRequest;
+import com.plataformas.hilos.entity.Money;
+import com.plataformas.hilos.exception.InsufficientFundsException;
+import com.plataformas.hilos.repository.AccountRepository;
+import com.plataformas.hilos.service.OutboxRelay;
+import com.plataformas.hilos.service.TransactionService;
+import com.plataformas.hilos.service.TransferOutbox;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.plataformas.hilos.TestAccounts.newAccount;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class TransferOutboxTest {
+    
+    @Autowired
+    private AccountRepository accountRepository;
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    @Autowired
+    private OutboxRelay outboxRelay;
+    
+    @Autowired
+    private TransferOutbox transferOutbox;
+    
+    @Test
+    public void testCompletedTransfersArePublishedWithConsecutiveOffsets() {
+        Long fromAccountId = accountRepository.save(newAccount("Outbox From", "100.00")).getId();
+        Long toAccountId = accountRepository.save(newAccount("Outbox To", "0.00")).getId();
+        
+        outboxRelay.relay();
+        long since = lastOffset();
+        
+        for (int i = 0; i < 3; i++) {
+            transactionService.executeTransfer(new TransferRequest(fromAccountId, toAccountId, Money.valueOf("30.00")));
+        }
+        // Saldo insuficiente: la fila FAILED no genera evento
+        assertThrows(InsufficientFundsException.class, () ->
+                transactionService.executeTransfer(new TransferRequest(fromAccountId, toAccountId, Money.valueOf("30.00"))));
+        outboxRelay.relay();
+        
+        List<TransferEvent> events = new ArrayList<>();
+        for (TransferEvent event : transferOutbox.findPublishedAfter(since, 1000)) {
+            if (event.getFromAccountId().equals(fromAccountId)) {
+                events.add(event);
+            }
+        }
+        assertEquals(3, events.size());
+        for (int i = 1; i < events.size(); i++) {
+            assertTrue(events.get(i).getOffset() > events.get(i - 1).getOffset(), "Offsets fuera de orden");
+        }
+        assertTrue(events.stream().allMatch(event -> event.getReference() != null && event.getTransactionId() != null));
+    }
+    
+    private long lastOffset() {
+        long offset = 0;
+        List<TransferEvent> page;
+        do {
+            page = transferOutbox.findPublishedAfter(offset, 1000);
+            if (!page.isEmpty()) {
+                offset = page.get(page.size() - 1).getOffset();
+            }
+        } while (!page.isEmpty());
+        return offset;
+    }
+    }
@@ -0,0 +1,91 @@
+package com.plataformas.hilos;
+
+import com.plataformas.hilos.dto.TransferRequest;
+import com.plataformas.hilos.entity.Money;
+import com.plataformas.hilos.repository.AccountRepository;
+import com.plataformas.hilos.service.LeanTransferEngine;
+import com.plataformas.hilos.service.TransferEngine;
+import com.plataformas.hilos.service.TransferEngineRegistry;
+import com.plataformas.hilos.service.TransferExecutorService;
+import com.plataformas.hilos.service.TransferRetryTemplate;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el camino pesimista (bloqueo + entidades) con el camino lean (UPDATE condicional):
+ * sentencias JDBC por transferencia y latencias p50/p99.
+ * Se ejecuta con ./gradlew benchmark (no forma parte de ./gradlew test).
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.com.plataformas.hilos=WARN"
+})
+@ActiveProfiles("test")
+public class TransferPathBenchmarkTest {
+    
+    private static final int ACCOUNTS = Integer.getInteger("hilos.bench.accounts", 50);
+    private static final int TRANSFERS = Integer.getInteger("hilos.bench.transfers", 5000);
+    private static final int THREADS = Integer.getInteger("hilos.bench.threads", 8);
+    
+    @Autowired
+    private AccountRepository accountRepository;
+    
+    @Autowired
+    private TransferEngineRegistry transferEngineRegistry;
+    
+    @Autowired
+    private TransferRetryTemplate transferRetryTemplate;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Test
+    public void compareTransferPaths() throws InterruptedException {
+        // Calentamiento de ambos caminos antes de medir
+        run(TransferExecutorService.ENGINE_NAME, TRANSFERS / 10, false);
+        run(LeanTransferEngine.ENGINE_NAME, TRANSFERS / 10, false);
+        
+        run(TransferExecutorService.ENGINE_NAME, TRANSFERS, true);
+        run(LeanTransferEngine.ENGINE_NAME, TRANSFERS, true);
+    }
+    
+    private void run(String engineName, int transfers, boolean report) throws InterruptedException {
+        TransferEngine engine = transferEngineRegistry.getEngine(engineName);
+        List<Long> accountIds = BenchmarkSupport.createAccounts(accountRepository, "Bench", ACCOUNTS,
+                Money.valueOf("1000000.00"));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        BenchmarkSupport.Result result = BenchmarkSupport.runConcurrently(transfers, executor, false, () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            Long from = accountIds.get(random.nextInt(accountIds.size()));
+            Long to = accountIds.get(random.nextInt(accountIds.size()));
+            TransferRequest request = new TransferRequest(from, to, Money.valueOf("1.00"));
+            transferRetryTemplate.execute(() -> engine.executeTransfer(request, UUID.randomUUID()));
+        });
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+        
+        if (report) {
+            double statementsPerTransfer = (double) statistics.getPrepareStatementCount() / transfers;
+            BenchmarkSupport.report(engineName, String.format("transferencias=%d hilos=%d tps=%.0f sentencias/transferencia=%.2f",
+                    transfers, THREADS, result.throughput(), statementsPerTransfer), result);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.plataformas.hilos;
+
+import com.jayway.jsonpath.JsonPath;
+import com.plataformas.hilos.entity.Money;
+import com.plataformas.hilos.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.UUID;
+
+import static com.plataformas.hilos.TestAccounts.newAccount;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class TransferReferenceTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    public void testReferenceIsAssignedAndResolvesAfterCompletion() throws Exception {
+        Long fromId = accountRepository.save(newAccount("Ref From", "100.00")).getId();
+        Long toId = accountRepository.save(newAccount("Ref To", "0.00")).getId();
+
+        MvcResult accepted = mockMvc.perform(post("/transactions/transfer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fromAccountId\":" + fromId + ",\"toAccountId\":" + toId + ",\"amount\":40.00}"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.data.status").value("PENDING"))
+                .andReturn();
+        String reference = JsonPath.read(accepted.getResponse().getContentAsString(), "$.data.reference");
+        assertEquals("/transactions/" + reference, accepted.getResponse().getHeader("Location"));
+
+        MvcResult awaiting = mockMvc.perform(get("/transactions/{reference}/await", reference).param("timeoutMs", "10000"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult completed = mockMvc.perform(asyncDispatch(awaiting))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.reference").value(reference))
+                .andExpect(jsonPath("$.data.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.data.id").isNumber())
+                .andReturn();
+        Number id = JsonPath.read(completed.getResponse().getContentAsString(), "$.data.id");
+
+        // La misma transacción por referencia y por ID numérico
+        mockMvc.perform(get("/transactions/{id}", reference))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.status").value("COMPLETED"));
+        mockMvc.perform(get("/transactions/{id}", id.longValue()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.reference").value(reference));
+        assertEquals(Money.valueOf("60.00"), accountRepository.findById(fromId).orElseThrow().getBalance());
+    }
+
+    @Test
+    public void testUnknownOrMalformedIdentifiers() throws Exception {
+        mockMvc.perform(get("/transactions/{id}", UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+        // Solo dígitos pero fuera del rango de long
+        mockMvc.perform(get("/transactions/{id}", "123456789012345678901234567890"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/transactions/{id}", "no-es-una-referencia"))
+                .andExpect(status().isBadRequest());
+
+        MvcResult awaiting = mockMvc.perform(get("/transactions/{reference}/await", UUID.randomUUID()).param("timeoutMs", "0"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(awaiting)).andExpect(status().isNotFound());
+    }
+}